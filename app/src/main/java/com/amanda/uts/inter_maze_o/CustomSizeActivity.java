@@ -2,31 +2,157 @@ package com.amanda.uts.inter_maze_o;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import android.app.ActivityManager;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
+import android.widget.AdapterView;
+import android.widget.CheckBox;
 import android.widget.EditText;
+import android.widget.Spinner;
+import android.widget.TextView;
 
 import com.amanda.uts.inter_maze_o.R;
 
 public class CustomSizeActivity extends AppCompatActivity {
 
+    /* Hint lengths, in the order of the 'hints' string-array */
+    private static final int[] HINT_STEPS = { 0, 5, MazeGame.FULL_PATH };
+    private static final long MB = 1024 * 1024;
+    /* Mazes may take half the heap - the rest is for the views, bitmaps and tiles */
+    private static final int HEAP_SHARE = 2;
+    /* A phone against the desktop the benchmarks in the README ran on */
+    private static final double DEVICE_SLOWDOWN = 4;
+
+    private SizePlanner planner;
+    private EditText editTextRows, editTextCols;
+    private Spinner spinnerAlgorithm, spinnerDifficulty;
+    private TextView textViewEstimate;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_custom_size);
+        editTextRows = findViewById(R.id.editText);
+        editTextCols = findViewById(R.id.editText2);
+        spinnerAlgorithm = findViewById(R.id.spinnerAlgorithm);
+        spinnerDifficulty = findViewById(R.id.spinnerDifficulty);
+        textViewEstimate = findViewById(R.id.textViewEstimate);
+
+        /* Android allocates direct buffers on the Java heap, so large grids go straight to a
+           mapped file in the cache directory - never more than half of the free space */
+        ActivityManager activityManager = (ActivityManager) getSystemService(ACTIVITY_SERVICE);
+        planner = new SizePlanner(activityManager.getMemoryClass() * MB / HEAP_SHARE);
+        planner.setMappedBytes(getCacheDir().getUsableSpace() / 2);
+        planner.setSlowdown(DEVICE_SLOWDOWN);
+
+        /* Show what the size costs while it is typed */
+        TextWatcher sizeWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) { }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                updateEstimate();
+            }
+        };
+        editTextRows.addTextChangedListener(sizeWatcher);
+        editTextCols.addTextChangedListener(sizeWatcher);
+        AdapterView.OnItemSelectedListener selectionListener = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                updateEstimate();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) { }
+        };
+        spinnerAlgorithm.setOnItemSelectedListener(selectionListener);
+        spinnerDifficulty.setOnItemSelectedListener(selectionListener);
+    }
+
+    /* The spinner's entries are listed in the same order as MazeAlgorithm's constants */
+    private MazeAlgorithm getAlgorithm() {
+        return MazeAlgorithm.values()[spinnerAlgorithm.getSelectedItemPosition()];
+    }
+
+    /* The spinner's entries are listed in the same order as Difficulty's constants */
+    private Difficulty getDifficulty() {
+        return Difficulty.values()[spinnerDifficulty.getSelectedItemPosition()];
+    }
+
+    /* A whole number of at least 1, or 0 if the field holds anything else */
+    private static int parseSize(EditText editText) {
+        try {
+            return Math.max(0, Integer.parseInt(editText.getText().toString().trim()));
+        } catch(NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private SizePlanner.Plan plan() {
+        return planner.plan(parseSize(editTextCols), parseSize(editTextRows), getAlgorithm(),
+                getDifficulty().getTarget());
+    }
+
+    private void updateEstimate() {
+        SizePlanner.Plan plan = plan();
+        if(!plan.fits()) {
+            textViewEstimate.setText("");
+            return;
+        }
+        textViewEstimate.setText(getString(R.string.size_estimate, plan.getHeapBytes() / MB,
+                plan.getOffHeapBytes() / MB, plan.getGenerateMillis() / 1000.0));
+    }
+
+    /* Check the size before anything is allocated - an error on the field instead of running out
+       of memory in MainActivity */
+    private boolean checkSize(SizePlanner.Plan plan) {
+        boolean valid = true;
+        if(parseSize(editTextRows) == 0) {
+            editTextRows.setError(getString(R.string.error_size_number));
+            valid = false;
+        }
+        if(parseSize(editTextCols) == 0) {
+            editTextCols.setError(getString(R.string.error_size_number));
+            valid = false;
+        }
+        if(valid && !plan.fits()) {
+            int side = planner.maxSide(getAlgorithm(), getDifficulty().getTarget());
+            editTextRows.setError(getString(R.string.error_size_too_large, side));
+            valid = false;
+        }
+        return valid;
     }
 
     public void play(View view) {
+        SizePlanner.Plan plan = plan();
+        if(!checkSize(plan)) return;
+
         Intent intent = new Intent(this, MainActivity.class);
-        EditText editTextRows = findViewById(R.id.editText);
-        EditText editTextCols = findViewById(R.id.editText2);
         int [] mazeSize = new int [2];
         /* rows */
-        mazeSize[0] = Integer.parseInt(editTextRows.getText().toString());
+        mazeSize[0] = parseSize(editTextRows);
         /* columns */
-        mazeSize[1] = Integer.parseInt(editTextCols.getText().toString());
+        mazeSize[1] = parseSize(editTextCols);
         intent.putExtra("mazeSize", mazeSize);
+        intent.putExtra("storage", plan.getStorage().name());
+        intent.putExtra("mazeAlgorithm", getAlgorithm().name());
+        intent.putExtra("difficulty", getDifficulty().name());
+        Spinner spinnerHints = findViewById(R.id.spinnerHints);
+        intent.putExtra("hintSteps", HINT_STEPS[spinnerHints.getSelectedItemPosition()]);
+        /* The spinner's entries are listed in the same order as TiltControl's constants */
+        Spinner spinnerTilt = findViewById(R.id.spinnerTilt);
+        intent.putExtra("tiltControl", TiltControl.values()[spinnerTilt.getSelectedItemPosition()].name());
+        CheckBox checkBoxRenderThread = findViewById(R.id.checkBoxRenderThread);
+        intent.putExtra("renderThread", checkBoxRenderThread.isChecked());
+        CheckBox checkBoxBall = findViewById(R.id.checkBoxBall);
+        intent.putExtra("ballPhysics", checkBoxBall.isChecked());
         startActivity(intent);
     }
 }
@@ -0,0 +1,43 @@
+package com.amanda.uts.inter_maze_o;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import android.os.Bundle;
+
+/* The endless mode - one maze without borders, see EndlessView */
+public class EndlessActivity extends AppCompatActivity {
+
+    private static final String SEED = "seed";
+
+    EndlessView endlessView;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_endless);
+        endlessView = findViewById(R.id.endlessView);
+
+        /* A rotated screen shows the same world again. An intent can also ask for a world. */
+        if(savedInstanceState != null) endlessView.setSeed(savedInstanceState.getLong(SEED));
+        else if(getIntent().hasExtra(SEED)) endlessView.setSeed(getIntent().getLongExtra(SEED, 0));
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putLong(SEED, endlessView.getSeed());
+    }
+
+    /* Sensors only while the activity is visible, like MainActivity */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        endlessView.register();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        endlessView.unregister();
+    }
+}
@@ -0,0 +1,121 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/*
+    Draws an EndlessGame: the cells around the player, who always stays in the middle of the view.
+
+    The visible walls are collected into one array of line segments and drawn with a single
+    drawLines() call. The array is sized for the view once and only refilled when the player
+    moves, so drawing a frame doesn't allocate.
+
+    Only used by the UI thread (see EndlessView).
+*/
+public class EndlessRenderer {
+
+    private static final float WALL_THICKNESS = 4;
+    private static final float CELL_SIZE_DP = 32;
+    private static final float TEXT_SIZE_DP = 16;
+
+    private final Paint wallPaint, playerPaint, textPaint;
+    private final int backgroundColor;
+    private final float cellSize;
+
+    private int width, height;
+    /* Visible cells, counted from the top left one */
+    private int firstX, firstY, visibleCols, visibleRows;
+    private float[] wallLines = new float[0];
+    private int wallLinesLength;
+    private boolean dirty = true;
+    private String status = "";
+
+    public EndlessRenderer(Resources resources) {
+        wallPaint = new Paint();
+        wallPaint.setColor(resources.getColor(R.color.colorPrimaryDark));
+        wallPaint.setStrokeWidth(WALL_THICKNESS);
+        wallPaint.setStrokeCap(Paint.Cap.SQUARE);
+
+        playerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        playerPaint.setColor(resources.getColor(R.color.black));
+
+        float density = resources.getDisplayMetrics().density;
+        textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(resources.getColor(R.color.colorAccent));
+        textPaint.setTextSize(TEXT_SIZE_DP * density);
+
+        backgroundColor = resources.getColor(R.color.white);
+        cellSize = CELL_SIZE_DP * density;
+    }
+
+    /* Needed whenever the size of the view changes */
+    public void layout(int width, int height) {
+        this.width = width;
+        this.height = height;
+        /* a partly visible cell on both sides */
+        visibleCols = (int) Math.ceil(width / cellSize) + 2;
+        visibleRows = (int) Math.ceil(height / cellSize) + 2;
+        /* right and bottom wall of every cell, plus the left and top border of the first ones */
+        int lines = 2 * visibleCols * visibleRows + visibleCols + visibleRows;
+        if(wallLines.length < 4 * lines) wallLines = new float[4 * lines];
+        dirty = true;
+    }
+
+    /* Call after the player has moved */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public void draw(Canvas canvas, EndlessGame game) {
+        canvas.drawColor(backgroundColor);
+        if(width == 0) return;
+        if(dirty) {
+            buildWalls(game);
+            status = game.getSteps() + " steps, " + game.getFarthest() + " cells from the start";
+            dirty = false;
+        }
+
+        /* where the top left visible cell has to go for the player to be in the middle */
+        float left = width / 2f - (game.getPlayerX() - firstX + 0.5f) * cellSize;
+        float top = height / 2f - (game.getPlayerY() - firstY + 0.5f) * cellSize;
+        canvas.save();
+        canvas.translate(left, top);
+        canvas.drawLines(wallLines, 0, wallLinesLength, wallPaint);
+        canvas.restore();
+
+        float margin = cellSize / 10;
+        canvas.drawCircle(width / 2f, height / 2f, cellSize / 2 - margin, playerPaint);
+        canvas.drawText(status, margin, margin - textPaint.ascent(), textPaint);
+    }
+
+    private void buildWalls(EndlessGame game) {
+        ChunkedMaze maze = game.getMaze();
+        firstX = game.getPlayerX() - visibleCols / 2;
+        firstY = game.getPlayerY() - visibleRows / 2;
+        float[] lines = wallLines;
+        int n = 0;
+        for (int row = 0; row < visibleRows; row++) {
+            int y = firstY + row;
+            float top = row * cellSize, bottom = top + cellSize;
+            if(maze.hasWall(firstX, y, Direction.LEFT)) n = line(lines, n, 0, top, 0, bottom);
+            /* row by row, so consecutive cells nearly always come from the same chunk */
+            for (int col = 0; col < visibleCols; col++) {
+                int x = firstX + col;
+                float left = col * cellSize, right = left + cellSize;
+                if(row == 0 && maze.hasWall(x, y, Direction.UP)) n = line(lines, n, left, top, right, top);
+                if(maze.hasWall(x, y, Direction.RIGHT)) n = line(lines, n, right, top, right, bottom);
+                if(maze.hasWall(x, y, Direction.DOWN)) n = line(lines, n, left, bottom, right, bottom);
+            }
+        }
+        wallLinesLength = n;
+    }
+
+    private static int line(float[] lines, int n, float x1, float y1, float x2, float y2) {
+        lines[n] = x1;
+        lines[n + 1] = y1;
+        lines[n + 2] = x2;
+        lines[n + 3] = y2;
+        return n + 4;
+    }
+}
@@ -0,0 +1,130 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Trace;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import java.util.Random;
+
+import static android.content.res.Configuration.ORIENTATION_LANDSCAPE;
+import static android.content.res.Configuration.ORIENTATION_PORTRAIT;
+
+/*
+    The endless mode. Tilting moves the player exactly like in GameView, but through a ChunkedMaze
+    which is generated around the player as they go.
+*/
+public class EndlessView extends View implements SensorEventListener {
+
+    private static final String TAG = "EndlessView";
+
+    private EndlessGame game;
+    private final EndlessRenderer renderer;
+    /* Same input handling as GameView: the sensor thread writes the slot, the UI thread filters
+       the latest sample once per frame */
+    private final Direction[] moves = new Direction[2];
+    private final SensorSlot sensorSlot = new SensorSlot();
+    private final SensorSlot.Sample sample = new SensorSlot.Sample();
+    private final TiltFilter tiltFilter = new TiltFilter();
+    private HandlerThread sensorThread;
+    private boolean polling;
+    private final Runnable inputTick = new Runnable() {
+        @Override
+        public void run() {
+            if(!polling) return;
+            consumeInput();
+            postOnAnimation(this);
+        }
+    };
+
+    private final SensorManager sensorManager;
+    private final Sensor gameRotationVector;
+
+    public EndlessView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        renderer = new EndlessRenderer(getResources());
+        game = new EndlessGame(new Random().nextLong());
+
+        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        gameRotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR);
+        if(BuildConfig.DEBUG && gameRotationVector == null) Log.d(TAG, "gameRotationVector not supported");
+    }
+
+    /* Start over in the world of the given seed - the same seed always gives the same world */
+    public void setSeed(long seed) {
+        game = new EndlessGame(seed);
+        renderer.invalidate();
+        invalidate();
+    }
+
+    public long getSeed() {
+        return game.getMaze().getSeed();
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        tiltFilter.setPortrait(getResources().getConfiguration().orientation == ORIENTATION_PORTRAIT);
+        renderer.layout(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        Trace.beginSection("EndlessView.onDraw");
+        renderer.draw(canvas, game);
+        Trace.endSection();
+    }
+
+    public void register() {
+        sensorThread = new HandlerThread("EndlessView sensor");
+        sensorThread.start();
+        sensorManager.registerListener(this, gameRotationVector, SensorManager.SENSOR_DELAY_GAME,
+                new Handler(sensorThread.getLooper()));
+        polling = true;
+        postOnAnimation(inputTick);
+    }
+
+    public void unregister() {
+        sensorManager.unregisterListener(this);
+        if(sensorThread != null) {
+            sensorThread.quitSafely();
+            sensorThread = null;
+        }
+        polling = false;
+        removeCallbacks(inputTick);
+        tiltFilter.reset();
+    }
+
+    private void consumeInput() {
+        sensorSlot.read(sample);
+        int orientation = getResources().getConfiguration().orientation;
+        if(orientation != ORIENTATION_PORTRAIT && orientation != ORIENTATION_LANDSCAPE) return;
+        int count = tiltFilter.update(sample.x, sample.y, System.nanoTime(), moves);
+        boolean moved = false;
+        for (int i = 0; i < count; i++) moved |= game.movePlayer(moves[i]);
+        if(moved) {
+            /* the whole view scrolls with the player */
+            renderer.invalidate();
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int i) { }
+
+    @Override
+    public void onSensorChanged(SensorEvent sensorEvent) {
+        float[] values = sensorEvent.values;
+        sensorSlot.write(values[0], values[1], values[2], sensorEvent.timestamp);
+    }
+}
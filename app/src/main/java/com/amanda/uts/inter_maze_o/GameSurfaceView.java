@@ -0,0 +1,415 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import static android.content.res.Configuration.ORIENTATION_PORTRAIT;
+
+/*
+    Alternative to GameView which draws on its own render thread instead of the UI thread.
+
+    The render thread runs a game loop with a fixed timestep: the game is updated UPDATES_PER_SECOND
+    times per second of real time, no matter how fast frames are drawn, and a frame is drawn after
+    each round of updates. Posting a frame blocks until the display takes it, so frames follow the
+    display's refresh rate. The sensor callback only stores the latest values in a SensorSlot,
+    which each update reads and runs through a TiltFilter - player movement no longer depends on
+    how often the sensor reports.
+
+    The loop runs while the activity is resumed (register()/unregister()) and the surface exists.
+    Everything in MazeGame and MazeRenderer is only touched by the render thread once it runs.
+*/
+public class GameSurfaceView extends SurfaceView implements MazeView, SurfaceHolder.Callback,
+        SensorEventListener {
+
+    private static final String TAG = "GameSurfaceView";
+
+    private static final int UPDATES_PER_SECOND = 60;
+    private static final long UPDATE_NANOS = 1000000000L / UPDATES_PER_SECOND;
+    /* After a long stall (e.g. a slow frame) skip ahead instead of running lots of updates */
+    private static final long MAX_CATCH_UP_NANOS = 250000000L;
+    /* How long the render thread waits for a surface it can't lock (e.g. while it is being
+       resized or torn down) before trying again - about one frame */
+    private static final long NO_SURFACE_RETRY_MILLIS = 16;
+
+    /* Owned by GameViewModel, so it outlives the view when the screen is rotated */
+    private MazeGame game;
+    private final MazeGame.Listener gameListener = new MazeGame.Listener() {
+        @Override
+        public void onNextMazeReady() {
+            nextMazeReady = true;
+        }
+
+        /* Every frame is drawn anyway, the hint shows up with the next one */
+        @Override
+        public void onHintsReady() { }
+    };
+    private final MazeRenderer renderer;
+    private final GameMetrics metrics = new GameMetrics();
+    private final MetricsOverlay metricsOverlay;
+    private final Direction[] moves = new Direction[2];
+    /* Written by the sensor callback, read by the render thread */
+    private final SensorSlot sensorSlot = new SensorSlot();
+    private int sensorDelay = SensorManager.SENSOR_DELAY_GAME;
+    private final ScaleGestureDetector scaleDetector;
+    /* Double tap shows the metrics overlay, long press exports the metrics */
+    private final GestureDetector gestureDetector;
+
+    private SensorManager sensorManager;
+    private Sensor gameRotationVector;
+
+    /* Written by the UI thread, read by the render thread */
+    private volatile long moveIntervalNanos = 200000000L;
+    private volatile boolean portrait = true;
+    private volatile int surfaceWidth, surfaceHeight;
+    private volatile boolean layoutDirty = true;
+    private volatile boolean nextMazeReady;
+
+    /* Pinch gestures arrive on the UI thread, the renderer applies them on the render thread */
+    private final Object zoomLock = new Object();
+    private float zoomFactor = 1, zoomFocusX, zoomFocusY;
+    private boolean zoomEnded;
+
+    /* Only touched on the UI thread */
+    private RenderThread renderThread;
+    private boolean resumed, surfaceReady;
+
+    /* Only touched on the render thread */
+    private final SensorSlot.Sample sample = new SensorSlot.Sample();
+    private final TiltFilter tiltFilter = new TiltFilter();
+    /* Game time, advanced by UPDATE_NANOS per update */
+    private long updateTime;
+    private int layoutLevel;
+
+    public GameSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        getHolder().addCallback(this);
+
+        renderer = new MazeRenderer(getResources());
+        metricsOverlay = new MetricsOverlay(context, metrics);
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                metricsOverlay.setVisible(!metricsOverlay.isVisible());
+                return true;
+            }
+
+            @Override
+            public void onLongPress(MotionEvent e) {
+                MetricsOverlay.export(getContext(), metrics);
+            }
+        });
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                synchronized(zoomLock) {
+                    zoomFactor *= detector.getScaleFactor();
+                    zoomFocusX = detector.getFocusX();
+                    zoomFocusY = detector.getFocusY();
+                }
+                return true;
+            }
+
+            @Override
+            public void onScaleEnd(ScaleGestureDetector detector) {
+                synchronized(zoomLock) {
+                    zoomEnded = true;
+                }
+            }
+        });
+
+
+        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        gameRotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR);
+        if(gameRotationVector == null && BuildConfig.DEBUG) Log.d(TAG, "gameRotationVector not supported");
+    }
+
+    /* setGame(), setSize(), setAlgorithm() and createMaze() must be called before register(),
+       while the render thread isn't running yet (MainActivity calls them in onCreate()) */
+    @Override
+    public void setGame(MazeGame game) {
+        this.game = game;
+        game.setListener(gameListener);
+        /* The next maze may have been finished while no view was listening */
+        nextMazeReady = game.isWaitingForMaze();
+        layoutDirty = true;
+    }
+
+    @Override
+    public void setSize(int rows, int cols) {
+        game.setSize(rows, cols);
+    }
+
+    @Override
+    public void setDifficulty(Difficulty difficulty) {
+        game.setDifficulty(difficulty.getTarget());
+    }
+
+    @Override
+    public void setAlgorithm(MazeAlgorithm algorithm) {
+        game.setAlgorithm(algorithm);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        game.setSeed(seed);
+    }
+
+    @Override
+    public void createMaze() {
+        Trace.beginSection("GameSurfaceView.createMaze");
+        long start = System.nanoTime();
+        game.createMaze();
+        metrics.recordCreateMaze(game.getGrid().getCols(), game.getGrid().getRows(), System.nanoTime() - start);
+        Trace.endSection();
+        layoutDirty = true;
+    }
+
+    @Override
+    public void setHintSteps(int steps) {
+        game.setHintSteps(steps);
+    }
+
+    @Override
+    public void setBallPhysics(boolean enabled) {
+        game.setBallPhysics(enabled);
+    }
+
+    @Override
+    public void setSensorDelay(int delay) {
+        sensorDelay = delay;
+    }
+
+    @Override
+    public void setMoveInterval(long millis) {
+        moveIntervalNanos = millis * 1000000L;
+    }
+
+    /* The render thread owns the filter, but it only starts with register() - which makes these
+       writes visible to it */
+    @Override
+    public void setTiltFilter(float smoothing, float deadZone, float hysteresis) {
+        tiltFilter.setSmoothing(smoothing);
+        tiltFilter.setDeadZone(deadZone);
+        tiltFilter.setHysteresis(hysteresis);
+    }
+
+    /* Memory the bitmap tiles of a large maze may take, see MazeRenderer. Call before
+       register(), the render thread reads it. */
+    @Override
+    public void setTileCacheBudget(long bytes) {
+        renderer.setTileCacheBudget(bytes);
+    }
+
+    /* Frame intervals (measured from the start of one frame to the next), drawing times, input
+       latency and maze generation times */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void register() {
+        sensorManager.registerListener(this, gameRotationVector, sensorDelay);
+        resumed = true;
+        startRendering();
+    }
+
+    @Override
+    public void unregister() {
+        sensorManager.unregisterListener(this);
+        resumed = false;
+        stopRendering();
+        if(BuildConfig.DEBUG) Log.d(TAG, "frame times: " + metrics.getFrameIntervals());
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        surfaceReady = true;
+        startRendering();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        surfaceWidth = width;
+        surfaceHeight = height;
+        portrait = getResources().getConfiguration().orientation == ORIENTATION_PORTRAIT;
+        layoutDirty = true;
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        surfaceReady = false;
+        /* The surface must not be drawn on after this method returns */
+        stopRendering();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        stopRendering();
+        metricsOverlay.release();
+        /* The game goes on in the next view after a rotation - GameViewModel releases it once
+           the activity is finished for good */
+        renderer.release();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        gestureDetector.onTouchEvent(event);
+        return true;
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) { }
+
+    /* Just remember the latest values, the render thread decides what to do with them */
+    @Override
+    public void onSensorChanged(SensorEvent sensorEvent) {
+        float[] values = sensorEvent.values;
+        sensorSlot.write(values[0], values[1], values[2], sensorEvent.timestamp);
+    }
+
+    private void startRendering() {
+        if(!resumed || !surfaceReady || renderThread != null || game == null) return;
+        metrics.getFrameIntervals().reset();
+        renderThread = new RenderThread();
+        renderThread.start();
+    }
+
+    private void stopRendering() {
+        if(renderThread == null) return;
+        renderThread.running = false;
+        boolean interrupted = false;
+        while(true) {
+            try {
+                renderThread.join();
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        renderThread = null;
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    /* One fixed step of the game */
+    private void update() {
+        if(nextMazeReady) {
+            nextMazeReady = false;
+            if(game.isWaitingForMaze()) game.nextLevel();
+        }
+
+        /* Move as soon as the device is tilted, then repeat every moveIntervalNanos */
+        updateTime += UPDATE_NANOS;
+        game.advanceGhost(UPDATE_NANOS);
+        sensorSlot.read(sample);
+        /* The ball takes the tilt as it is - two physics steps per update */
+        if(game.getBall() != null) {
+            if(game.rollBall(sample.y, sample.x, UPDATE_NANOS)) metrics.onMove(sample.timestamp);
+            return;
+        }
+        tiltFilter.setPortrait(portrait);
+        tiltFilter.setRepeatInterval(moveIntervalNanos);
+        int count = tiltFilter.update(sample.x, sample.y, updateTime, moves);
+        for (int i = 0; i < count; i++) {
+            if(game.movePlayer(moves[i])) metrics.onMove(sample.timestamp);
+        }
+    }
+
+    /* Returns false if the surface couldn't be locked, and nothing was drawn */
+    private boolean render() {
+        SurfaceHolder holder = getHolder();
+        Canvas canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                ? holder.lockHardwareCanvas() : holder.lockCanvas();
+        if(canvas == null) return false;
+        long start = System.nanoTime();
+        metricsOverlay.beginFrame();
+        try {
+            synchronized(zoomLock) {
+                if(zoomFactor != 1) {
+                    renderer.previewZoom(zoomFactor, zoomFocusX, zoomFocusY);
+                    zoomFactor = 1;
+                }
+                if(zoomEnded) {
+                    renderer.commitZoom();
+                    zoomEnded = false;
+                    layoutDirty = true;
+                }
+            }
+            if(layoutDirty || layoutLevel != game.getLevel()) {
+                layoutDirty = false;
+                layoutLevel = game.getLevel();
+                renderer.layout(game.getGrid(), surfaceWidth, surfaceHeight, portrait);
+            }
+            /* A maze being carved grows a little every frame */
+            if(game.continueMaze()) renderer.redrawWalls();
+            renderer.draw(canvas, game);
+            metricsOverlay.endFrame();
+            metricsOverlay.draw(canvas);
+        } finally {
+            metrics.recordDraw(System.nanoTime() - start);
+            /* Returns once the frame has been queued for the display */
+            holder.unlockCanvasAndPost(canvas);
+            metrics.onFrameDrawn(SystemClock.elapsedRealtimeNanos());
+        }
+        return true;
+    }
+
+    private class RenderThread extends Thread {
+        volatile boolean running = true;
+
+        RenderThread() {
+            super("GameSurfaceView");
+        }
+
+        @Override
+        public void run() {
+            long previous = System.nanoTime();
+            long lag = 0;
+            boolean first = true;
+            tiltFilter.reset();
+            while(running) {
+                long now = System.nanoTime();
+                long elapsed = now - previous;
+                previous = now;
+                if(!first) metrics.recordFrameInterval(elapsed);
+                first = false;
+
+                /* Fixed timestep - run as many updates as real time has passed */
+                lag = Math.min(lag + elapsed, MAX_CATCH_UP_NANOS);
+                Trace.beginSection("GameSurfaceView.update");
+                while(lag >= UPDATE_NANOS) {
+                    update();
+                    lag -= UPDATE_NANOS;
+                }
+                Trace.endSection();
+                /* Blocks until the display takes the frame */
+                Trace.beginSection("GameSurfaceView.render");
+                boolean rendered = render();
+                Trace.endSection();
+                /* Without a surface nothing blocks, so wait instead of spinning */
+                if(!rendered) {
+                    try {
+                        Thread.sleep(NO_SURFACE_RETRY_MILLIS);
+                    } catch(InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
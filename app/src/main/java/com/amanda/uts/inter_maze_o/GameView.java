@@ -3,41 +3,84 @@ package com.amanda.uts.inter_maze_o;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.graphics.Canvas;
-import android.graphics.Paint;
+import android.graphics.Rect;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
 
 import androidx.annotation.Nullable;
 
-import com.amanda.uts.inter_maze_o.R;
-
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.Stack;
-
 import static android.content.res.Configuration.ORIENTATION_LANDSCAPE;
 import static android.content.res.Configuration.ORIENTATION_PORTRAIT;
 
-public class GameView extends View implements SensorEventListener {
+public class GameView extends View implements MazeView, SensorEventListener {
 
     Configuration config;
 
-    private Cell[][] cells;
-    private Cell player, exit;
-    private int COLS = 15, ROWS = 15;
-    private static final float WALL_THICKNESS = 4;
-    private float cellSize, hMargin, vMargin;
-    /* The Paint class holds the style and color information about how to draw geometries, text
-        and bitmaps. */
-    private Paint wallPaint, playerPaint, exitPaint;
-    /* The maze algorithm chooses random not visited neighbour  */
-    private Random random;
-    private enum Direction { UP, RIGHT, DOWN, LEFT }
+    /* The maze and the player, independent of drawing (shared with GameSurfaceView). Owned by
+       GameViewModel, so it outlives the view when the screen is rotated. */
+    private MazeGame game;
+    private final MazeGame.Listener gameListener = new MazeGame.Listener() {
+        @Override
+        public void onNextMazeReady() {
+            /* Runs on the background thread - switch levels on the UI thread, and only if the
+               player is already waiting for it */
+            post(new Runnable() {
+                @Override
+                public void run() {
+                    if(game.isWaitingForMaze() && game.nextLevel()) {
+                        updateLayout();
+                        invalidate();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onHintsReady() {
+            postInvalidate();
+        }
+    };
+    private MazeRenderer renderer;
+    /* Level the current layout was done for */
+    private int layoutLevel;
+    private final Rect dirty = new Rect();
+    /* Moves requested by one tick of the input filter, see TiltFilter */
+    private final Direction[] moves = new Direction[2];
+    /* The sensor callback runs on sensorThread and only writes to sensorSlot. The UI thread reads
+       the latest sample once per frame and filters it. */
+    private final SensorSlot sensorSlot = new SensorSlot();
+    private final SensorSlot.Sample sample = new SensorSlot.Sample();
+    private final TiltFilter tiltFilter = new TiltFilter();
+    private HandlerThread sensorThread;
+    private int sensorDelay = SensorManager.SENSOR_DELAY_GAME;
+    private boolean polling;
+    /* Time of the previous input tick, for the rolling ball and the ghost */
+    private long lastTick;
+    private final Runnable inputTick = new Runnable() {
+        @Override
+        public void run() {
+            if(!polling) return;
+            consumeInput();
+            postOnAnimation(this);
+        }
+    };
+    private ScaleGestureDetector scaleDetector;
+    /* Double tap shows the metrics overlay, long press exports the metrics */
+    private GestureDetector gestureDetector;
+    private final GameMetrics metrics = new GameMetrics();
+    private MetricsOverlay metricsOverlay;
 
     /* A good convention is to declare a TAG constant in our class and use that to log our activity
       (type 'logt' and let the framework autocomplete the variable) */
@@ -65,21 +108,40 @@ public class GameView extends View implements SensorEventListener {
     public GameView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
 
-        Log.d(TAG, "quick check: inside GameView constructor");
+        if(BuildConfig.DEBUG) Log.d(TAG, "quick check: inside GameView constructor");
 
-        wallPaint = new Paint();
-        wallPaint.setColor(getResources().getColor(R.color.colorPrimaryDark));
-        wallPaint.setStrokeWidth(WALL_THICKNESS);
-
-        playerPaint = new Paint();
-        playerPaint.setColor(getResources().getColor(R.color.black));
+        renderer = new MazeRenderer(getResources());
+        metricsOverlay = new MetricsOverlay(context, metrics);
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                metricsOverlay.setVisible(!metricsOverlay.isVisible());
+                invalidate();
+                return true;
+            }
 
-        exitPaint = new Paint();
-        exitPaint.setColor(getResources().getColor(R.color.colorAccent));
+            @Override
+            public void onLongPress(MotionEvent e) {
+                MetricsOverlay.export(getContext(), metrics);
+            }
+        });
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                renderer.previewZoom(detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                invalidate();
+                return true;
+            }
 
-        random = new Random();
+            @Override
+            public void onScaleEnd(ScaleGestureDetector detector) {
+                /* Redraw the walls at the new cell size only once the gesture is over */
+                renderer.commitZoom();
+                updateLayout();
+                invalidate();
+            }
+        });
 
-        createMaze();
 
         /* Used for getting screen orientation */
         config = getResources().getConfiguration();
@@ -87,7 +149,7 @@ public class GameView extends View implements SensorEventListener {
         /* The Log class allows to create log messages that appear in logcat
            (View- > Tool Windows -> Logcat). Log's public method 'd' sends a DEBUG log message and
            optionally logs the exception. */
-        Log.d(TAG, "onCreate: Initializing Sensor Services");
+        if(BuildConfig.DEBUG) Log.d(TAG, "onCreate: Initializing Sensor Services");
 
         /* To identify the sensors that are on a device we first need to get a reference to the
            sensor service. To do this, we create an instance of the SensorManager class by calling
@@ -96,135 +158,148 @@ public class GameView extends View implements SensorEventListener {
 
         /* Determine whether gameRotationVector exists on a device */
         gameRotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR);
-        if(gameRotationVector != null) Log.d(TAG, "onCreate: Registered gameRotationVector listener");
-        else Log.d(TAG, "onCreate: gameRotationVector not supported");
+        if(BuildConfig.DEBUG) {
+            if(gameRotationVector != null) Log.d(TAG, "onCreate: Registered gameRotationVector listener");
+            else Log.d(TAG, "onCreate: gameRotationVector not supported");
+        }
     }
 
-    public void setSize(int rows, int cols) {
-        ROWS = rows;
-        COLS = cols;
+    @Override
+    public void setGame(MazeGame game) {
+        this.game = game;
+        game.setListener(gameListener);
+        /* The next maze may have been finished while no view was listening */
+        if(game.isWaitingForMaze()) game.nextLevel();
+        updateLayout();
+        invalidate();
     }
 
-    private class Cell {
-        /* Default class content's (methods and fields) access level is 'package' */
+    @Override
+    public void setSize(int rows, int cols) {
+        game.setSize(rows, cols);
+    }
 
-        /* Boolean variables will indicate whether certain wall exists or not */
-        boolean
-                topWall = true,
-                leftWall = true,
-                bottomWall = true,
-                rightWall = true,
-                visited = false;
+    /* Memory the bitmap tiles of a large maze may take before the least recently used ones are
+       dropped */
+    @Override
+    public void setTileCacheBudget(long bytes) {
+        renderer.setTileCacheBudget(bytes);
+    }
 
-        int col, row;
+    /* How often the sensor delivers values - SensorManager.SENSOR_DELAY_* or a period in
+       microseconds. Takes effect with the next register(). */
+    @Override
+    public void setSensorDelay(int delay) {
+        sensorDelay = delay;
+    }
 
-        public Cell(int col, int row) {
-            this.col = col;
-            this.row = row;
-        }
+    /* How often the player moves while the device stays tilted */
+    @Override
+    public void setMoveInterval(long millis) {
+        tiltFilter.setRepeatInterval(millis * 1000000L);
     }
 
-    private Cell getNeighbour(Cell cell) {
-        /* Check if there are unvisited neighbours - use ArrayList to store them
-           ArrayList is an array which can change it's size after it's been initialized */
-        ArrayList<Cell> neighbours = new ArrayList<>();
+    @Override
+    public void setTiltFilter(float smoothing, float deadZone, float hysteresis) {
+        tiltFilter.setSmoothing(smoothing);
+        tiltFilter.setDeadZone(deadZone);
+        tiltFilter.setHysteresis(hysteresis);
+    }
 
-        /* Left neighbour */
-        /* Include the fact that in case of cell.col == 0, the further index would be '-1' */
-        if(cell.col > 0) {
-            /* Add the cell to the 'neighbours' ArrayList if it hasn't been visited */
-            if(!cells[cell.col - 1][cell.row].visited) neighbours.add(cells[cell.col - 1][cell.row]);
-        }
+    /* Show the next 'steps' cells of the way to the exit, MazeGame.FULL_PATH for all of them */
+    @Override
+    public void setHintSteps(int steps) {
+        game.setHintSteps(steps);
+        invalidate();
+    }
 
-        /* Top neighbour */
-        if(cell.row > 0) {
-            if(!cells[cell.col][cell.row - 1].visited) neighbours.add(cells[cell.col][cell.row - 1]);
-        }
+    @Override
+    public void setBallPhysics(boolean enabled) {
+        game.setBallPhysics(enabled);
+        invalidate();
+    }
 
-        /* Right neighbour */
-        if(cell.col < COLS - 1) {
-            if(!cells[cell.col + 1][cell.row].visited) neighbours.add(cells[cell.col + 1][cell.row]);
-        }
+    /* Where start and exit go from the next createMaze() call on - corner to corner for
+       Difficulty.CLASSIC */
+    @Override
+    public void setDifficulty(Difficulty difficulty) {
+        game.setDifficulty(difficulty.getTarget());
+    }
 
-        /* Bottom neighbour */
-        if(cell.row < ROWS - 1) {
-            if(!cells[cell.col][cell.row + 1].visited) neighbours.add(cells[cell.col][cell.row + 1]);
-        }
+    /* Select the algorithm used by the next createMaze() call */
+    @Override
+    public void setAlgorithm(MazeAlgorithm algorithm) {
+        game.setAlgorithm(algorithm);
+    }
 
-        if(neighbours.size() > 0) {
-            /* Returns a pseudorandom, uniformly distributed int value between 0 (inclusive) and the
-               specified value (exclusive), drawn from this random number generator's sequence. */
-            int index = random.nextInt(neighbours.size());
-            return neighbours.get(index);
-        }
-        /* no need for 'else' because upper 'return', if executed, will stop the method */
-        return null;
+    @Override
+    public void setSeed(long seed) {
+        game.setSeed(seed);
     }
 
-    private void removeWall(Cell current, Cell next) {
-        /* current cell's top wall and next cell's bottom wall */
-        if(current.col == next.col && current.row == next.row + 1) {
-            current.topWall = false;
-            next.bottomWall = false;
-        }
-        if(current.col == next.col + 1 && current.row == next.row) {
-            current.leftWall = false;
-            next.rightWall = false;
-        }
-        if(current.col == next.col && current.row == next.row - 1) {
-            current.bottomWall = false;
-            next.topWall = false;
-        }
-        if(current.col == next.col - 1 && current.row == next.row) {
-            current.rightWall = false;
-            next.leftWall = false;
-        }
+    /* Timings of drawing, input latency and maze generation */
+    public GameMetrics getMetrics() {
+        return metrics;
     }
 
+    @Override
     public void createMaze() {
-        Stack<Cell> stack = new Stack<>();
+        createMazeTimed();
+        /* The size of the maze may have changed */
+        updateLayout();
+        invalidate();
+    }
+
+    private void createMazeTimed() {
+        Trace.beginSection("GameView.createMaze");
+        long start = System.nanoTime();
+        game.createMaze();
+        metrics.recordCreateMaze(game.getGrid().getCols(), game.getGrid().getRows(), System.nanoTime() - start);
+        Trace.endSection();
+    }
 
-        Cell current, next;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        metricsOverlay.release();
+        /* The game goes on in the next view after a rotation, which replaces the listener -
+           GameViewModel releases it once the activity is finished for good */
+        renderer.release();
+    }
 
-        Log.d(TAG, "quick check: inside createMaze()");
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        gestureDetector.onTouchEvent(event);
+        return true;
+    }
 
-        cells = new Cell[COLS][ROWS];
+    /* Called when the view gets its size for the first time and whenever it changes (e.g. after
+       the screen has been rotated) */
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        updateLayout();
+    }
 
-        for (int i = 0; i < COLS; i++) {
-            for (int j = 0; j < ROWS; j++) {
-                cells[i][j] = new Cell(i, j);
-            }
-        }
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        updateLayout();
+    }
 
-        Log.d(TAG, "quick check: size of created grid is " + COLS + " x " + ROWS);
-
-        player = cells[0][0];
-        exit = cells[COLS-1][ROWS-1];
-
-
-        /* Instead of choosing random cell as the initial one, we'll choose the one in upper left
-           corner */
-        current = cells[0][0];
-        /* and mark it as visited */
-        current.visited = true;
-        do {
-            next = getNeighbour(current);
-            if(next != null) {
-                /* remove the wall between the current cell and the chosen neighbour */
-                removeWall(current, next);
-                /* push the current cell to the stack */
-                stack.push(current);
-                /* Make the neighbour cell the current cell and mark it as visited */
-                current = next;
-                /* Mark it as visited */
-                current.visited = true;
-            }
-            else {
-                /* Pop a cell from the stack (i.e. take the last cell and remove it from the stack) */
-                current = stack.pop();
-            }
-        /* If the stack is empty, we're done */
-        } while(!stack.empty());
+    /* Called when the size of the view, the zoom or the maze changes */
+    private void updateLayout() {
+        /* getWidth() - return the width of our view. */
+        int width = getWidth();
+        int height = getHeight();
+        /* Not laid out yet, onSizeChanged() will follow - or no maze yet */
+        if(width == 0 || height == 0 || game == null || game.getGrid() == null) return;
+
+        config = getResources().getConfiguration();
+        tiltFilter.setPortrait(config.orientation == ORIENTATION_PORTRAIT);
+        renderer.layout(game.getGrid(), width, height, config.orientation == ORIENTATION_PORTRAIT);
+        layoutLevel = game.getLevel();
     }
 
     /* '@Override' - Indicates that a method declaration is intended to override a method
@@ -243,96 +318,85 @@ public class GameView extends View implements SensorEventListener {
     */
     @Override
     protected void onDraw(Canvas canvas) {
-        Log.d(TAG, "quick check: inside onDraw()");
-        /*  drawColor(int color) - fil the entire canvas' bitmap (restricted to the current clip)
-            with the specified color, using srcover porterduff mode. */
-        canvas.drawColor(getResources().getColor(R.color.white));
+        /* Shows up in systrace / Perfetto */
+        Trace.beginSection("GameView.onDraw");
+        long start = System.nanoTime();
 
-        /* getWidth() - return the width of our view. */
-        int width = getWidth();
-        int height = getHeight();
-
-        config = getResources().getConfiguration();
-
-        /* vertical view */
-        if(config.orientation == ORIENTATION_PORTRAIT) {
-            cellSize = width / (COLS + 1);
-            Log.d(TAG, "quick check: portrait mode detected");
+        if(game == null || game.getGrid() == null) {
+            Trace.endSection();
+            return;
         }
-        /* horizontal view */
-        else cellSize = height / (ROWS + 1);
-
-        hMargin = (width - COLS * cellSize) / 2;
-        vMargin = (height - ROWS * cellSize) / 2;
-
-        /* Take original origin and offset it by hMargin in x-direction and vMargin in y-direction */
-        canvas.translate(hMargin, vMargin);
-
-        for (int x = 0; x < COLS; x++) {
-            for (int y = 0; y < ROWS; y++) {
-
-                /*
-                *   (x, y)   topWall   (x+1, y)
-                *
-                *  leftWall            rightWall
-                *
-                *  (x, y+1) bottomWall (x+1, y+1)
-                */
-
-                if(cells[x][y].topWall) canvas.drawLine(
-                        x * cellSize,
-                        y * cellSize,
-                        (x + 1) * cellSize,
-                        y * cellSize,
-                              wallPaint);
-                if(cells[x][y].rightWall) canvas.drawLine(
-                        (x + 1) * cellSize,
-                        y * cellSize,
-                        (x + 1) * cellSize,
-                        (y + 1) * cellSize,
-                               wallPaint);
-                if(cells[x][y].bottomWall) canvas.drawLine(
-                        x * cellSize,
-                        (y + 1) * cellSize,
-                        (x + 1) * cellSize,
-                        (y + 1) * cellSize,
-                               wallPaint);
-                if(cells[x][y].leftWall) canvas.drawLine(
-                        x * cellSize,
-                        y * cellSize,
-                        x * cellSize,
-                        (y + 1) * cellSize,
-                               wallPaint);
-            }
-        }
-
-        /* Add margin to the player and the exit so they won't cover parts of the walls */
-        float margin = cellSize / 10;
-
-        /* Draw player and the exit */
-            /* drawOval() requires at least 21 API level */
-        canvas.drawOval(
-                player.col * cellSize + margin,
-                player.row * cellSize + margin,
-              (player.col + 1) * cellSize - margin,
-            (player.row + 1) * cellSize - margin,
-                    playerPaint);
-        canvas.drawOval(
-                exit.col * cellSize + margin,
-                exit.row * cellSize + margin,
-                (exit.col + 1) * cellSize - margin,
-                (exit.row + 1) * cellSize - margin,
-                exitPaint);
+        /* Only frames which get as far as endFrame() are counted */
+        metricsOverlay.beginFrame();
+        /* A new level has started since the last layout */
+        if(layoutLevel != game.getLevel()) updateLayout();
+        renderer.draw(canvas, game);
+
+        metricsOverlay.endFrame();
+        metricsOverlay.draw(canvas);
+        metrics.recordDraw(System.nanoTime() - start);
+        /* The frame still has to be rendered and composed, so this misses the last few ms */
+        metrics.onFrameDrawn(SystemClock.elapsedRealtimeNanos());
+        Trace.endSection();
     }
 
+    /* Sensor events are delivered on their own thread, so a busy UI thread can't hold them up and
+       handling them can't hold up drawing */
+    @Override
     public void register() {
-        sensorManager.registerListener(this, gameRotationVector, SensorManager.SENSOR_DELAY_NORMAL);
-        Log.d(TAG, "Sensor listener registered");
+        sensorThread = new HandlerThread("GameView sensor");
+        sensorThread.start();
+        sensorManager.registerListener(this, gameRotationVector, sensorDelay,
+                new Handler(sensorThread.getLooper()));
+        polling = true;
+        lastTick = System.nanoTime();
+        postOnAnimation(inputTick);
+        if(BuildConfig.DEBUG) Log.d(TAG, "Sensor listener registered");
     }
 
+    @Override
     public void unregister() {
         sensorManager.unregisterListener(this);
-        Log.d(TAG, "Sensor listener unregistered");
+        if(sensorThread != null) {
+            sensorThread.quitSafely();
+            sensorThread = null;
+        }
+        polling = false;
+        removeCallbacks(inputTick);
+        tiltFilter.reset();
+        if(BuildConfig.DEBUG) Log.d(TAG, "Sensor listener unregistered");
+    }
+
+    /* Runs once per frame on the UI thread while the sensor is registered */
+    private void consumeInput() {
+        sensorSlot.read(sample);
+        if(config.orientation != ORIENTATION_PORTRAIT && config.orientation != ORIENTATION_LANDSCAPE) return;
+        Trace.beginSection("GameView.consumeInput");
+        long now = System.nanoTime();
+        long elapsed = now - lastTick;
+        lastTick = now;
+        if(game.isCarving()) {
+            Trace.beginSection("GameView.continueMaze");
+            if(game.continueMaze()) {
+                renderer.redrawWalls();
+                invalidate();
+            }
+            Trace.endSection();
+        }
+        if(game.advanceGhost(elapsed)) invalidate();
+        if(game.getBall() != null) {
+            /* The ball moves a little on every frame - the physics runs in fixed steps of its own */
+            if(game.rollBall(sample.y, sample.x, elapsed)) metrics.onMove(sample.timestamp);
+            invalidate();
+            Trace.endSection();
+            return;
+        }
+        /* Called even without a new sample, so that held directions keep repeating */
+        int count = tiltFilter.update(sample.x, sample.y, now, moves);
+        for (int i = 0; i < count; i++) {
+            if(movePlayer(moves[i])) metrics.onMove(sample.timestamp);
+        }
+        Trace.endSection();
     }
 
     /* We can press 'Ctrl + O' to list methods to override/implement */
@@ -349,101 +413,54 @@ public class GameView extends View implements SensorEventListener {
      * method quite often. As a best practise, we should do as little as possible within this method
      * so we don't block it. If our application requites us to do any data filtering or reduction
        of sensor data, we should perform that work outside of this method.*/
+    /*
+                                       y      z
+                                       ^     ^
+        Front of the device:           |    /
+                                       |   /
+                                  -----------
+                                  |      /  |
+                                  |     /   |
+                            ------|    /    |-----> x
+                                  |         |
+                                  |         |
+                                  -----------
+                                   /   |
+                                  /    |
+
+          The axis are not swapped when the device's screen orientation changes - that is,
+          the sensor's coordinate system never changes as the device moves.
+
+          Our application must not assume that a device's natural (default) orientation
+          is portrait. The natural orientation for many tablet devices is landscape. And
+          the sensor coordinate system is always based on the natural orientation of
+          a device.
+
+       So all we do here is store the values - filtering and moving the player happen in
+       consumeInput() on the UI thread.
+    */
     @Override
     public void onSensorChanged(SensorEvent sensorEvent) {
-        /* gameRotationVector's units of measure is rad/s */
-        Log.d(TAG, "onSensorChanged: MainActivity sent" +
-              /*
-                                                 y      z
-                                                 ^     ^
-                  Front of the device:           |    /
-                                                 |   /
-                                            -----------
-                                            |      /  |
-                                            |     /   |
-                                      ------|    /    |-----> x
-                                            |         |
-                                            |         |
-                                            -----------
-                                             /   |
-                                            /    |
-
-                    The axis are not swapped when the device's screen orientation changes - that is,
-                    the sensor's coordinate system never changes as the device moves.
-
-                    Our application must not assume that a device's natural (default) orientation
-                    is portrait. The natural orientation for many tablet devices is landscape. And
-                    the sensor coordinate system is always based on the natural orientation of
-                    a device.
-              */
-                " X: " + sensorEvent.values[0] +          /* Rate of rotation around the x axis */
-                " Y: " + sensorEvent.values[1] +          /* Rate of rotation around the y axis */
-                " Z: " + sensorEvent.values[2]);          /* Rate of rotation around the z axis */
-
-        /* portrait mode */
-        if(config.orientation == ORIENTATION_PORTRAIT) {
-            if (sensorEvent.values[0] > 0.2) {
-                movePlayer(Direction.DOWN);
-            } else if (sensorEvent.values[0] < -0.1) {
-                movePlayer(Direction.UP);
-            }
-
-            if (sensorEvent.values[1] > 0.15) {
-                movePlayer(Direction.RIGHT);
-            } else if (sensorEvent.values[1] < -0.15) {
-                movePlayer(Direction.LEFT);
-            }
-        /* landscape mode - front camera on the left*/
-        } else if(config.orientation == ORIENTATION_LANDSCAPE){
-            if (sensorEvent.values[1] > 0.2) {
-                movePlayer(Direction.RIGHT);
-            } else if (sensorEvent.values[1] < -0.2) {
-                movePlayer(Direction.LEFT);
-            }
-
-            if (sensorEvent.values[0] > 0.2) {
-                movePlayer(Direction.DOWN);
-            } else if (sensorEvent.values[0] < -0.2) {
-                movePlayer(Direction.UP);
-            }
-        }
+        float[] values = sensorEvent.values;
+        sensorSlot.write(values[0], values[1], values[2], sensorEvent.timestamp);
     }
 
-    public void movePlayer(Direction direction) {
-        switch(direction) {
-            case UP:
-                if(!player.topWall) {
-                    player = cells[player.col][player.row - 1];
-                    Log.d(TAG, "moving UP");
-                }
-                break;
-            case RIGHT:
-                if(!player.rightWall) {
-                    player = cells[player.col + 1][player.row];
-                    Log.d(TAG, "moving RIGHT");
-                }
-                break;
-            case DOWN:
-                if(!player.bottomWall) {
-                    player = cells[player.col][player.row + 1];
-                    Log.d(TAG, "moving DOWN");
-                }
-                break;
-            case LEFT:
-                if(!player.leftWall) {
-                    player = cells[player.col - 1][player.row];
-                    Log.d(TAG, "moving LEFT");
-                }
-                break;
+    /* Returns false if a wall is in the way */
+    @SuppressWarnings("deprecation")
+    public boolean movePlayer(Direction direction) {
+        int previous = game.getPlayer();
+        int level = game.getLevel();
+        if(!game.movePlayer(direction)) return false;
+
+        /* Force onDraw() method call, but only for the part of the view the player has left and
+           entered - the walls don't change. A new level, the scrolling camera or the hint redraw
+           the whole view. */
+        if(game.getLevel() != level || renderer.isCameraMode() || game.getHintLength() > 0) {
+            invalidate();
+        } else {
+            renderer.getCellBounds(game.getGrid(), previous, game.getPlayer(), dirty);
+            invalidate(dirty);
         }
-
-        checkExit();
-
-        /* Force onDraw() method call */
-        invalidate();
-    }
-
-    private void checkExit() {
-        if(player == exit) createMaze();
+        return true;
     }
 }
@@ -0,0 +1,26 @@
+package com.amanda.uts.inter_maze_o;
+
+import androidx.lifecycle.ViewModel;
+
+/*
+    Keeps the MazeGame of MainActivity while the activity is recreated for a configuration change
+    (e.g. rotating the screen): the new activity finds the same maze, player and preloaded next
+    level here, and only has to lay them out again.
+
+    Doesn't survive the process being killed - MainActivity saves the level into its instance
+    state for that.
+*/
+public class GameViewModel extends ViewModel {
+
+    private final MazeGame game = new MazeGame();
+
+    public MazeGame getGame() {
+        return game;
+    }
+
+    /* The activity is finished for good */
+    @Override
+    protected void onCleared() {
+        game.release();
+    }
+}
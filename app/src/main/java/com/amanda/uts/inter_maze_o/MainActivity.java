@@ -1,10 +1,18 @@
 package com.amanda.uts.inter_maze_o;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 
+import android.app.ActivityManager;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.io.File;
+import java.io.IOException;
 
 import com.amanda.uts.inter_maze_o.R;
 
@@ -86,32 +94,98 @@ Steps taken to create this app:
     this methods() (which are responsible for the maze's proper starting look)
     inside onCreate() method, "hides" this whole ugly process of generating the maze from the user,
     so the user sees only the desired result.
+
+    Update: the views don't generate a maze of their own anymore. The game lives in
+    GameViewModel, so createMaze() runs once when the game starts - and not at all when the
+    activity is recreated after rotating the screen.
  */
 
 public class MainActivity extends AppCompatActivity {
 
-    GameView gameView;
+    private static final String TAG = "MainActivity";
+    /* Instance state: the player's cell and the seed of the level, which MazeGame keeps written
+       to SAVED_LEVEL in the cache directory */
+    private static final String STATE_PLAYER = "player";
+    private static final String STATE_SEED = "seed";
+    private static final String SAVED_LEVEL = "saved-level.maze";
+    /* Time per frame spent carving a big first maze, see MazeGame.setCarveBudget() - a quarter of
+       a 60 Hz frame */
+    private static final float CARVE_BUDGET_MILLIS = 4;
+    /* Share of the app's heap the bitmap tiles of camera mode may take - 1/8 of a 192 MB heap
+       is 24 MB, about three screens of tiles on a 1080p phone */
+    private static final int TILE_CACHE_HEAP_SHARE = 8;
+
+    MazeView gameView;
     int [] mazeSize;
+    private MazeGame game;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
-        Log.d("MainActivity", "quick check: content view set");
 
         Intent intent = getIntent();
+        /* GameView draws on the UI thread, GameSurfaceView on its own render thread */
+        boolean renderThread = intent.getBooleanExtra("renderThread", false);
+        setContentView(renderThread ? R.layout.activity_main_surface : R.layout.activity_main);
+        if(BuildConfig.DEBUG) Log.d("MainActivity", "quick check: content view set");
+
         /* Retrieve extended data from the intent, where firs parameter is the name of the desired item
          *  and the second parameter is the value to be returned if no value of the desired type is
          *  stored with the given name. */
 
         mazeSize = new int[2];
         mazeSize = intent.getIntArrayExtra("mazeSize");
-        gameView = findViewById(R.id.gameView);
-        Log.d("MainActivity", "quick check: game view found by ID");
+        gameView = (MazeView) findViewById(R.id.gameView);
+        if(BuildConfig.DEBUG) Log.d("MainActivity", "quick check: game view found by ID");
+
+        /* After a rotation the game is still there, maze, player and all */
+        game = new ViewModelProvider(this, new ViewModelProvider.NewInstanceFactory())
+                .get(GameViewModel.class).getGame();
+        gameView.setGame(game);
+        /* The view is new after a rotation too, so its tilt settings are always applied */
+        String tiltControl = intent.getStringExtra("tiltControl");
+        (tiltControl == null ? TiltControl.NORMAL : TiltControl.valueOf(tiltControl)).applyTo(gameView);
+        ActivityManager activityManager = (ActivityManager) getSystemService(ACTIVITY_SERVICE);
+        gameView.setTileCacheBudget(activityManager.getMemoryClass() * 1024L * 1024L / TILE_CACHE_HEAP_SHARE);
+        if(game.getCurrentLevel() != null) return;
+
         gameView.setSize(mazeSize[0], mazeSize[1]);
-        Log.d("MainActivity", "quick check: maze size set");
-        gameView.createMaze();
-        Log.d("MainActivity", "quick check: createMaze() called");
+        if(BuildConfig.DEBUG) Log.d("MainActivity", "quick check: maze size set");
+        /* Only CustomSizeActivity lets the user pick an algorithm, the preset sizes use the
+           default depth-first search */
+        String algorithm = intent.getStringExtra("mazeAlgorithm");
+        if(algorithm != null) gameView.setAlgorithm(MazeAlgorithm.valueOf(algorithm));
+        String difficulty = intent.getStringExtra("difficulty");
+        if(difficulty != null) gameView.setDifficulty(Difficulty.valueOf(difficulty));
+        gameView.setHintSteps(intent.getIntExtra("hintSteps", 0));
+        gameView.setBallPhysics(intent.getBooleanExtra("ballPhysics", false));
+        game.setCarveBudget(CARVE_BUDGET_MILLIS);
+        /* CustomSizeActivity moves the grids of large mazes off the heap */
+        String storage = intent.getStringExtra("storage");
+        if(storage != null) game.setStorage(GridStorage.valueOf(storage), getCacheDir());
+        game.setSaveFile(new File(getCacheDir(), SAVED_LEVEL));
+        /* A shared seed replays the same mazes - with the last run through the first one as a
+           ghost, if there is one */
+        if(intent.hasExtra("seed")) {
+            long seed = intent.getLongExtra("seed", 0);
+            gameView.setSeed(seed);
+            loadGhost(seed);
+        }
+
+        /* The process was killed while the game was in the background - continue the level */
+        if(restoreLevel(savedInstanceState)) return;
+
+        /* Preset sizes usually have a maze ready */
+        MazeLevel pooled = intent.getBooleanExtra("pooled", false)
+                ? PresetMazes.get(this).take(mazeSize[1], mazeSize[0]) : null;
+        if(pooled != null) {
+            game.play(pooled);
+        } else {
+            gameView.createMaze();
+            if(BuildConfig.DEBUG) Log.d("MainActivity", "quick check: createMaze() called");
+        }
+        long launchTime = intent.getLongExtra("launchTime", 0);
+        if(launchTime != 0) recordFirstFrame(launchTime, pooled != null);
     }
 
     /* On devices running Android 9 (API level 28) or higher, apps running in the background have
@@ -136,6 +210,81 @@ public class MainActivity extends AppCompatActivity {
     protected void onPause() {
         super.onPause();
         gameView.unregister();
+        saveLastRun();
+    }
+
+    /* Runs are kept by the seed of their level, a few hundred bytes each */
+    private File replayFile(long seed) {
+        return new File(new File(getFilesDir(), "replays"), seed + ".replay");
+    }
+
+    private void loadGhost(long seed) {
+        File file = replayFile(seed);
+        if(!file.exists()) return;
+        try {
+            game.setGhost(ReplayFile.read(file));
+        } catch(IOException e) {
+            if(BuildConfig.DEBUG) Log.d(TAG, "Could not read the replay", e);
+        }
+    }
+
+    /* The last level the player has finished becomes the ghost when its seed is played again.
+       Runs after unregister(), when nothing touches the game anymore. */
+    private void saveLastRun() {
+        ReplayFile run = game.getLastRun();
+        if(run == null) return;
+        File file = replayFile(run.getSeed());
+        file.getParentFile().mkdirs();
+        try {
+            run.write(file);
+        } catch(IOException e) {
+            if(BuildConfig.DEBUG) Log.d(TAG, "Could not save the replay", e);
+        }
+    }
+
+    /* Only needed if the process gets killed: a configuration change keeps the game in
+       GameViewModel. The level itself has been written in the background already (see
+       MazeGame.setSaveFile()), so nothing is written on the UI thread. A level still being carved
+       isn't saved - a new maze is generated instead. */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        MazeLevel level = game.getCurrentLevel();
+        if(isChangingConfigurations() || level == null || game.isCarving()) return;
+        outState.putInt(STATE_PLAYER, game.getPlayer());
+        outState.putLong(STATE_SEED, level.getSeed());
+    }
+
+    /* Tell the pool how long it took from tapping the size to the first frame of the game */
+    private void recordFirstFrame(final long launchTime, final boolean pooled) {
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                PresetMazes.get(MainActivity.this).recordFirstFrame(pooled, SystemClock.elapsedRealtimeNanos() - launchTime);
+                return true;
+            }
+        });
+    }
+
+    /* Returns false if there is no saved level. The grid goes into the storage planned for the
+       size (see CustomSizeActivity), like the grids of a new game. */
+    private boolean restoreLevel(Bundle savedInstanceState) {
+        if(savedInstanceState == null || !savedInstanceState.containsKey(STATE_PLAYER)) return false;
+        String storage = getIntent().getStringExtra("storage");
+        try {
+            MazeLevel level = MazeFile.read(new File(getCacheDir(), SAVED_LEVEL), null,
+                    storage == null ? GridStorage.HEAP : GridStorage.valueOf(storage), getCacheDir());
+            /* the file still holds the level before if the process was killed before the current
+               one had been written */
+            if(level.getSeed() != savedInstanceState.getLong(STATE_SEED)) return false;
+            game.restore(level, savedInstanceState.getInt(STATE_PLAYER));
+            return true;
+        } catch(IOException | IllegalArgumentException e) {
+            if(BuildConfig.DEBUG) Log.d(TAG, "Could not restore the level", e);
+            return false;
+        }
     }
 
 
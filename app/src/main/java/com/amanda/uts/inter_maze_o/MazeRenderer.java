@@ -0,0 +1,286 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/*
+    Draws a MazeGame onto a Canvas. Shared by GameView (drawing on the UI thread) and
+    GameSurfaceView (drawing on its own render thread); an instance is only ever used by one
+    thread.
+
+    Mazes which fit into the view are drawn from a single cached bitmap of all walls. Larger
+    mazes are shown through a MazeCamera following the player, with the walls cut into bitmap
+    tiles (see MazeTileCache). Either way the walls are only redrawn when the maze, the view's
+    size or the zoom changes - every frame just copies bitmaps and draws the player and the exit.
+*/
+public class MazeRenderer {
+
+    private static final float WALL_THICKNESS = 4;
+    /* Mazes whose cells would be smaller than this when fitted into the view are shown through a
+       camera which follows the player instead. Zooming goes up to MAX_ZOOM. */
+    private static final float MIN_CELL_SIZE_DP = 12;
+    private static final float MAX_ZOOM = 8;
+    private static final long DEFAULT_TILE_CACHE_BUDGET = 16 * 1024 * 1024;
+
+    /* The Paint class holds the style and color information about how to draw geometries, text
+        and bitmaps. */
+    private final Paint wallPaint, playerPaint, ghostPaint, exitPaint, hintPaint;
+    private final int backgroundColor;
+    private final float density;
+
+    private float cellSize, hMargin, vMargin;
+    /* The walls only change together with the maze, so they are drawn once into this bitmap,
+       which is then copied onto the screen in every frame */
+    private Bitmap wallLayer;
+    private Canvas wallCanvas;
+    private int wallLayerPadding;
+    private boolean wallLayerDirty = true;
+    /* All walls as merged line segments, drawn with a single drawLines() call */
+    private final WallGeometry wallGeometry = new WallGeometry();
+
+    private boolean cameraMode;
+    private final MazeCamera camera = new MazeCamera();
+    private final MazeTileCache tileCache;
+    /* Line segments of the hint, rebuilt only when the hint or the cell size changes */
+    private float[] hintLines = new float[0];
+    private int hintLinesLength;
+    private int hintVersion = -1;
+    private float hintCellSize;
+    /* 'pendingZoom' is only applied to the canvas while a pinch gesture lasts */
+    private float zoom = 1, pendingZoom = 1, zoomFocusX, zoomFocusY;
+
+    public MazeRenderer(Resources resources) {
+        wallPaint = new Paint();
+        wallPaint.setColor(resources.getColor(R.color.colorPrimaryDark));
+        wallPaint.setStrokeWidth(WALL_THICKNESS);
+
+        playerPaint = new Paint();
+        playerPaint.setColor(resources.getColor(R.color.black));
+
+        /* A previous run through the same maze, see MazeGame.setGhost() */
+        ghostPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        ghostPaint.setColor(resources.getColor(R.color.black));
+        ghostPaint.setAlpha(64);
+
+        exitPaint = new Paint();
+        exitPaint.setColor(resources.getColor(R.color.colorAccent));
+
+        /* The hint is a translucent line through the centres of the next cells */
+        hintPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        hintPaint.setColor(resources.getColor(R.color.colorAccent));
+        hintPaint.setAlpha(128);
+        hintPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        backgroundColor = resources.getColor(R.color.white);
+        density = resources.getDisplayMetrics().density;
+        tileCache = new MazeTileCache(wallPaint, backgroundColor, DEFAULT_TILE_CACHE_BUDGET);
+    }
+
+    /* Memory the bitmap tiles of a large maze may take before the least recently used ones are
+       dropped */
+    public void setTileCacheBudget(long bytes) {
+        tileCache.setBudget(bytes);
+    }
+
+    /* Fit the maze into the view, or set up the camera if it doesn't fit - needed whenever the
+       size of the view, the zoom or the maze changes */
+    public void layout(MazeGrid grid, int width, int height, boolean portrait) {
+        int cols = grid.getCols(), rows = grid.getRows();
+
+        float fitCellSize;
+        /* vertical view */
+        if(portrait) fitCellSize = width / (cols + 1);
+        /* horizontal view */
+        else fitCellSize = height / (rows + 1);
+
+        float minCellSize = MIN_CELL_SIZE_DP * density;
+        cellSize = Math.max(fitCellSize * zoom, minCellSize);
+        cameraMode = cellSize > fitCellSize;
+
+        if(cameraMode) {
+            camera.setViewport(width, height);
+            camera.setCellSize(cellSize);
+            tileCache.reset(grid, cellSize);
+        } else {
+            hMargin = (width - cols * cellSize) / 2;
+            vMargin = (height - rows * cellSize) / 2;
+            wallLayerDirty = true;
+        }
+    }
+
+    public boolean isCameraMode() {
+        return cameraMode;
+    }
+
+    /* Scale the canvas while a pinch gesture is going on, without redrawing any walls */
+    public void previewZoom(float scaleFactor, float focusX, float focusY) {
+        float target = Math.max(1, Math.min(MAX_ZOOM, zoom * pendingZoom * scaleFactor));
+        pendingZoom = target / zoom;
+        zoomFocusX = focusX;
+        zoomFocusY = focusY;
+    }
+
+    /* Apply the zoom once the gesture is over - layout() has to be called afterwards */
+    public void commitZoom() {
+        zoom *= pendingZoom;
+        pendingZoom = 1;
+    }
+
+    /* Draw the player, the exit and the hint of a game */
+    public void draw(Canvas canvas, MazeGame game) {
+        /* A fitted maze shows its whole path anyway; a camera never more than a screen of it */
+        game.setHintLimit(cameraMode ? camera.getVisibleCells() : MazeGame.FULL_PATH);
+        if(game.getHintVersion() != hintVersion || cellSize != hintCellSize) {
+            buildHint(game.getGrid(), game.getPlayer(), game.getHint(), game.getHintLength());
+            hintVersion = game.getHintVersion();
+            hintCellSize = cellSize;
+        }
+        draw(canvas, game.getGrid(), game.getPlayer(), game.getExit(), game.getBall(), game.getGhost());
+    }
+
+    /* One segment from the centre of each cell of the way to the next one, starting at the
+       player */
+    private void buildHint(MazeGrid grid, int player, int[] hint, int length) {
+        if(hintLines.length < 4 * length) hintLines = new float[4 * length];
+        float half = cellSize / 2;
+        int from = player;
+        for (int i = 0; i < length; i++) {
+            int to = hint[i];
+            hintLines[4 * i] = grid.col(from) * cellSize + half;
+            hintLines[4 * i + 1] = grid.row(from) * cellSize + half;
+            hintLines[4 * i + 2] = grid.col(to) * cellSize + half;
+            hintLines[4 * i + 3] = grid.row(to) * cellSize + half;
+            from = to;
+        }
+        hintLinesLength = 4 * length;
+        hintPaint.setStrokeWidth(cellSize / 4);
+    }
+
+    private void draw(Canvas canvas, MazeGrid grid, int player, int exit, BallPhysics ball,
+                      MoveReplay ghost) {
+        /*  drawColor(int color) - fil the entire canvas' bitmap (restricted to the current clip)
+            with the specified color, using srcover porterduff mode. */
+        canvas.drawColor(backgroundColor);
+
+        canvas.save();
+        /* Preview of a pinch gesture, the walls are redrawn once it ends */
+        if(pendingZoom != 1) canvas.scale(pendingZoom, pendingZoom, zoomFocusX, zoomFocusY);
+
+        float originX, originY;
+        if(cameraMode) {
+            /* Only the tiles covering the visible cells are drawn */
+            camera.follow(grid.getCols(), grid.getRows(), grid.col(player), grid.row(player));
+            tileCache.draw(canvas, camera);
+            originX = camera.getOriginX();
+            originY = camera.getOriginY();
+        } else {
+            /* The walls are only redrawn when the maze or the view's size has changed */
+            if(wallLayerDirty) drawWallLayer(grid);
+            canvas.drawBitmap(wallLayer, hMargin - wallLayerPadding, vMargin - wallLayerPadding, null);
+            originX = hMargin;
+            originY = vMargin;
+        }
+
+        /* Take original origin and offset it by hMargin in x-direction and vMargin in y-direction */
+        canvas.translate(originX, originY);
+
+        /* The hint goes below the player and the exit */
+        if(hintLinesLength > 0) canvas.drawLines(hintLines, 0, hintLinesLength, hintPaint);
+
+        /* Add margin to the player and the exit so they won't cover parts of the walls */
+        float margin = cellSize / 10;
+
+        /* Draw player and the exit */
+            /* drawOval() requires at least 21 API level */
+        int playerCol = grid.col(player), playerRow = grid.row(player);
+        int exitCol = grid.col(exit), exitRow = grid.row(exit);
+        /* The ghost goes below the player */
+        if(ghost != null) {
+            int ghostCol = grid.col(ghost.getCell()), ghostRow = grid.row(ghost.getCell());
+            if(!cameraMode || camera.isVisible(ghostCol, ghostRow)) canvas.drawOval(
+                    ghostCol * cellSize + margin,
+                    ghostRow * cellSize + margin,
+                    (ghostCol + 1) * cellSize - margin,
+                    (ghostRow + 1) * cellSize - margin,
+                    ghostPaint);
+        }
+        if(ball != null) {
+            /* The rolling ball sits anywhere within its cell */
+            canvas.drawCircle(ball.getX() * cellSize, ball.getY() * cellSize,
+                    ball.getRadius() * cellSize, playerPaint);
+        } else canvas.drawOval(
+                playerCol * cellSize + margin,
+                playerRow * cellSize + margin,
+              (playerCol + 1) * cellSize - margin,
+            (playerRow + 1) * cellSize - margin,
+                    playerPaint);
+        if(!cameraMode || camera.isVisible(exitCol, exitRow)) canvas.drawOval(
+                exitCol * cellSize + margin,
+                exitRow * cellSize + margin,
+                (exitCol + 1) * cellSize - margin,
+                (exitRow + 1) * cellSize - margin,
+                exitPaint);
+
+        canvas.restore();
+    }
+
+    /* The part of the view covered by both cells, e.g. the player's previous and current cell.
+       Only meaningful outside of camera mode, where nothing scrolls. */
+    public void getCellBounds(MazeGrid grid, int first, int second, Rect bounds) {
+        int left = Math.min(grid.col(first), grid.col(second));
+        int top = Math.min(grid.row(first), grid.row(second));
+        int right = Math.max(grid.col(first), grid.col(second)) + 1;
+        int bottom = Math.max(grid.row(first), grid.row(second)) + 1;
+        bounds.set(
+                (int) Math.floor(hMargin + left * cellSize),
+                (int) Math.floor(vMargin + top * cellSize),
+                (int) Math.ceil(hMargin + right * cellSize),
+                (int) Math.ceil(vMargin + bottom * cellSize));
+    }
+
+    /* Draw all walls into the wall layer bitmap. The bitmap is reused as long as its size fits. */
+    private void drawWallLayer(MazeGrid grid) {
+        /* Walls are centred on the cell borders, so half of their thickness sticks out of the maze */
+        wallLayerPadding = (int) Math.ceil(WALL_THICKNESS / 2);
+        int layerWidth = Math.max(1, (int) Math.ceil(grid.getCols() * cellSize) + 2 * wallLayerPadding);
+        int layerHeight = Math.max(1, (int) Math.ceil(grid.getRows() * cellSize) + 2 * wallLayerPadding);
+
+        if(wallLayer == null || wallLayer.getWidth() != layerWidth || wallLayer.getHeight() != layerHeight) {
+            if(wallLayer != null) wallLayer.recycle();
+            wallLayer = Bitmap.createBitmap(layerWidth, layerHeight, Bitmap.Config.ARGB_8888);
+            wallCanvas = new Canvas(wallLayer);
+        }
+
+        /* Opaque background - copying the bitmap doesn't need any blending */
+        wallLayer.eraseColor(backgroundColor);
+        wallCanvas.save();
+        wallCanvas.translate(wallLayerPadding, wallLayerPadding);
+        /* One drawLines() call for the whole maze. The geometry is rebuilt here only, i.e. when
+           the maze or the cell size has changed. */
+        wallGeometry.build(grid, cellSize);
+        wallCanvas.drawLines(wallGeometry.getLines(), 0, wallGeometry.getLength(), wallPaint);
+        wallCanvas.restore();
+
+        wallLayerDirty = false;
+    }
+
+    /* Walls have come down since the last frame (see MazeGame.continueMaze()) - draw them again */
+    public void redrawWalls() {
+        wallLayerDirty = true;
+        tileCache.redraw();
+    }
+
+    /* Free the bitmaps - they're drawn again on the next draw() after layout() */
+    public void release() {
+        if(wallLayer != null) {
+            wallLayer.recycle();
+            wallLayer = null;
+            wallCanvas = null;
+        }
+        wallLayerDirty = true;
+        tileCache.clear();
+    }
+}
@@ -0,0 +1,202 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+/*
+    Walls of a large maze, cut into square tiles of about TILE_PIXELS which are drawn into bitmaps
+    the first time they become visible. Every tile remembers the frame it was last drawn in, and
+    the least recently drawn ones are evicted as soon as all tiles together need more memory than
+    the budget allows - but never a tile drawn in the current frame, whose bitmap the canvas may
+    still hold on to. The budget should cover at least the tiles of one screen, otherwise tiles
+    are redrawn on every frame.
+
+    The tiles sit in plain arrays and are found by a linear scan, keyed by a primitive long: there
+    are only as many as fit into the budget (a few dozen), and a frame doesn't box a key for every
+    visible tile the way a map would.
+
+    One evicted bitmap is kept aside and reused for the next tile of the same size, so scrolling
+    through the maze doesn't allocate a bitmap for every new tile.
+*/
+public class MazeTileCache {
+
+    private static final int TILE_PIXELS = 256;
+
+    /* Slot i holds the tile keys[i] (tileX << 32 | tileY), last drawn in frame drawnIn[i] */
+    private long[] keys = new long[16];
+    private Bitmap[] bitmaps = new Bitmap[16];
+    private long[] drawnIn = new long[16];
+    private int count;
+    private long frame;
+    private final WallGeometry geometry = new WallGeometry();
+    private final Canvas tileCanvas = new Canvas();
+    private final Paint wallPaint;
+    private final int backgroundColor;
+
+    private long budgetBytes;
+    private long usedBytes;
+    private Bitmap spare;
+
+    private MazeGrid grid;
+    private float cellSize;
+    /* Tile size in cells */
+    private int tileCells;
+    /* Walls have come down since the tiles were drawn, see redraw() */
+    private boolean stale;
+
+    public MazeTileCache(Paint wallPaint, int backgroundColor, long budgetBytes) {
+        this.wallPaint = wallPaint;
+        this.backgroundColor = backgroundColor;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        trim(0);
+    }
+
+    /* Drop all tiles - the maze or the cell size has changed */
+    public void reset(MazeGrid grid, float cellSize) {
+        clear();
+        this.grid = grid;
+        this.cellSize = cellSize;
+        tileCells = Math.max(1, (int) (TILE_PIXELS / cellSize));
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) bitmaps[i].recycle();
+        Arrays.fill(bitmaps, 0, count, null);
+        count = 0;
+        usedBytes = 0;
+        if(spare != null) {
+            spare.recycle();
+            spare = null;
+        }
+    }
+
+    /* The walls of the grid have changed (a maze being carved): the visible tiles are drawn
+       again in place on the next draw(), the others dropped */
+    public void redraw() {
+        stale = true;
+    }
+
+    /* Draw the tiles covering the camera's visible cells */
+    public void draw(Canvas canvas, MazeCamera camera) {
+        int firstTileX = camera.getFirstCol() / tileCells;
+        int firstTileY = camera.getFirstRow() / tileCells;
+        int lastTileX = (camera.getLastCol() - 1) / tileCells;
+        int lastTileY = (camera.getLastRow() - 1) / tileCells;
+        frame++;
+
+        if(stale) {
+            stale = false;
+            for (int i = count - 1; i >= 0; i--) {
+                int tileX = (int) (keys[i] >> 32), tileY = (int) keys[i];
+                if(tileX >= firstTileX && tileX <= lastTileX && tileY >= firstTileY && tileY <= lastTileY) {
+                    drawTile(bitmaps[i], tileX, tileY);
+                } else {
+                    Bitmap bitmap = bitmaps[i];
+                    remove(i);
+                    bitmap.recycle();
+                }
+            }
+        }
+
+        for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+            for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                Bitmap tile = getTile(tileX, tileY);
+                canvas.drawBitmap(tile,
+                        camera.getOriginX() + tileX * tileCells * cellSize,
+                        camera.getOriginY() + tileY * tileCells * cellSize,
+                        null);
+            }
+        }
+        /* Tiles which scrolled out of view may go now */
+        trim(0);
+    }
+
+    private Bitmap getTile(int tileX, int tileY) {
+        long key = ((long) tileX << 32) | tileY;
+        for (int i = 0; i < count; i++) {
+            if(keys[i] == key) {
+                drawnIn[i] = frame;
+                return bitmaps[i];
+            }
+        }
+
+        int left = tileX * tileCells;
+        int top = tileY * tileCells;
+        int cols = Math.min(tileCells, grid.getCols() - left);
+        int rows = Math.min(tileCells, grid.getRows() - top);
+        int width = Math.max(1, (int) Math.ceil(cols * cellSize));
+        int height = Math.max(1, (int) Math.ceil(rows * cellSize));
+
+        /* Make room first, which may leave a bitmap to reuse in 'spare' */
+        trim(4L * width * height);
+        Bitmap tile;
+        if(spare != null && spare.getWidth() == width && spare.getHeight() == height) {
+            tile = spare;
+            spare = null;
+        } else {
+            tile = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+
+        drawTile(tile, tileX, tileY);
+
+        if(count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            bitmaps = Arrays.copyOf(bitmaps, count * 2);
+            drawnIn = Arrays.copyOf(drawnIn, count * 2);
+        }
+        keys[count] = key;
+        bitmaps[count] = tile;
+        drawnIn[count] = frame;
+        count++;
+        usedBytes += tile.getByteCount();
+        return tile;
+    }
+
+    private void drawTile(Bitmap tile, int tileX, int tileY) {
+        int left = tileX * tileCells;
+        int top = tileY * tileCells;
+        int cols = Math.min(tileCells, grid.getCols() - left);
+        int rows = Math.min(tileCells, grid.getRows() - top);
+
+        /* Walls on the tile's edges are centred on the edge, so each of the two neighbouring tiles
+           draws one half of them */
+        tile.eraseColor(backgroundColor);
+        tileCanvas.setBitmap(tile);
+        geometry.build(grid, cellSize, left, top, cols, rows);
+        tileCanvas.drawLines(geometry.getLines(), 0, geometry.getLength(), wallPaint);
+        tileCanvas.setBitmap(null);
+    }
+
+    /* Evict the least recently drawn tiles until 'extraBytes' more fit into the budget, but
+       never one drawn in the current frame */
+    private void trim(long extraBytes) {
+        while(usedBytes + extraBytes > budgetBytes) {
+            int oldest = -1;
+            for (int i = 0; i < count; i++) {
+                if(drawnIn[i] != frame && (oldest < 0 || drawnIn[i] < drawnIn[oldest])) oldest = i;
+            }
+            if(oldest < 0) return;
+            Bitmap evicted = bitmaps[oldest];
+            remove(oldest);
+            if(spare == null) spare = evicted;
+            else evicted.recycle();
+        }
+    }
+
+    /* Drop slot i, whose bitmap the caller takes care of, by moving the last slot into it */
+    private void remove(int i) {
+        usedBytes -= bitmaps[i].getByteCount();
+        count--;
+        keys[i] = keys[count];
+        bitmaps[i] = bitmaps[count];
+        drawnIn[i] = drawnIn[count];
+        bitmaps[count] = null;
+    }
+}
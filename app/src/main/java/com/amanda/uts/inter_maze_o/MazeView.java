@@ -0,0 +1,52 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    What MainActivity needs from a game view - implemented by GameView, which draws on the UI
+    thread, and by GameSurfaceView, which draws on its own render thread.
+*/
+public interface MazeView {
+
+    /* The game to show and control - call first. The game isn't released with the view, since
+       it lives on in GameViewModel across rotations. */
+    void setGame(MazeGame game);
+
+    void setSize(int rows, int cols);
+
+    void setAlgorithm(MazeAlgorithm algorithm);
+
+    /* Where start and exit go from the next createMaze() call on */
+    void setDifficulty(Difficulty difficulty);
+
+    /* Carve the next createMaze() call from this seed - the same seed, size, algorithm and
+       difficulty give the same maze */
+    void setSeed(long seed);
+
+    void createMaze();
+
+    /* Show the next 'steps' cells of the way to the exit - 0 for no hint, MazeGame.FULL_PATH for
+       the whole way */
+    void setHintSteps(int steps);
+
+    /* Roll a ball through the maze instead of moving the player cell by cell, see BallPhysics */
+    void setBallPhysics(boolean enabled);
+
+    /* How often the sensor delivers values (SensorManager.SENSOR_DELAY_*), independent of how
+       often the player moves */
+    void setSensorDelay(int delay);
+
+    /* How often the player moves while the device stays tilted */
+    void setMoveInterval(long millis);
+
+    /* Smoothing, dead zone and hysteresis of the view's TiltFilter - call before register() */
+    void setTiltFilter(float smoothing, float deadZone, float hysteresis);
+
+    /* Memory the bitmap tiles of a large maze may take before the least recently used ones are
+       dropped */
+    void setTileCacheBudget(long bytes);
+
+    /* Start listening to the sensor (and drawing, for views with a render thread) */
+    void register();
+
+    /* Stop listening to the sensor - called when the activity is paused */
+    void unregister();
+}
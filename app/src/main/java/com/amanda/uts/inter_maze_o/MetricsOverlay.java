@@ -0,0 +1,125 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Debug;
+import android.util.Log;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.IOException;
+
+/*
+    Shows a summary of GameMetrics in the top left corner of the game, on top of the maze.
+    Double tapping the game toggles it, a long press exports the full percentile histograms (see
+    GameView and GameSurfaceView).
+
+    Allocations are only counted while the overlay is visible - Debug's allocation counting slows
+    down every allocation in the process.
+
+    Only used by the thread which draws the game.
+*/
+public class MetricsOverlay {
+
+    private static final String TAG = "MetricsOverlay";
+    private static final float TEXT_SIZE_DP = 12;
+    /* Formatting the summary allocates, so it is only refreshed twice per second */
+    private static final long REFRESH_NANOS = 500000000L;
+
+    private final GameMetrics metrics;
+    private final String[] lines = new String[GameMetrics.SUMMARY_LINES];
+    private final Paint textPaint, backgroundPaint;
+    private final float lineHeight;
+    private volatile boolean visible;
+    private boolean counting;
+    private long refreshed;
+    private int frameAllocations;
+
+    public MetricsOverlay(Context context, GameMetrics metrics) {
+        this.metrics = metrics;
+        float density = context.getResources().getDisplayMetrics().density;
+
+        textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        textPaint.setTextSize(TEXT_SIZE_DP * density);
+        lineHeight = textPaint.getFontSpacing();
+
+        backgroundPaint = new Paint();
+        backgroundPaint.setColor(0xb0000000);
+    }
+
+    /* Can be called from any thread, the drawing thread picks it up with the next frame */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /* Call at the start of a frame on the drawing thread */
+    @SuppressWarnings("deprecation")
+    public void beginFrame() {
+        boolean count = visible;
+        if(count != counting) {
+            counting = count;
+            if(count) {
+                Debug.resetThreadAllocCount();
+                Debug.startAllocCounting();
+            } else {
+                Debug.stopAllocCounting();
+            }
+        }
+        if(counting) frameAllocations = Debug.getThreadAllocCount();
+    }
+
+    /* Call once the frame has been drawn, before draw() - the overlay's own allocations don't
+       count */
+    @SuppressWarnings("deprecation")
+    public void endFrame() {
+        if(counting) metrics.recordAllocations(Debug.getThreadAllocCount() - frameAllocations);
+    }
+
+    /* Turn allocation counting off again, on the drawing thread or once it has stopped */
+    @SuppressWarnings("deprecation")
+    public void release() {
+        if(counting) Debug.stopAllocCounting();
+        counting = false;
+    }
+
+    public void draw(Canvas canvas) {
+        if(!counting) return;
+        long now = System.nanoTime();
+        if(lines[0] == null || now - refreshed >= REFRESH_NANOS) {
+            metrics.summarize(lines);
+            refreshed = now;
+        }
+
+        float width = 0;
+        for (String line : lines) width = Math.max(width, textPaint.measureText(line));
+        float padding = lineHeight / 2;
+        canvas.drawRect(0, 0, width + 2 * padding, lines.length * lineHeight + 2 * padding, backgroundPaint);
+        for (int i = 0; i < lines.length; i++) {
+            canvas.drawText(lines[i], padding, padding + (i + 1) * lineHeight - textPaint.descent(), textPaint);
+        }
+    }
+
+    /* Write the metrics to the app's external files directory and tell the user where they are */
+    public static void export(Context context, GameMetrics metrics) {
+        File file = new File(context.getExternalFilesDir(null), "metrics-" + System.currentTimeMillis() + ".txt");
+        String message;
+        try {
+            /* the maze pool's hits and misses come along, they decide how fast a game starts */
+            metrics.exportTo(file, PresetMazes.get(context).export());
+            message = "Metrics saved to " + file.getPath();
+        } catch(IOException e) {
+            message = "Could not save metrics: " + e.getMessage();
+        }
+        if(BuildConfig.DEBUG) Log.d(TAG, message + "\n" + metrics.export() + PresetMazes.get(context).export());
+        Toast.makeText(context, message, Toast.LENGTH_LONG).show();
+    }
+}
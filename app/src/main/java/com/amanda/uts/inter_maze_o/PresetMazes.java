@@ -0,0 +1,83 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.res.Configuration;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+import java.io.File;
+
+/*
+    The app's MazePool for the preset sizes of the welcome screen, one for the whole process.
+
+    StartActivity and WelcomeScreenActivity warm it up while the user is still picking a size,
+    MainActivity takes its level from it. The pool keeps its levels in the app's cache directory
+    (a few hundred bytes each), and in memory as long as the system doesn't ask for memory back.
+*/
+public final class PresetMazes {
+
+    /* Same sizes as the buttons of activity_welcome_screen (size_1 .. size_4) */
+    private static final int[] SIZES = { 10, 15, 20, 25 };
+    private static final int LEVELS_PER_SIZE = 3;
+    /* Share of the app's heap the pooled levels may take */
+    private static final int HEAP_SHARE = 64;
+    /* Below this and not charging, no new mazes are carved in advance */
+    private static final int LOW_BATTERY_PERCENT = 20;
+
+    private static MazePool pool;
+
+    private PresetMazes() { }
+
+    public static synchronized MazePool get(Context context) {
+        if(pool == null) {
+            Context app = context.getApplicationContext();
+            ActivityManager activityManager = (ActivityManager) app.getSystemService(Context.ACTIVITY_SERVICE);
+            long heap = activityManager.getMemoryClass() * 1024L * 1024L;
+            final MazePool created = new MazePool(new File(app.getCacheDir(), "maze-pool"), LEVELS_PER_SIZE, heap / HEAP_SHARE);
+            for (int size : SIZES) created.addSize(size, size);
+
+            app.registerComponentCallbacks(new ComponentCallbacks2() {
+                @Override
+                public void onTrimMemory(int level) {
+                    /* the files stay, the pool reads them back in the background */
+                    if(level >= TRIM_MEMORY_BACKGROUND) created.trimMemory();
+                }
+
+                @Override
+                public void onLowMemory() {
+                    created.trimMemory();
+                }
+
+                @Override
+                public void onConfigurationChanged(Configuration newConfig) { }
+            });
+            pool = created;
+        }
+        return pool;
+    }
+
+    /* Fill the pool in the background - only from disk while the battery should be spared */
+    public static void warmUp(Context context) {
+        MazePool pool = get(context);
+        pool.setGenerating(!shouldSpareBattery(context));
+        pool.warmUp();
+    }
+
+    private static boolean shouldSpareBattery(Context context) {
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if(powerManager != null && powerManager.isPowerSaveMode()) return true;
+
+        /* ACTION_BATTERY_CHANGED is sticky, so this just reads the latest state */
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if(battery == null) return false;
+        int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+        if(status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL) return false;
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        return level >= 0 && scale > 0 && level * 100 < LOW_BATTERY_PERCENT * scale;
+    }
+}
@@ -16,6 +16,13 @@ public class StartActivity extends AppCompatActivity {
         setContentView(R.layout.activity_start);
     }
 
+    /* Get the mazes of the preset sizes ready while the user is still on the menu screens */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        PresetMazes.warmUp(this);
+    }
+
     public void startApp(View view) {
         Intent intent = new Intent(this, WelcomeScreenActivity.class);
         startActivity(intent);
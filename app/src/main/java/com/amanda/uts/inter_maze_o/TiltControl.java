@@ -0,0 +1,32 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.hardware.SensorManager;
+
+/* How the game reacts to tilting, offered on the custom size screen. NORMAL is what the views
+   do by default. The order must match the 'tilt_controls' string-array. */
+public enum TiltControl {
+    NORMAL(SensorManager.SENSOR_DELAY_GAME, 200, 0.5f, 0.05f, 0.05f),
+    /* smoothed harder and slower to repeat - for shaky hands and small corridors */
+    STEADY(SensorManager.SENSOR_DELAY_GAME, 300, 0.25f, 0.08f, 0.08f),
+    /* samples as fast as the sensor can and barely filters them */
+    QUICK(SensorManager.SENSOR_DELAY_FASTEST, 120, 0.8f, 0.03f, 0.03f);
+
+    private final int sensorDelay;
+    private final long moveIntervalMillis;
+    private final float smoothing, deadZone, hysteresis;
+
+    TiltControl(int sensorDelay, long moveIntervalMillis, float smoothing, float deadZone, float hysteresis) {
+        this.sensorDelay = sensorDelay;
+        this.moveIntervalMillis = moveIntervalMillis;
+        this.smoothing = smoothing;
+        this.deadZone = deadZone;
+        this.hysteresis = hysteresis;
+    }
+
+    /* Hand the settings to the view - before register(), so the sensor delay is used */
+    public void applyTo(MazeView view) {
+        view.setSensorDelay(sensorDelay);
+        view.setMoveInterval(moveIntervalMillis);
+        view.setTiltFilter(smoothing, deadZone, hysteresis);
+    }
+}
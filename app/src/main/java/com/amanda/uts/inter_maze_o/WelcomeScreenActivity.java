@@ -4,6 +4,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.View;
 import android.widget.Button;
 
@@ -18,11 +19,20 @@ public class WelcomeScreenActivity extends AppCompatActivity {
         setContentView(R.layout.activity_welcome_screen);
     }
 
+    /* Tops the pool up again after a game has used one of its mazes */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        PresetMazes.warmUp(this);
+    }
+
     public void selectSize(View view) {
         Intent intent;
         buttonID = view.getId();
         if(buttonID == R.id.button6) {
             intent = new Intent(this, CustomSizeActivity.class);
+        } else if(buttonID == R.id.buttonEndless) {
+            intent = new Intent(this, EndlessActivity.class);
         } else {
             intent = new Intent(this, MainActivity.class);
             Button button = findViewById(buttonID);
@@ -32,6 +42,10 @@ public class WelcomeScreenActivity extends AppCompatActivity {
             /* columns */
             mazeSize[1] = Integer.parseInt(button.getText().toString().substring(0, 2));
             intent.putExtra("mazeSize", mazeSize);
+            /* The preset sizes come ready-made from PresetMazes. The tap time lets MainActivity
+               measure how long the first frame took. */
+            intent.putExtra("pooled", true);
+            intent.putExtra("launchTime", SystemClock.elapsedRealtimeNanos());
         }
         startActivity(intent);
     }
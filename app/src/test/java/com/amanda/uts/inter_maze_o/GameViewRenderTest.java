@@ -0,0 +1,108 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.res.Configuration;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/*
+    Frame budgets for GameView.onDraw(), checked on the JVM with RenderHarness - run with
+    ./gradlew :app:testDebugUnitTest. Every result is printed, so the numbers of a change can be
+    compared with the ones before it.
+
+    A maze which fits the view is a background colour, the cached wall layer, the hint, the player
+    and the exit - a handful of draw calls whatever the size of the maze. A maze which doesn't fit
+    adds one bitmap per visible tile of about 256 pixels. No frame draws walls as lines. Only
+    tiles scrolling into view allocate - their bitmaps.
+
+    The budgets come from a run under Robolectric (API 27, mdpi) where every fitting maze took 5
+    draw calls and 20 line segments and allocated nothing, and the 300 x 300 maze up to 43 draw
+    calls (40 tiles). Its frames allocated nothing in the large views, and 5 KB on average in the
+    small ones: the camera reaches four new tiles there, whose pixels Robolectric keeps on the
+    heap. Medians were 0 to 20 us.
+    Counts are exact - they don't depend on the machine - so they have no headroom beyond the
+    tiles the camera can cross into; bytes and times have some for other Robolectric versions
+    and slower build machines.
+*/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class GameViewRenderTest {
+
+    private static final int FRAMES = 200;
+
+    private static final RenderHarness.Budget FITTING = new RenderHarness.Budget()
+            .drawCalls(5)
+            .lineSegments(RenderHarness.HINT_STEPS)
+            .averageAllocatedBytes(64)
+            .medianFrameMillis(1);
+    /* Tiles come and go while the camera scrolls - tiles of 252 pixels (21 cells of 12 dp) can
+       show up to 6 x 9 of them in 1080 x 1920, next to the background, hint, player and exit */
+    private static final RenderHarness.Budget CAMERA = new RenderHarness.Budget()
+            .drawCalls(4 + 6 * 9)
+            .lineSegments(RenderHarness.HINT_STEPS)
+            .averageAllocatedBytes(8 * 1024)
+            .medianFrameMillis(1);
+
+    /* rows, columns. Cells are at least 12 dp (MazeRenderer.MIN_CELL_SIZE_DP), so up to 39 of
+       them fit across the 480 pixels of the smallest view. */
+    private static final int[][] FITTING_MAZES = { { 15, 15 }, { 35, 25 }, { 25, 35 } };
+    private static final int[] HUGE_MAZE = { 300, 300 };
+
+    private RenderHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new RenderHarness(ApplicationProvider.getApplicationContext());
+    }
+
+    @Test
+    @Config(qualifiers = "port")
+    public void portraitFramesStayWithinBudget() throws InterruptedException {
+        assertOrientation(Configuration.ORIENTATION_PORTRAIT);
+        checkAll(1080, 1920);
+        checkAll(480, 800);
+    }
+
+    @Test
+    @Config(qualifiers = "land")
+    public void landscapeFramesStayWithinBudget() throws InterruptedException {
+        assertOrientation(Configuration.ORIENTATION_LANDSCAPE);
+        checkAll(1920, 1080);
+        checkAll(800, 480);
+    }
+
+    @Test
+    public void budgetCatchesTooManyDrawCalls() throws InterruptedException {
+        RenderHarness.Result result = harness.run(15, 15, 1080, 1920, 10);
+        try {
+            new RenderHarness.Budget().drawCalls(result.maxDrawCalls - 1).check(result);
+        } catch(AssertionError expected) {
+            return;
+        }
+        fail("The budget should have been exceeded");
+    }
+
+    private void checkAll(int width, int height) throws InterruptedException {
+        for (int[] maze : FITTING_MAZES) check(FITTING, maze, width, height);
+        check(CAMERA, HUGE_MAZE, width, height);
+    }
+
+    private void check(RenderHarness.Budget budget, int[] maze, int width, int height) throws InterruptedException {
+        RenderHarness.Result result = harness.run(maze[0], maze[1], width, height, FRAMES);
+        System.out.println(result);
+        budget.check(result);
+    }
+
+    private static void assertOrientation(int orientation) {
+        assertEquals(orientation, ApplicationProvider.getApplicationContext().getResources()
+                .getConfiguration().orientation);
+    }
+}
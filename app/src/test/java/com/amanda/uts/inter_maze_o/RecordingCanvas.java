@@ -0,0 +1,114 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/*
+    A Canvas which only counts what is drawn on it: draw calls, line segments and bitmaps. Nothing
+    is rasterized, so timing a frame drawn onto it measures our own drawing code and not the
+    graphics library. Transformations (save(), translate(), ...) go to the real Canvas.
+*/
+class RecordingCanvas extends Canvas {
+
+    private int drawCalls, lineSegments, bitmaps;
+
+    void reset() {
+        drawCalls = lineSegments = bitmaps = 0;
+    }
+
+    int getDrawCalls() {
+        return drawCalls;
+    }
+
+    int getLineSegments() {
+        return lineSegments;
+    }
+
+    int getBitmaps() {
+        return bitmaps;
+    }
+
+    @Override
+    public void drawColor(int color) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        drawCalls++;
+        lineSegments++;
+    }
+
+    @Override
+    public void drawLines(float[] points, int offset, int count, Paint paint) {
+        drawCalls++;
+        lineSegments += count / 4;
+    }
+
+    @Override
+    public void drawLines(float[] points, Paint paint) {
+        drawLines(points, 0, points.length, paint);
+    }
+
+    @Override
+    public void drawOval(float left, float top, float right, float bottom, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawOval(RectF oval, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        drawCalls++;
+        bitmaps++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        drawCalls++;
+        bitmaps++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        drawCalls++;
+        bitmaps++;
+    }
+}
@@ -0,0 +1,163 @@
+package com.amanda.uts.inter_maze_o;
+
+import android.content.Context;
+import android.view.View;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+    Draws GameView frames on the JVM (under Robolectric) and checks them against a Budget.
+
+    The view is laid out at the given size, for the orientation of the current configuration, and
+    every frame goes through GameView.onDraw() onto a RecordingCanvas. Between two frames the
+    player takes a step along the hint, so the hint, the player and - for mazes which don't fit -
+    the camera change like they do in a game. It stops next to the exit, so the level stays the
+    same. The first WARM_UP_FRAMES frames (the wall layer or the first tiles are drawn, buffers
+    grow) aren't measured.
+
+    Allocations are read from the JVM's per-thread counter, so they include whatever Robolectric's
+    shadows allocate for the calls that reach them.
+*/
+class RenderHarness {
+
+    static final int WARM_UP_FRAMES = 20;
+    /* A hint of fixed length, so the line segments of a frame don't depend on the maze */
+    static final int HINT_STEPS = 20;
+    /* Always the same mazes, so the camera crosses the same tiles on every run */
+    static final long SEED = 42;
+
+    /* Limits for a single frame. Draw calls and line segments count for every frame, allocations
+       on average (growing buffers in Robolectric's shadows come in bursts) and the time for the
+       median frame, so a GC pause can't fail the build. */
+    static class Budget {
+        int drawCalls = Integer.MAX_VALUE;
+        int lineSegments = Integer.MAX_VALUE;
+        long averageAllocatedBytes = Long.MAX_VALUE;
+        long medianFrameNanos = Long.MAX_VALUE;
+
+        Budget drawCalls(int drawCalls) {
+            this.drawCalls = drawCalls;
+            return this;
+        }
+
+        Budget lineSegments(int lineSegments) {
+            this.lineSegments = lineSegments;
+            return this;
+        }
+
+        Budget averageAllocatedBytes(long bytes) {
+            averageAllocatedBytes = bytes;
+            return this;
+        }
+
+        Budget medianFrameMillis(double millis) {
+            medianFrameNanos = (long) (millis * 1000000);
+            return this;
+        }
+
+        /* Throws an AssertionError naming every limit the result exceeds */
+        void check(Result result) {
+            StringBuilder failures = new StringBuilder();
+            if(result.maxDrawCalls > drawCalls) {
+                failures.append("\n  draw calls ").append(result.maxDrawCalls).append(" > ").append(drawCalls);
+            }
+            if(result.maxLineSegments > lineSegments) {
+                failures.append("\n  line segments ").append(result.maxLineSegments).append(" > ").append(lineSegments);
+            }
+            if(result.getAverageAllocatedBytes() > averageAllocatedBytes) {
+                failures.append("\n  allocated bytes ").append(result.getAverageAllocatedBytes()).append(" > ").append(averageAllocatedBytes);
+            }
+            long median = result.frameTimes.getPercentileNanos(50);
+            if(median > medianFrameNanos) {
+                failures.append("\n  median frame time ").append(median).append(" ns > ").append(medianFrameNanos);
+            }
+            if(failures.length() > 0) throw new AssertionError(result + " over budget:" + failures);
+        }
+    }
+
+    /* Largest counts of all measured frames, and the bytes allocated by all of them */
+    static class Result {
+        final String name;
+        int maxDrawCalls, maxLineSegments, maxBitmaps;
+        long allocatedBytes;
+        final FrameTimeStats frameTimes;
+
+        Result(String name, int frames) {
+            this.name = name;
+            frameTimes = new FrameTimeStats(frames);
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + maxDrawCalls + " draw calls, "
+                    + maxLineSegments + " line segments, " + maxBitmaps + " bitmaps, "
+                    + getAverageAllocatedBytes() + " bytes allocated on average, median "
+                    + frameTimes.getPercentileNanos(50) / 1000 + " us, max "
+                    + frameTimes.getMaxNanos() / 1000 + " us per frame";
+        }
+
+        long getAverageAllocatedBytes() {
+            return frameTimes.getCount() == 0 ? 0 : allocatedBytes / frameTimes.getCount();
+        }
+    }
+
+    private final Context context;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    RenderHarness(Context context) {
+        this.context = context;
+    }
+
+    /* Draw 'frames' measured frames of a rows x cols maze in a width x height view */
+    Result run(int rows, int cols, int width, int height, int frames) throws InterruptedException {
+        MazeGame game = new MazeGame();
+        game.setSize(rows, cols);
+        game.setHintSteps(HINT_STEPS);
+        game.setSeed(SEED);
+        game.createMaze();
+        /* the hint needs the distances, which are worked out in the background */
+        long deadline = System.currentTimeMillis() + 10000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+
+        GameView view = new GameView(context, null);
+        view.setGame(game);
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+
+        Result result = new Result(rows + " x " + cols + " in " + width + " x " + height, frames);
+        RecordingCanvas canvas = new RecordingCanvas();
+        try {
+            for (int frame = -WARM_UP_FRAMES; frame < frames; frame++) {
+                Direction step = game.getHintDirection();
+                if(step != null && game.getGrid().neighbour(game.getPlayer(), step) != game.getExit()) {
+                    game.movePlayer(step);
+                }
+
+                canvas.reset();
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                view.onDraw(canvas);
+                long time = System.nanoTime() - start;
+                allocated = allocatedBytes() - allocated;
+                if(frame < 0) continue;
+
+                result.frameTimes.record(time);
+                result.maxDrawCalls = Math.max(result.maxDrawCalls, canvas.getDrawCalls());
+                result.maxLineSegments = Math.max(result.maxLineSegments, canvas.getLineSegments());
+                result.maxBitmaps = Math.max(result.maxBitmaps, canvas.getBitmaps());
+                result.allocatedBytes += allocated;
+            }
+        } finally {
+            game.release();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("restriction")
+    private long allocatedBytes() {
+        if(!(threads instanceof com.sun.management.ThreadMXBean)) return 0;
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
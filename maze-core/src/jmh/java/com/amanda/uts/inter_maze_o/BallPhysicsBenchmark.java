@@ -0,0 +1,53 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link BallPhysics} step - the game runs 120 of them per second on the render
+ * thread. The ball rolls through a Kruskal maze (lots of short walls) under a tilt which changes
+ * every quarter of a second, so most steps are close to a wall.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BallPhysicsBenchmark {
+
+    private static final int TILTS = 1024;
+
+    private BallPhysics ball;
+    private final float[] tilts = new float[2 * TILTS];
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = new MazeGrid(100, 100);
+        new KruskalGenerator().generate(grid, new Random(1));
+        ball = new BallPhysics();
+        ball.reset(grid, 0);
+        Random random = new Random(2);
+        for (int i = 0; i < tilts.length; i++) tilts[i] = random.nextFloat() * 2 - 1;
+    }
+
+    @Benchmark
+    public float step() {
+        int tilt = (step++ / 30) % TILTS;
+        ball.step(tilts[2 * tilt], tilts[2 * tilt + 1]);
+        return ball.getX();
+    }
+}
@@ -0,0 +1,73 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to carve one huge maze with the word-parallel {@link BitRowGenerator}s: into a
+ * {@link BitMaze} only ("bits"), and into the {@link MazeGrid} the game plays on ("grid", which
+ * adds {@link BitMaze#copyTo}). The depth-first search at the same size is the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BitRowGeneratorBenchmark {
+
+    @Param({ "10000" })
+    public int size;
+
+    @Param({ "BINARY_TREE", "SIDEWINDER" })
+    public MazeAlgorithm algorithm;
+
+    private BitRowGenerator generator;
+    private BitMaze bits;
+    private MazeGrid grid;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = (BitRowGenerator) algorithm.newGenerator();
+        bits = new BitMaze(size, size);
+        grid = new MazeGrid(size, size);
+        random = new Random(1);
+    }
+
+    @Benchmark
+    public BitMaze bits() {
+        generator.generate(bits, random.nextLong());
+        return bits;
+    }
+
+    @Benchmark
+    public MazeGrid grid() {
+        generator.generate(grid, random);
+        return grid;
+    }
+
+    @Benchmark
+    public MazeGrid depthFirstBaseline(DepthFirstState state) {
+        state.generator.generate(grid, random);
+        return grid;
+    }
+
+    @State(Scope.Thread)
+    public static class DepthFirstState {
+        final DepthFirstGenerator generator = new DepthFirstGenerator();
+    }
+}
@@ -0,0 +1,65 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carving a depth-first maze a slice at a time, like {@link MazeGame#continueMaze()} does once
+ * per frame: the time of a single slice of {@link MazeGame#CARVE_CHUNK_CELLS} cells, and a whole
+ * maze carved in such slices against {@link MazeGenerator#generate} in one go.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CarveBenchmark {
+
+    @Param({ "1000", "5000" })
+    public int size;
+
+    private DepthFirstGenerator generator;
+    private MazeGrid grid;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new DepthFirstGenerator();
+        grid = new MazeGrid(size, size);
+        random = new Random(1);
+        generator.begin(grid, random);
+    }
+
+    @Benchmark
+    public int slice() {
+        if(generator.isDone()) generator.begin(grid, random);
+        return generator.step(MazeGame.CARVE_CHUNK_CELLS);
+    }
+
+    @Benchmark
+    public MazeGrid wholeMazeInSlices() {
+        generator.begin(grid, random);
+        while(!generator.isDone()) generator.step(MazeGame.CARVE_CHUNK_CELLS);
+        return grid;
+    }
+
+    @Benchmark
+    public MazeGrid wholeMazeAtOnce() {
+        generator.generate(grid, random);
+        return grid;
+    }
+}
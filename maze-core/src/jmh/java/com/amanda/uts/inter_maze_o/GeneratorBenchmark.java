@@ -0,0 +1,75 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation throughput of every {@link MazeAlgorithm}. The "cells" counter is the throughput in
+ * cells per second, comparable across sizes; run with {@code -prof gc} (the default in
+ * build.gradle) for the allocation rate. The numbers in README.md come from it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GeneratorBenchmark {
+
+    @Param({ "15", "100", "1000", "5000" })
+    public int size;
+
+    /* every algorithm */
+    @Param
+    public MazeAlgorithm algorithm;
+
+    private MazeGenerator generator;
+    private MazeGrid grid;
+    private Random random;
+
+    /* Cells generated per second, reported next to the mazes per second */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Cells {
+        public long cells;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cells = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = algorithm.newGenerator();
+        grid = new MazeGrid(size, size);
+        random = new Random(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if(generator instanceof ParallelTiledGenerator) ((ParallelTiledGenerator) generator).shutdown();
+    }
+
+    @Benchmark
+    public MazeGrid generate(Cells counter) {
+        generator.generate(grid, random);
+        counter.cells += grid.size();
+        return grid;
+    }
+}
@@ -0,0 +1,61 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What each {@link GridStorage} costs a 2000 x 2000 maze: carving it by depth-first search
+ * ("generate") and the breadth-first search for the hints ("solve"). {@link SizePlanner}'s time
+ * estimates take their factors from it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GridStorageBenchmark {
+
+    private static final int SIZE = 2000;
+
+    @Param
+    public GridStorage storage;
+
+    private final DepthFirstGenerator generator = new DepthFirstGenerator();
+    private final DistanceField distances = new DistanceField();
+    private MazeGrid grid;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = MazeGrid.allocate(SIZE, SIZE, storage, new File(System.getProperty("java.io.tmpdir")));
+        random = new Random(1);
+        generator.generate(grid, random);
+    }
+
+    @Benchmark
+    public MazeGrid generate() {
+        generator.generate(grid, random);
+        return grid;
+    }
+
+    @Benchmark
+    public DistanceField solve() {
+        distances.compute(grid, grid.size() - 1);
+        return distances;
+    }
+}
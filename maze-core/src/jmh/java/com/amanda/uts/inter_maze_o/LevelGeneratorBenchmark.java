@@ -0,0 +1,75 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete levels per second - carving, placing start and exit, distance field and
+ * {@link MazeStats} - for every {@link Difficulty}, i.e. what the background thread does between
+ * two levels. The "attempts" counter shows how many mazes the rejection sampling carved per
+ * second; divided by the level rate it's the attempts per level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LevelGeneratorBenchmark {
+
+    @Param({ "15", "100", "1000" })
+    public int size;
+
+    @Param({ "DEPTH_FIRST", "KRUSKAL" })
+    public MazeAlgorithm algorithm;
+
+    /* every difficulty */
+    @Param
+    public Difficulty difficulty;
+
+    private LevelGenerator generator;
+    private MazeLevel level;
+    private Random random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Attempts {
+        public long attempts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            attempts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new LevelGenerator(algorithm);
+        generator.setTarget(difficulty.getTarget());
+        level = new MazeLevel(size, size);
+        random = new Random(1);
+    }
+
+    @Benchmark
+    public MazeLevel generate(Attempts counter) {
+        generator.generate(level, random);
+        /* classic levels are solved separately in the game, count it all the same */
+        if(!level.isSolved()) level.solve();
+        counter.attempts += generator.getLastAttempts();
+        return level;
+    }
+}
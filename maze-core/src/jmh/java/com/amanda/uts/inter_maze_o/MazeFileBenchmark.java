@@ -0,0 +1,80 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to save a maze with {@link MazeFile}, to load it back onto the heap, and to map it and
+ * look at every wall through {@link MappedMaze}. The files go to java.io.tmpdir, so the numbers
+ * include the page cache but usually not the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MazeFileBenchmark {
+
+    @Param({ "1000", "5000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean compress;
+
+    private MazeLevel level;
+    private MazeLevel recycled;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        level = new MazeLevel(size, size);
+        new LevelGenerator(MazeAlgorithm.DEPTH_FIRST).generate(level, 1);
+        recycled = new MazeLevel(size, size);
+        file = File.createTempFile("maze", ".bin");
+        MazeFile.write(level, file, compress);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public File save() throws IOException {
+        MazeFile.write(level, file, compress);
+        return file;
+    }
+
+    @Benchmark
+    public MazeLevel load() throws IOException {
+        return MazeFile.read(file, recycled);
+    }
+
+    /* Only uncompressed files can be mapped */
+    @Benchmark
+    public int mapAndScan() throws IOException {
+        if(compress) return 0;
+        MappedMaze maze = MazeFile.map(file);
+        int walls = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if(maze.hasWall(cell, Direction.RIGHT)) walls++;
+        }
+        return walls;
+    }
+}
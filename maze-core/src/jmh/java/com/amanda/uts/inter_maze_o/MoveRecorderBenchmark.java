@@ -0,0 +1,81 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What recording the moves adds to the input path: "tilt" is one sensor sample through
+ * {@link TiltFilter}, which every frame pays, "record" one {@link MoveRecorder#record} call, which
+ * only moves pay. "replay" plays a recorded run back, one move per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveRecorderBenchmark {
+
+    private static final int SAMPLES = 1024;
+    /* Moves recorded before starting over, about two minutes of play */
+    private static final int RUN_MOVES = 1000;
+    private static final long MOVE_NANOS = 120000000L;
+
+    private final float[] samples = new float[2 * SAMPLES];
+    private final Direction[] moves = new Direction[2];
+    private TiltFilter tiltFilter;
+    private MoveRecorder recorder;
+    private MoveReplay replay;
+    private int sample;
+    private long time;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < samples.length; i++) samples[i] = random.nextFloat() - 0.5f;
+        tiltFilter = new TiltFilter();
+        recorder = new MoveRecorder();
+        recorder.start(0, 0);
+
+        /* back and forth along an open row */
+        MazeGrid grid = new MazeGrid(2, 1);
+        grid.removeWall(0, Direction.RIGHT);
+        MoveRecorder run = new MoveRecorder();
+        run.start(0, 0);
+        for (int i = 0; i < RUN_MOVES; i++) run.record(i % 2 == 0 ? Direction.RIGHT : Direction.LEFT, i * MOVE_NANOS);
+        replay = new MoveReplay(grid, 0, run.getBytes(), run.getLength());
+    }
+
+    @Benchmark
+    public int tilt() {
+        int i = sample++ & (SAMPLES - 1);
+        time += 16666667L;
+        return tiltFilter.update(samples[2 * i], samples[2 * i + 1], time, moves);
+    }
+
+    @Benchmark
+    public int record() {
+        if(recorder.getMoveCount() == RUN_MOVES) recorder.start(0, time);
+        time += MOVE_NANOS;
+        recorder.record(Direction.ALL[sample++ & 3], time);
+        return recorder.getLength();
+    }
+
+    @Benchmark
+    public int replay() {
+        if(replay.isFinished()) replay.rewind();
+        return replay.advance(MOVE_NANOS);
+    }
+}
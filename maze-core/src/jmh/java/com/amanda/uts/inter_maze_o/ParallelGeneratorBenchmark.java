@@ -0,0 +1,67 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link ParallelTiledGenerator} over 1, 2, 4 and 8 threads on a 4000 x 4000 grid,
+ * against plain depth-first search. Only meaningful on a multi-core host.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParallelGeneratorBenchmark {
+
+    private static final int SIZE = 4000;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private ParallelTiledGenerator tiled;
+    private DepthFirstGenerator depthFirst;
+    private MazeGrid grid;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tiled = new ParallelTiledGenerator(threads, ParallelTiledGenerator.DEFAULT_TILE_SIZE);
+        depthFirst = new DepthFirstGenerator();
+        grid = new MazeGrid(SIZE, SIZE);
+        random = new Random(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tiled.shutdown();
+    }
+
+    @Benchmark
+    public MazeGrid tiled() {
+        tiled.generate(grid, random);
+        return grid;
+    }
+
+    /* Single-threaded baseline, doesn't depend on 'threads' */
+    @Benchmark
+    public MazeGrid depthFirst() {
+        depthFirst.generate(grid, random);
+        return grid;
+    }
+}
@@ -0,0 +1,83 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to show a 20 step hint on a huge depth-first maze: a breadth-first search over the whole
+ * grid ({@link DistanceField}) from the exit ("flatBfs"), against {@link ClusterPathfinder} - a
+ * query from a random cell ("clusterQuery") and the query after the player has moved by one cell
+ * ("clusterStep"). "clusterBuild" is what the background thread does once per level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PathfinderBenchmark {
+
+    private static final int HINT_STEPS = 20;
+
+    @Param({ "1000", "5000" })
+    public int size;
+
+    private MazeGrid grid;
+    private int exit;
+    private DistanceField field;
+    private ClusterPathfinder pathfinder;
+    private final int[] hint = new int[HINT_STEPS];
+    private Random random;
+    private int player;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        new DepthFirstGenerator().generate(grid, new Random(1));
+        exit = grid.size() - 1;
+        field = new DistanceField();
+        pathfinder = new ClusterPathfinder();
+        pathfinder.build(grid);
+        pathfinder.setTarget(exit);
+        random = new Random(2);
+    }
+
+    @Benchmark
+    public int flatBfs() {
+        field.compute(grid, exit);
+        return field.path(grid, random.nextInt(grid.size()), HINT_STEPS, hint);
+    }
+
+    @Benchmark
+    public int clusterQuery() {
+        return pathfinder.path(random.nextInt(grid.size()), HINT_STEPS, hint);
+    }
+
+    @Benchmark
+    public int clusterStep() {
+        /* wander through the maze like a player */
+        Direction direction = Direction.ALL[random.nextInt(4)];
+        if(!grid.hasWall(player, direction)) player = grid.neighbour(player, direction);
+        return pathfinder.path(player, HINT_STEPS, hint);
+    }
+
+    @Benchmark
+    public ClusterPathfinder clusterBuild() {
+        pathfinder.build(grid);
+        pathfinder.setTarget(exit);
+        return pathfinder;
+    }
+}
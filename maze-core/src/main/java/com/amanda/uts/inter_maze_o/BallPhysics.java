@@ -0,0 +1,250 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    A ball rolling through the maze, as an alternative to moving the player cell by cell: the tilt
+    accelerates the ball, friction slows it down and it bounces off the walls.
+
+    Positions are in cells - the upper left corner of the maze is (0, 0), the centre of the cell
+    in column c and row r is (c + 0.5, r + 0.5).
+
+    The simulation runs in fixed steps of STEP_SECONDS, whatever the frame rate - advance() turns
+    the time passed into a number of steps and keeps the rest for the next call. So the same
+    inputs always give the same positions, on any device, and it can be tested without one.
+
+    Collisions are swept: each step moves the circle along its way and finds the first wall it
+    would touch, moves it there and reflects the rest of the way, up to MAX_BOUNCES times. The
+    ball moves less than a cell per step, so only the walls around the cell it is in can be hit -
+    they're read straight from the grid's wall bits, like WallGeometry does, and nothing is
+    allocated.
+
+    Not thread-safe - owned by the thread which runs the game.
+*/
+public class BallPhysics {
+
+    /* 120 steps per second */
+    public static final float STEP_SECONDS = 1 / 120f;
+    private static final long STEP_NANOS = 1000000000L / 120;
+    /* After a stall (e.g. the app was paused) the ball doesn't try to catch up */
+    private static final int MAX_STEPS = 12;
+    private static final int MAX_BOUNCES = 3;
+    /* Distance kept from a wall after touching it, so rounding can't put the ball into it */
+    private static final float SKIN = 1e-4f;
+    /* Slower hits aren't counted as bounces - the ball is just rolling along a wall */
+    private static final float BOUNCE_SPEED = 0.5f;
+
+    private float radius = 0.3f;
+    /* Cells per second per second, per unit of tilt */
+    private float acceleration = 40;
+    /* Fraction of the speed lost per second */
+    private float friction = 1.5f;
+    /* Fraction of the speed towards a wall kept when bouncing off it */
+    private float bounce = 0.4f;
+    /* Cells per second - keeps every step well below a cell, see setMaxSpeed() */
+    private float maxSpeed = 30;
+
+    private MazeGrid grid;
+    private float x, y, velocityX, velocityY;
+    private long lag;
+    private int bounces;
+
+    /* The first wall hit during a step: time (0..1 of the way) and the wall's normal */
+    private float hitTime, hitNormalX, hitNormalY;
+    /* The way of the current step */
+    private float moveX, moveY;
+
+    /* Put the ball at rest into the centre of the cell */
+    public void reset(MazeGrid grid, int cell) {
+        this.grid = grid;
+        x = grid.col(cell) + 0.5f;
+        y = grid.row(cell) + 0.5f;
+        velocityX = velocityY = 0;
+        lag = 0;
+    }
+
+    /* Radius in cells, below 0.5 */
+    public void setRadius(float radius) {
+        this.radius = Math.max(0.05f, Math.min(0.45f, radius));
+        setMaxSpeed(maxSpeed);
+    }
+
+    public void setAcceleration(float acceleration) {
+        this.acceleration = acceleration;
+    }
+
+    public void setFriction(float friction) {
+        this.friction = Math.max(0, friction);
+    }
+
+    public void setBounce(float bounce) {
+        this.bounce = Math.max(0, Math.min(1, bounce));
+    }
+
+    /* Capped so the ball and its way within one step always fit into the cells next to its own */
+    public void setMaxSpeed(float maxSpeed) {
+        this.maxSpeed = Math.min(maxSpeed, (0.9f - radius) / STEP_SECONDS);
+    }
+
+    /* Number of steps to run for 'nanos' of time passed, the rest is kept for the next call */
+    public int advance(long nanos) {
+        lag += nanos;
+        int steps = (int) Math.min(MAX_STEPS, lag / STEP_NANOS);
+        lag = steps == MAX_STEPS ? 0 : lag - steps * STEP_NANOS;
+        return steps;
+    }
+
+    /* One step of STEP_SECONDS with the tilt (tiltX, tiltY), e.g. the sensor values */
+    public void step(float tiltX, float tiltY) {
+        velocityX += tiltX * acceleration * STEP_SECONDS;
+        velocityY += tiltY * acceleration * STEP_SECONDS;
+        float damping = Math.max(0, 1 - friction * STEP_SECONDS);
+        velocityX *= damping;
+        velocityY *= damping;
+        float speed = velocityX * velocityX + velocityY * velocityY;
+        if(speed > maxSpeed * maxSpeed) {
+            float scale = maxSpeed / (float) Math.sqrt(speed);
+            velocityX *= scale;
+            velocityY *= scale;
+        }
+
+        moveX = velocityX * STEP_SECONDS;
+        moveY = velocityY * STEP_SECONDS;
+        for (int i = 0; i <= MAX_BOUNCES && (moveX != 0 || moveY != 0); i++) {
+            findFirstHit();
+            x += moveX * hitTime;
+            y += moveY * hitTime;
+            if(hitTime >= 1) break;
+            if(i == MAX_BOUNCES) break;
+
+            /* reflect the speed and the rest of the way off the wall */
+            x += hitNormalX * SKIN;
+            y += hitNormalY * SKIN;
+            moveX *= 1 - hitTime;
+            moveY *= 1 - hitTime;
+            float towards = velocityX * hitNormalX + velocityY * hitNormalY;
+            if(towards < -BOUNCE_SPEED) bounces++;
+            if(towards < 0) {
+                velocityX -= (1 + bounce) * towards * hitNormalX;
+                velocityY -= (1 + bounce) * towards * hitNormalY;
+            }
+            towards = moveX * hitNormalX + moveY * hitNormalY;
+            if(towards < 0) {
+                moveX -= (1 + bounce) * towards * hitNormalX;
+                moveY -= (1 + bounce) * towards * hitNormalY;
+            }
+        }
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    public float getVelocityY() {
+        return velocityY;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    /* Number of times the ball has hit a wall so far, e.g. for a sound or a vibration */
+    public int getBounces() {
+        return bounces;
+    }
+
+    /* Cell the centre of the ball is in */
+    public int getCell() {
+        int col = Math.max(0, Math.min(grid.getCols() - 1, (int) x));
+        int row = Math.max(0, Math.min(grid.getRows() - 1, (int) y));
+        return grid.index(col, row);
+    }
+
+    /*
+        The walls which can be reached within a step are the ones on the two horizontal and the two
+        vertical grid lines around the ball's cell, in the three rows or columns around it.
+    */
+    private void findFirstHit() {
+        hitTime = 1;
+        int col = (int) x, row = (int) y;
+        for (int line = row; line <= row + 1; line++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                if(c >= 0 && c < grid.getCols() && WallGeometry.hasHorizontalWall(grid, c, line)) {
+                    sweepHorizontal(line, c, c + 1);
+                }
+            }
+        }
+        for (int line = col; line <= col + 1; line++) {
+            for (int r = row - 1; r <= row + 1; r++) {
+                if(r >= 0 && r < grid.getRows() && WallGeometry.hasVerticalWall(grid, line, r)) {
+                    sweepVertical(line, r, r + 1);
+                }
+            }
+        }
+    }
+
+    /* Wall from (left, line) to (right, line) - its length and both ends */
+    private void sweepHorizontal(float line, float left, float right) {
+        if(moveY > 0 && y <= line) {
+            hitLine(Math.max(0, (line - radius - y) / moveY), x, moveX, left, right, 0, -1);
+        } else if(moveY < 0 && y >= line) {
+            hitLine(Math.max(0, (y - radius - line) / -moveY), x, moveX, left, right, 0, 1);
+        }
+        sweepPoint(left, line);
+        sweepPoint(right, line);
+    }
+
+    /* Wall from (line, top) to (line, bottom) */
+    private void sweepVertical(float line, float top, float bottom) {
+        if(moveX > 0 && x <= line) {
+            hitLine(Math.max(0, (line - radius - x) / moveX), y, moveY, top, bottom, -1, 0);
+        } else if(moveX < 0 && x >= line) {
+            hitLine(Math.max(0, (x - radius - line) / -moveX), y, moveY, top, bottom, 1, 0);
+        }
+        sweepPoint(line, top);
+        sweepPoint(line, bottom);
+    }
+
+    /* The ball touches the wall's line at 'time' - a hit if it's within the wall's length then */
+    private void hitLine(float time, float along, float moveAlong, float start, float end,
+                         float normalX, float normalY) {
+        if(time >= hitTime) return;
+        float position = along + moveAlong * time;
+        if(position < start || position > end) return;
+        hitTime = time;
+        hitNormalX = normalX;
+        hitNormalY = normalY;
+    }
+
+    /* The end of a wall: the ball touches it once the distance of its centre shrinks to the radius */
+    private void sweepPoint(float pointX, float pointY) {
+        float relativeX = x - pointX, relativeY = y - pointY;
+        float b = relativeX * moveX + relativeY * moveY;
+        /* moving away */
+        if(b >= 0) return;
+        float a = moveX * moveX + moveY * moveY;
+        float c = relativeX * relativeX + relativeY * relativeY - radius * radius;
+        float time;
+        if(c <= 0) {
+            /* already touching */
+            time = 0;
+        } else {
+            float discriminant = b * b - a * c;
+            if(discriminant < 0) return;
+            time = (-b - (float) Math.sqrt(discriminant)) / a;
+        }
+        if(time >= hitTime) return;
+        float normalX = relativeX + moveX * time, normalY = relativeY + moveY * time;
+        float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+        if(length == 0) return;
+        hitTime = time;
+        hitNormalX = normalX / length;
+        hitNormalY = normalY / length;
+    }
+}
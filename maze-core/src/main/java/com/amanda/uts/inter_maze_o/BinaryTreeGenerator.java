@@ -0,0 +1,39 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Binary tree algorithm: every cell opens either its right or its top wall, decided by one
+    random bit. The first row can only open to the right and the last column only to the top,
+    which leaves an open corridor along both.
+
+    Since no cell depends on its neighbours, 64 cells are carved with a single random long:
+        east  = random bits of the cells which open to the right
+        right walls of the row    = the cells that didn't open to the right
+        bottom walls of row above = the cells that didn't open to the top, i.e. 'east'
+
+    Very fast, but the mazes are strongly biased: every path leads up and to the right, towards
+    the upper right corner.
+*/
+public class BinaryTreeGenerator extends BitRowGenerator {
+
+    @Override
+    void carve(BitMaze maze, Xoshiro256 random) {
+        int rows = maze.getRows(), words = maze.getWordsPerRow();
+        long[] right = maze.rightWalls, bottom = maze.bottomWalls;
+        long lastMask = maze.lastWordMask();
+        /* the last column never opens to the right */
+        long lastColumn = Long.highestOneBit(lastMask);
+
+        for (int row = 0; row < rows; row++) {
+            int base = row * words;
+            for (int word = 0; word < words; word++) {
+                boolean last = word == words - 1;
+                long cells = last ? lastMask : -1L;
+                long open = last ? cells & ~lastColumn : cells;
+                long east = row == 0 ? open : random.nextLong() & open;
+                right[base + word] = cells & ~east;
+                bottom[base + word] = cells;
+                if(row > 0) bottom[base - words + word] = east;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Maze walls as rows of bits, for the word-parallel generators (see BitRowGenerator): one bit
+    per cell in 'rightWalls' and one in 'bottomWalls', 64 cells to a long. A row starts at a new
+    word, so a generator can carve a whole word of cells at a time; the unused bits at the end of
+    a row stay 0. A set bit is a wall, like in MazeGrid, and the border is implicit the same way.
+
+    At 2 bits per cell a 10000 x 10000 maze takes 25 MB. copyTo() turns it into the byte per cell
+    MazeGrid the game plays on.
+*/
+public class BitMaze {
+
+    private final int cols, rows, wordsPerRow;
+    final long[] rightWalls, bottomWalls;
+
+    public BitMaze(int cols, int rows) {
+        if(cols <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Maze size must be positive: " + cols + " x " + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        wordsPerRow = (cols + 63) >>> 6;
+        rightWalls = new long[wordsPerRow * rows];
+        bottomWalls = new long[wordsPerRow * rows];
+    }
+
+    public boolean fits(int cols, int rows) {
+        return this.cols == cols && this.rows == rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /* Bits of the cells which exist in the last word of a row */
+    long lastWordMask() {
+        int used = cols & 63;
+        return used == 0 ? -1L : (1L << used) - 1;
+    }
+
+    public boolean hasRightWall(int col, int row) {
+        return (rightWalls[row * wordsPerRow + (col >>> 6)] >>> col & 1) != 0;
+    }
+
+    public boolean hasBottomWall(int col, int row) {
+        return (bottomWalls[row * wordsPerRow + (col >>> 6)] >>> col & 1) != 0;
+    }
+
+    /* Copy the walls into a grid of the same size. The grid's cells end up not visited. */
+    public void copyTo(MazeGrid grid) {
+        if(grid.getCols() != cols || grid.getRows() != rows) {
+            throw new IllegalArgumentException("Grid is " + grid.getCols() + " x " + grid.getRows() + ", not " + cols + " x " + rows);
+        }
+        for (int row = 0; row < rows; row++) {
+            int word = row * wordsPerRow;
+            int cell = row * cols;
+            for (int col = 0; col < cols; col += 64, word++, cell += 64) {
+                grid.setWallBits(cell, rightWalls[word], bottomWalls[word], Math.min(64, cols - col));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Base of the generators which carve a BitMaze a whole row at a time, 64 cells per random word,
+    instead of walking from cell to cell - see BinaryTreeGenerator and SidewinderGenerator. Both
+    only ever look at the current row and the one above it, so every cell is touched once and
+    there is no stack, queue or set to keep.
+
+    As a MazeGenerator the maze is carved into a BitMaze kept between calls and then copied into
+    the grid. Callers which can work with the bits directly (huge sizes, benchmarks) can skip
+    the copy with generate(BitMaze, long).
+*/
+public abstract class BitRowGenerator implements MazeGenerator {
+
+    private final Xoshiro256 random = new Xoshiro256(0);
+    private BitMaze bits;
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        if(bits == null || !bits.fits(grid.getCols(), grid.getRows())) {
+            bits = new BitMaze(grid.getCols(), grid.getRows());
+        }
+        generate(bits, random.nextLong());
+        bits.copyTo(grid);
+    }
+
+    /* Carve a new maze into 'maze', all of its old walls are overwritten */
+    public void generate(BitMaze maze, long seed) {
+        random.setSeed(seed);
+        carve(maze, random);
+    }
+
+    abstract void carve(BitMaze maze, Xoshiro256 random);
+}
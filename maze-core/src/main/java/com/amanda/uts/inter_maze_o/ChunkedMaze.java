@@ -0,0 +1,150 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+    A maze without borders, made of square chunks which are generated when they're first needed.
+
+    Each chunk is a perfect maze of its own, carved by depth-first search with a Random seeded from
+    (seed, chunkX, chunkY) only - so a chunk comes out the same no matter when, in which order or
+    how often it is generated. Neighbouring chunks are connected through one opening in each
+    shared edge. The position of that opening is again derived from the seed and the coordinates
+    of the two chunks, so both sides agree on it without ever looking at each other. Every chunk
+    is connected inside and to all four neighbours, so the whole world is connected.
+
+    Only the most recently used 'maxChunks' chunks are kept. Older ones are dropped and their
+    grids reused for new chunks, so the memory stays the same however far the player goes -
+    coming back to a dropped chunk simply generates it again, identically.
+
+    Cells are addressed by world coordinates (x to the right, y down), which may be negative. Not
+    thread-safe.
+*/
+public class ChunkedMaze {
+
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+    public static final int DEFAULT_MAX_CHUNKS = 64;
+
+    private final long seed;
+    private final int chunkSize;
+    private final Map<Long, MazeGrid> chunks;
+    /* Grids of dropped chunks, waiting to be carved again */
+    private final ArrayDeque<MazeGrid> spare = new ArrayDeque<>();
+    private final DepthFirstGenerator generator = new DepthFirstGenerator();
+    private final Random random = new Random();
+    private int generatedChunks;
+
+    /* Most recently looked up chunk - neighbouring cells nearly always share it, and it saves
+       boxing the key */
+    private int lastChunkX, lastChunkY;
+    private MazeGrid lastChunk;
+
+    public ChunkedMaze(long seed) {
+        this(seed, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CHUNKS);
+    }
+
+    public ChunkedMaze(long seed, int chunkSize, final int maxChunks) {
+        if(chunkSize < 2 || maxChunks < 1) throw new IllegalArgumentException("Chunk size " + chunkSize + ", max chunks " + maxChunks);
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        /* access order - iteration starts at the least recently used chunk */
+        chunks = new LinkedHashMap<Long, MazeGrid>(maxChunks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MazeGrid> eldest) {
+                if(size() <= maxChunks) return false;
+                if(eldest.getValue() == lastChunk) lastChunk = null;
+                spare.push(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /* Number of chunks currently in memory */
+    public int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    /* Number of times a chunk has been carved, including chunks generated again after they had
+       been dropped */
+    public int getGeneratedChunks() {
+        return generatedChunks;
+    }
+
+    /* Chunk containing the world coordinate (rounding towards minus infinity) */
+    public int chunkOf(int coordinate) {
+        /* Math.floorDiv() is Java 8 and Android API 24 */
+        return coordinate >= 0 ? coordinate / chunkSize : -((-coordinate - 1) / chunkSize) - 1;
+    }
+
+    /* The walls of a chunk, generating it if needed. The grid's own border is always closed; the
+       openings to the neighbours are only known to hasWall(). */
+    public MazeGrid chunk(int chunkX, int chunkY) {
+        if(lastChunk != null && chunkX == lastChunkX && chunkY == lastChunkY) return lastChunk;
+
+        Long key = ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+        MazeGrid grid = chunks.get(key);
+        if(grid == null) {
+            grid = spare.isEmpty() ? new MazeGrid(chunkSize, chunkSize) : spare.pop();
+            random.setSeed(mix(seed, chunkX, chunkY, 0));
+            generator.generate(grid, random);
+            generatedChunks++;
+            chunks.put(key, grid);
+        }
+        lastChunkX = chunkX;
+        lastChunkY = chunkY;
+        lastChunk = grid;
+        return grid;
+    }
+
+    public boolean hasWall(int x, int y, Direction direction) {
+        int chunkX = chunkOf(x), chunkY = chunkOf(y);
+        int localX = x - chunkX * chunkSize, localY = y - chunkY * chunkSize;
+        int last = chunkSize - 1;
+        switch(direction) {
+            case UP:
+                if(localY == 0) return localX != opening(chunkX, chunkY - 1, Direction.DOWN);
+                break;
+            case RIGHT:
+                if(localX == last) return localY != opening(chunkX, chunkY, Direction.RIGHT);
+                break;
+            case DOWN:
+                if(localY == last) return localX != opening(chunkX, chunkY, Direction.DOWN);
+                break;
+            default:
+                if(localX == 0) return localY != opening(chunkX - 1, chunkY, Direction.RIGHT);
+                break;
+        }
+        MazeGrid grid = chunk(chunkX, chunkY);
+        return grid.hasWall(grid.index(localX, localY), direction);
+    }
+
+    /* Position of the opening in the right or bottom edge of a chunk */
+    private int opening(int chunkX, int chunkY, Direction edge) {
+        long hash = mix(seed, chunkX, chunkY, edge == Direction.RIGHT ? 1 : 2);
+        return (int) ((hash >>> 1) % chunkSize);
+    }
+
+    /* SplitMix64 finalizer over all inputs - neighbouring chunks get unrelated values */
+    private static long mix(long seed, int chunkX, int chunkY, int salt) {
+        long z = seed;
+        z = scramble(z + 0x9e3779b97f4a7c15L * (chunkX + 1));
+        z = scramble(z + 0x9e3779b97f4a7c15L * (chunkY + 1));
+        return scramble(z + salt);
+    }
+
+    private static long scramble(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,574 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Arrays;
+
+/*
+    Hierarchical path finding (HPA*) to one target cell, for mazes too big for a DistanceField -
+    that takes DistanceField.BYTES_PER_CELL (13) bytes per cell and a search over the whole grid
+    before the first hint.
+
+    build() cuts the grid into square clusters of 'clusterSize' x 'clusterSize' cells. Every
+    opening in the border between two clusters becomes a pair of entrance nodes, one on each side,
+    linked by a single step. A breadth-first search inside each cluster from each of its entrances
+    gives the distances between the entrances of that cluster. Together that's the abstract
+    graph: a handful of nodes per cluster instead of clusterSize * clusterSize cells.
+
+    A query links the start cell to the entrances of its cluster (a search inside that one
+    cluster), finds the shortest way through the abstract graph with A* and the Manhattan
+    distance, and only then works out the cells - one cluster after the other along the way, only
+    as far as path() asks for. The target's links to its cluster are kept until it changes.
+
+    Moving by one cell doesn't need a new query: stepping onto the next cell of the way shortens
+    it by one, stepping anywhere else puts the old cell in front of it. In a perfect maze that is
+    the only way back; in case the maze has loops the way is worked out again once the detours are
+    'clusterSize' steps deep.
+
+    Like DistanceField the buffers are kept between builds. Not thread-safe, queries change the
+    cached way.
+*/
+public class ClusterPathfinder {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 64;
+    /* Distance of cells which can't reach the target - none in a perfect maze */
+    public static final int UNREACHABLE = -1;
+    /* parent of the nodes reached straight from the start cell */
+    private static final int START = -1;
+
+    private final int clusterSize;
+    private MazeGrid grid;
+    private int cols, rows, clusterCols;
+
+    /*
+        Entrance nodes, grouped by cluster and within a cluster by side (Direction order): the
+        nodes on side d of cluster c are sideStart[4 * c + d] .. sideStart[4 * c + d + 1] - 1, in
+        the order of their cells. The i-th node on the right side of a cluster is linked to the
+        i-th node on the left side of the next cluster, and so on.
+    */
+    private int[] sideStart = new int[1];
+    private int[] nodeCells = new int[0];
+    private int[] partners = new int[0];
+    private int nodeCount;
+    /* Distances inside a cluster, edges of node n are edgeStart[n] .. edgeStart[n + 1] - 1 */
+    private int[] edgeStart = new int[1];
+    private int[] edgeTargets = new int[0];
+    private int[] edgeCosts = new int[0];
+    private int edgeCount;
+
+    /* Breadth-first search inside one cluster, indexed by the cell's position in the cluster */
+    private int[] localDistances = new int[0];
+    private int[] localStamps = new int[0];
+    private int[] localQueue = new int[0];
+    private int localStamp;
+    /* While building: the cells the search is looking for carry 'wantedStamp', 'wanted' of them
+       haven't been found yet */
+    private int[] localWanted = new int[0];
+    private int wantedStamp;
+    private int wanted;
+    /* While building: distances between the entrances of one cluster, i < j only */
+    private int[] pairCosts = new int[0];
+    /* Bounds of the cluster searched last */
+    private int left, top, width, height;
+
+    /* The target and the distances from the entrances of its cluster to it, UNREACHABLE if
+       there's no way inside the cluster */
+    private int target = -1;
+    private int targetCluster;
+    private int targetFirstNode;
+    private int[] targetCosts = new int[0];
+
+    /* A* over the nodes, node 'nodeCount' stands for the target. Entries of 'costs' and
+       'parents' only count if 'seen' carries the current query's stamp. */
+    private int[] costs = new int[0];
+    private int[] parents = new int[0];
+    private int[] seen = new int[0];
+    private int queryStamp;
+    /* binary heap of nodes, ordered by cost + estimate; outdated entries are skipped */
+    private int[] heapNodes = new int[16];
+    private int[] heapKeys = new int[16];
+    private int heapSize;
+
+    /* The cached way: from 'origin', 'distance' steps. The cells worked out so far are
+       path[pathHead] .. path[pathTail - 1], the rest leads through waypoints[nextWaypoint] ..
+       waypoints[waypointCount - 1], the last one being the target. */
+    private boolean valid;
+    private int origin;
+    private int distance;
+    private int[] path = new int[64];
+    private int pathHead, pathTail;
+    private int[] waypoints = new int[16];
+    private int nextWaypoint, waypointCount;
+    private int detours;
+
+    public ClusterPathfinder() {
+        this(DEFAULT_CLUSTER_SIZE);
+    }
+
+    public ClusterPathfinder(int clusterSize) {
+        if(clusterSize < 2 || clusterSize > 0xffff) throw new IllegalArgumentException("Cluster size must be 2 to 65535: " + clusterSize);
+        this.clusterSize = clusterSize;
+    }
+
+    /* Work out the abstract graph of the grid. The grid mustn't change afterwards. */
+    public void build(MazeGrid grid) {
+        this.grid = grid;
+        cols = grid.getCols();
+        rows = grid.getRows();
+        clusterCols = (cols + clusterSize - 1) / clusterSize;
+        int clusters = clusterCols * ((rows + clusterSize - 1) / clusterSize);
+        int area = clusterSize * clusterSize;
+        if(localDistances.length < area) {
+            localDistances = new int[area];
+            localStamps = new int[area];
+            localQueue = new int[area];
+            localWanted = new int[area];
+        }
+        if(sideStart.length < 4 * clusters + 1) sideStart = new int[4 * clusters + 1];
+
+        /* entrances */
+        nodeCount = 0;
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            setBounds(cluster);
+            int right = left + width - 1, bottom = top + height - 1;
+            sideStart[4 * cluster] = nodeCount;
+            if(top > 0) {
+                for (int col = left; col <= right; col++) {
+                    int cell = grid.index(col, top);
+                    if(!grid.hasBottomWall(cell - cols)) addNode(cell);
+                }
+            }
+            sideStart[4 * cluster + 1] = nodeCount;
+            if(right < cols - 1) {
+                for (int row = top; row <= bottom; row++) {
+                    int cell = grid.index(right, row);
+                    if(!grid.hasRightWall(cell)) addNode(cell);
+                }
+            }
+            sideStart[4 * cluster + 2] = nodeCount;
+            if(bottom < rows - 1) {
+                for (int col = left; col <= right; col++) {
+                    int cell = grid.index(col, bottom);
+                    if(!grid.hasBottomWall(cell)) addNode(cell);
+                }
+            }
+            sideStart[4 * cluster + 3] = nodeCount;
+            if(left > 0) {
+                for (int row = top; row <= bottom; row++) {
+                    int cell = grid.index(left, row);
+                    if(!grid.hasRightWall(cell - 1)) addNode(cell);
+                }
+            }
+        }
+        sideStart[4 * clusters] = nodeCount;
+
+        /* links between clusters - both sides of a border list the same openings in the same order */
+        if(partners.length < nodeCount) partners = new int[nodeCells.length];
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            /* clusters on the right and bottom edge have no nodes there, nor a neighbour */
+            int first = sideStart[4 * cluster + 1], end = sideStart[4 * cluster + 2];
+            for (int node = first; node < end; node++) link(node, sideStart[4 * (cluster + 1) + 3] + node - first);
+            first = sideStart[4 * cluster + 2];
+            end = sideStart[4 * cluster + 3];
+            for (int node = first; node < end; node++) link(node, sideStart[4 * (cluster + clusterCols)] + node - first);
+        }
+
+        /* distances between the entrances of each cluster */
+        if(edgeStart.length < nodeCount + 1) edgeStart = new int[nodeCells.length + 1];
+        edgeCount = 0;
+        for (int cluster = 0; cluster < clusters; cluster++) connectEntrances(cluster);
+        edgeStart[nodeCount] = edgeCount;
+
+        if(costs.length < nodeCount + 1) {
+            costs = new int[nodeCount + 1];
+            parents = new int[nodeCount + 1];
+            seen = new int[nodeCount + 1];
+        }
+        target = -1;
+        valid = false;
+    }
+
+    /* Edges between the entrances of the cluster. The distances are the same both ways, so the
+       search from an entrance only has to go on until it has found the ones after it. */
+    private void connectEntrances(int cluster) {
+        int first = sideStart[4 * cluster], end = sideStart[4 * cluster + 4];
+        int count = end - first;
+        setBounds(cluster);
+        if(pairCosts.length < count * count) pairCosts = new int[count * count];
+        for (int i = 0; i < count; i++) {
+            if(++wantedStamp == Integer.MAX_VALUE) {
+                Arrays.fill(localWanted, 0);
+                wantedStamp = 1;
+            }
+            wanted = 0;
+            int from = nodeCells[first + i];
+            for (int j = i + 1; j < count; j++) {
+                int cell = nodeCells[first + j];
+                int local = localIndex(cell);
+                if(cell != from && localWanted[local] != wantedStamp) {
+                    localWanted[local] = wantedStamp;
+                    wanted++;
+                }
+            }
+            boolean searched = wanted > 0;
+            if(searched) search(cluster, from, true);
+            for (int j = i + 1; j < count; j++) {
+                int cell = nodeCells[first + j];
+                pairCosts[i * count + j] = cell == from ? 0 : searched ? localDistance(cell) : UNREACHABLE;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            edgeStart[first + i] = edgeCount;
+            for (int j = 0; j < count; j++) {
+                if(j == i) continue;
+                int cost = i < j ? pairCosts[i * count + j] : pairCosts[j * count + i];
+                if(cost != UNREACHABLE) addEdge(first + j, cost);
+            }
+        }
+    }
+
+    /* Cell all queries lead to, e.g. the exit */
+    public void setTarget(int target) {
+        if(target == this.target) return;
+        this.target = target;
+        targetCluster = clusterOf(target);
+        targetFirstNode = sideStart[4 * targetCluster];
+        int count = sideStart[4 * targetCluster + 4] - targetFirstNode;
+        if(targetCosts.length < count) targetCosts = new int[count];
+        search(targetCluster, target);
+        for (int i = 0; i < count; i++) targetCosts[i] = localDistance(nodeCells[targetFirstNode + i]);
+        valid = false;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /* Number of steps from the cell to the target, or UNREACHABLE */
+    public int distance(int from) {
+        moveTo(from);
+        return distance;
+    }
+
+    /* Which way to go from the cell to get closer to the target, null on the target itself or if
+       it can't be reached */
+    public Direction nextStep(int from) {
+        moveTo(from);
+        if(distance <= 0) return null;
+        refine(1);
+        return directionTo(from, path[pathHead]);
+    }
+
+    /*
+        Write the cells of the way from 'from' to the target into 'out', starting with the cell
+        after 'from', and return how many there are: at most 'maxSteps' and at most out.length.
+        Only the clusters needed for those cells are searched.
+    */
+    public int path(int from, int maxSteps, int[] out) {
+        moveTo(from);
+        int count = Math.max(0, Math.min(distance, Math.min(maxSteps, out.length)));
+        refine(count);
+        System.arraycopy(path, pathHead, out, 0, count);
+        return count;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /* Bytes of all buffers, for comparison with DistanceField.BYTES_PER_CELL */
+    public long getMemoryBytes() {
+        long ints = sideStart.length + nodeCells.length + partners.length + edgeStart.length
+                + edgeTargets.length + edgeCosts.length + 4L * localDistances.length
+                + pairCosts.length + targetCosts.length + 3L * costs.length + 2L * heapNodes.length
+                + path.length + waypoints.length;
+        return 4 * ints;
+    }
+
+    /* Make the cached way start at 'from' */
+    private void moveTo(int from) {
+        if(target < 0) throw new IllegalStateException("No target set");
+        if(valid && from == origin) return;
+        if(valid && distance != UNREACHABLE) {
+            if(distance > 0) {
+                refine(1);
+                if(path[pathHead] == from) {
+                    pathHead++;
+                    origin = from;
+                    distance--;
+                    if(detours > 0) detours--;
+                    return;
+                }
+            }
+            Direction direction = directionTo(origin, from);
+            if(direction != null && detours < clusterSize && !grid.hasWall(origin, direction)) {
+                prepend(origin);
+                origin = from;
+                distance++;
+                detours++;
+                return;
+            }
+        }
+        query(from);
+    }
+
+    private void query(int from) {
+        valid = true;
+        origin = from;
+        pathHead = pathTail = 0;
+        nextWaypoint = waypointCount = 0;
+        detours = 0;
+        if(from == target) {
+            distance = 0;
+            return;
+        }
+
+        if(++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            queryStamp = 1;
+        }
+        heapSize = 0;
+        int goal = nodeCount;
+        int cluster = clusterOf(from);
+        search(cluster, from);
+        for (int node = sideStart[4 * cluster], end = sideStart[4 * cluster + 4]; node < end; node++) {
+            int cost = localDistance(nodeCells[node]);
+            if(cost != UNREACHABLE) relax(node, cost, START);
+        }
+        if(cluster == targetCluster) {
+            int cost = localDistance(target);
+            if(cost != UNREACHABLE) relax(goal, cost, START);
+        }
+
+        int targetEnd = targetFirstNode + sideStart[4 * targetCluster + 4] - sideStart[4 * targetCluster];
+        while(heapSize > 0) {
+            int node = heapNodes[0], key = heapKeys[0];
+            pop();
+            if(node == goal) break;
+            int cost = costs[node];
+            /* an outdated entry, the node has been reached more cheaply since */
+            if(key != cost + estimate(nodeCells[node])) continue;
+
+            relax(partners[node], cost + 1, node);
+            for (int edge = edgeStart[node], end = edgeStart[node + 1]; edge < end; edge++) {
+                relax(edgeTargets[edge], cost + edgeCosts[edge], node);
+            }
+            if(node >= targetFirstNode && node < targetEnd) {
+                int rest = targetCosts[node - targetFirstNode];
+                if(rest != UNREACHABLE) relax(goal, cost + rest, node);
+            }
+        }
+
+        if(seen[goal] != queryStamp) {
+            distance = UNREACHABLE;
+            return;
+        }
+        distance = costs[goal];
+        /* the entrances along the way, from the target back to the start */
+        waypoints = ensure(waypoints, 1);
+        waypoints[waypointCount++] = target;
+        for (int node = parents[goal]; node != START; node = parents[node]) {
+            waypoints = ensure(waypoints, waypointCount + 1);
+            waypoints[waypointCount++] = nodeCells[node];
+        }
+        for (int i = 0, j = waypointCount - 1; i < j; i++, j--) {
+            int swap = waypoints[i];
+            waypoints[i] = waypoints[j];
+            waypoints[j] = swap;
+        }
+    }
+
+    private void relax(int node, int cost, int parent) {
+        if(seen[node] == queryStamp && costs[node] <= cost) return;
+        seen[node] = queryStamp;
+        costs[node] = cost;
+        parents[node] = parent;
+        push(node, node == nodeCount ? cost : cost + estimate(nodeCells[node]));
+    }
+
+    /* Manhattan distance to the target - never more than the real distance */
+    private int estimate(int cell) {
+        return Math.abs(cell % cols - target % cols) + Math.abs(cell / cols - target / cols);
+    }
+
+    /* Work out the cells of the way until at least 'steps' of them are known */
+    private void refine(int steps) {
+        int wanted = Math.min(steps, distance);
+        while(pathTail - pathHead < wanted) {
+            int from = pathTail > pathHead ? path[pathTail - 1] : origin;
+            int to = waypoints[nextWaypoint++];
+            if(to == from) continue;
+            int cluster = clusterOf(from);
+            if(cluster != clusterOf(to)) {
+                /* the step through an opening into the next cluster */
+                append(to);
+                continue;
+            }
+            /* search back from the waypoint, then follow the distances down to it */
+            search(cluster, to);
+            int cell = from;
+            for (int remaining = localDistance(from); remaining > 0; remaining--) {
+                for (Direction direction : Direction.ALL) {
+                    int next = grid.neighbour(cell, direction);
+                    if(next >= 0 && !grid.hasWall(cell, direction) && clusterOf(next) == cluster
+                            && localDistance(next) == remaining - 1) {
+                        cell = next;
+                        break;
+                    }
+                }
+                append(cell);
+            }
+        }
+    }
+
+    private void append(int cell) {
+        if(pathTail == path.length) path = Arrays.copyOf(path, path.length * 2);
+        path[pathTail++] = cell;
+    }
+
+    private void prepend(int cell) {
+        if(pathHead == 0) {
+            /* make room in front, as much as there is behind */
+            int count = pathTail;
+            int room = Math.max(16, count);
+            int[] moved = new int[room + Math.max(path.length, count)];
+            System.arraycopy(path, 0, moved, room, count);
+            path = moved;
+            pathHead = room;
+            pathTail = room + count;
+        }
+        path[--pathHead] = cell;
+    }
+
+    /* Breadth-first search from 'from' which doesn't leave the cluster, see localDistance() */
+    private void search(int cluster, int from) {
+        search(cluster, from, false);
+    }
+
+    /* With 'untilWanted' the search stops once it has found all wanted cells */
+    private void search(int cluster, int from, boolean untilWanted) {
+        setBounds(cluster);
+        if(++localStamp == Integer.MAX_VALUE) {
+            Arrays.fill(localStamps, 0);
+            localStamp = 1;
+        }
+        /* the queue holds x | y << 16 within the cluster, no divisions in the loop */
+        int head = 0, tail = 0;
+        int start = localIndex(from);
+        localStamps[start] = localStamp;
+        localDistances[start] = 0;
+        localQueue[tail++] = from % cols - left | (from / cols - top) << 16;
+        while(head < tail && (!untilWanted || wanted > 0)) {
+            int position = localQueue[head++];
+            int x = position & 0xffff, y = position >>> 16;
+            int local = y * width + x;
+            int cell = (top + y) * cols + left + x;
+            int next = localDistances[local] + 1;
+            if(y > 0 && !grid.hasBottomWall(cell - cols)) tail = visit(local - width, position - (1 << 16), next, tail);
+            if(x < width - 1 && !grid.hasRightWall(cell)) tail = visit(local + 1, position + 1, next, tail);
+            if(y < height - 1 && !grid.hasBottomWall(cell)) tail = visit(local + width, position + (1 << 16), next, tail);
+            if(x > 0 && !grid.hasRightWall(cell - 1)) tail = visit(local - 1, position - 1, next, tail);
+        }
+    }
+
+    private int visit(int local, int position, int distance, int tail) {
+        if(localStamps[local] == localStamp) return tail;
+        localStamps[local] = localStamp;
+        localDistances[local] = distance;
+        if(localWanted[local] == wantedStamp) wanted--;
+        localQueue[tail] = position;
+        return tail + 1;
+    }
+
+    /* Distance found by the last search(), UNREACHABLE if it didn't get to the cell (which has to
+       be in the cluster searched) */
+    private int localDistance(int cell) {
+        int local = localIndex(cell);
+        return localStamps[local] == localStamp ? localDistances[local] : UNREACHABLE;
+    }
+
+    /* Position of the cell in the cluster searched last */
+    private int localIndex(int cell) {
+        return (cell / cols - top) * width + cell % cols - left;
+    }
+
+    private void setBounds(int cluster) {
+        left = cluster % clusterCols * clusterSize;
+        top = cluster / clusterCols * clusterSize;
+        width = Math.min(clusterSize, cols - left);
+        height = Math.min(clusterSize, rows - top);
+    }
+
+    private int clusterOf(int cell) {
+        return cell / cols / clusterSize * clusterCols + cell % cols / clusterSize;
+    }
+
+    /* Direction from a cell to an adjacent one, null if they aren't adjacent */
+    private Direction directionTo(int from, int to) {
+        /* vertical neighbours first, so a single-column grid isn't mistaken for a row */
+        if(to == from - cols) return Direction.UP;
+        if(to == from + cols) return Direction.DOWN;
+        if(to == from + 1 && to % cols != 0) return Direction.RIGHT;
+        if(to == from - 1 && from % cols != 0) return Direction.LEFT;
+        return null;
+    }
+
+    private void addNode(int cell) {
+        nodeCells = ensure(nodeCells, nodeCount + 1);
+        nodeCells[nodeCount++] = cell;
+    }
+
+    private void link(int node, int other) {
+        partners[node] = other;
+        partners[other] = node;
+    }
+
+    private void addEdge(int node, int cost) {
+        if(edgeCount == edgeTargets.length) {
+            edgeTargets = ensure(edgeTargets, edgeCount + 1);
+            edgeCosts = Arrays.copyOf(edgeCosts, edgeTargets.length);
+        }
+        edgeTargets[edgeCount] = node;
+        edgeCosts[edgeCount++] = cost;
+    }
+
+    private void push(int node, int key) {
+        if(heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while(i > 0) {
+            int parent = (i - 1) / 2;
+            if(heapKeys[parent] <= key) break;
+            heapNodes[i] = heapNodes[parent];
+            heapKeys[i] = heapKeys[parent];
+            i = parent;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    /* Remove the first entry of the heap */
+    private void pop() {
+        int node = heapNodes[--heapSize], key = heapKeys[heapSize];
+        int i = 0;
+        while(true) {
+            int child = 2 * i + 1;
+            if(child >= heapSize) break;
+            if(child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if(heapKeys[child] >= key) break;
+            heapNodes[i] = heapNodes[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    private static int[] ensure(int[] array, int length) {
+        return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+}
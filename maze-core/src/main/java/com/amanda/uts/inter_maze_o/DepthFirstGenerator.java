@@ -0,0 +1,130 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Depth-first search maze generator, implemented using backtracking (see MainActivity, step 5).
+
+    Instead of java.util.Stack<Cell> (synchronized, one object per entry) and a new ArrayList for
+    every neighbour lookup, the stack is a plain int[] of cell indices and the unvisited neighbours
+    are collected into a fixed 4-slot buffer. Both arrays are kept between calls, so carving a
+    maze of the same size (or smaller) again doesn't allocate anything.
+
+    Walks produce long, winding corridors with few dead ends and a stack as deep as the longest
+    path.
+
+    begin() and step() carve a maze a slice at a time (IncrementalGenerator): the walk stops after
+    a number of cells and picks up from the same cell and stack on the next call.
+*/
+public class DepthFirstGenerator implements IncrementalGenerator {
+
+    private int[] stack = new int[0];
+    private final int[] neighbours = new int[4];
+
+    /* The maze being carved, between begin() and the last step() */
+    private MazeGrid grid;
+    private Random random;
+    private int left, top, right, bottom;
+    private int current, stackTop;
+    private boolean done = true;
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        begin(grid, random);
+        step(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void begin(MazeGrid grid, Random random) {
+        grid.reset();
+        beginRegion(grid, random, 0, 0, grid.getCols(), grid.getRows());
+    }
+
+    /*
+        Carve a perfect maze into a rectangular part of the grid only, without ever crossing its
+        edges. The walls in the region must be up and none of its cells visited. Only the cells of
+        the region are written, so several regions of one grid can be carved at the same time by
+        different generator instances (see ParallelTiledGenerator).
+    */
+    public void generateRegion(MazeGrid grid, Random random, int left, int top, int width, int height) {
+        beginRegion(grid, random, left, top, width, height);
+        step(Integer.MAX_VALUE);
+    }
+
+    private void beginRegion(MazeGrid grid, Random random, int left, int top, int width, int height) {
+        int size = width * height;
+        /* The stack never holds more than every cell once */
+        if(stack.length < size) stack = new int[size];
+
+        this.grid = grid;
+        this.random = random;
+        this.left = left;
+        this.top = top;
+        right = left + width - 1;
+        bottom = top + height - 1;
+        stackTop = 0;
+        done = false;
+
+        /* Start in the upper left corner and mark it as visited */
+        current = grid.index(left, top);
+        grid.setVisited(current);
+    }
+
+    @Override
+    public int step(int maxCells) {
+        if(done) return 0;
+        /* Locals for the loop, written back when the slice is over */
+        MazeGrid grid = this.grid;
+        Random random = this.random;
+        int[] stack = this.stack;
+        int[] neighbours = this.neighbours;
+        int cols = grid.getCols();
+        int left = this.left, top = this.top, right = this.right, bottom = this.bottom;
+        int current = this.current;
+        int stackTop = this.stackTop;
+        int carved = 0;
+
+        while(carved < maxCells) {
+            /* Collect unvisited neighbours: left, top, right and bottom */
+            int count = 0;
+            int col = current % cols;
+            int row = current / cols;
+            if(col > left && !grid.isVisited(current - 1)) neighbours[count++] = current - 1;
+            if(row > top && !grid.isVisited(current - cols)) neighbours[count++] = current - cols;
+            if(col < right && !grid.isVisited(current + 1)) neighbours[count++] = current + 1;
+            if(row < bottom && !grid.isVisited(current + cols)) neighbours[count++] = current + cols;
+
+            if(count > 0) {
+                int next = neighbours[count == 1 ? 0 : random.nextInt(count)];
+                /* remove the wall between the current cell and the chosen neighbour */
+                grid.removeWall(current, next);
+                /* push the current cell to the stack */
+                stack[stackTop++] = current;
+                /* Make the neighbour cell the current cell and mark it as visited */
+                current = next;
+                grid.setVisited(current);
+                carved++;
+            }
+            /* If the stack is empty, we're done */
+            else if(stackTop == 0) {
+                done = true;
+                /* don't hold on to a grid which may be big */
+                this.grid = null;
+                this.random = null;
+                break;
+            }
+            else {
+                /* Pop a cell from the stack */
+                current = stack[--stackTop];
+            }
+        }
+        this.current = current;
+        this.stackTop = stackTop;
+        return carved;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+}
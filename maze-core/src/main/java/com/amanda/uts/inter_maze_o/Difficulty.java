@@ -0,0 +1,22 @@
+package com.amanda.uts.inter_maze_o;
+
+/* The difficulty levels offered to the player. The order must match the 'difficulties'
+   string-array of the app. */
+public enum Difficulty {
+    /* start in the upper left corner, exit in the lower right one */
+    CLASSIC(null),
+    EASY(DifficultyTarget.EASY),
+    MEDIUM(DifficultyTarget.MEDIUM),
+    HARD(DifficultyTarget.HARD);
+
+    private final DifficultyTarget target;
+
+    Difficulty(DifficultyTarget target) {
+        this.target = target;
+    }
+
+    /* null for CLASSIC */
+    public DifficultyTarget getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,45 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    What a maze should look like, as ranges LevelGenerator tries to hit:
+        - path ratio: steps from the start to the exit, relative to the shortest possible way
+          between two opposite corners (cols + rows - 2). Below 1 the start is closer to the exit
+          than that, the hardest mazes go far above it.
+        - dead end ratio: dead ends per cell (see MazeStats). Mostly a property of the algorithm,
+          so the presets leave it open.
+*/
+public class DifficultyTarget {
+
+    public static final DifficultyTarget EASY = new DifficultyTarget(0.5f, 1f, 0, 1);
+    public static final DifficultyTarget MEDIUM = new DifficultyTarget(1.5f, 2.5f, 0, 1);
+    /* As far apart as the maze allows */
+    public static final DifficultyTarget HARD = new DifficultyTarget(3f, Float.POSITIVE_INFINITY, 0, 1);
+
+    private final float minPathRatio, maxPathRatio;
+    private final float minDeadEndRatio, maxDeadEndRatio;
+
+    public DifficultyTarget(float minPathRatio, float maxPathRatio, float minDeadEndRatio, float maxDeadEndRatio) {
+        if(minPathRatio > maxPathRatio || minDeadEndRatio > maxDeadEndRatio) {
+            throw new IllegalArgumentException("Empty difficulty range");
+        }
+        this.minPathRatio = minPathRatio;
+        this.maxPathRatio = maxPathRatio;
+        this.minDeadEndRatio = minDeadEndRatio;
+        this.maxDeadEndRatio = maxDeadEndRatio;
+    }
+
+    /* Solution length to aim for in a maze where the corners are 'cornerDistance' apart and the
+       two cells farthest apart are 'diameter' apart */
+    int wantedLength(int cornerDistance, int diameter) {
+        if(Float.isInfinite(maxPathRatio)) return diameter;
+        int wanted = Math.round((minPathRatio + maxPathRatio) / 2 * cornerDistance);
+        return Math.min(wanted, diameter);
+    }
+
+    boolean accepts(int cornerDistance, MazeStats stats) {
+        float pathRatio = stats.getSolutionLength() / (float) Math.max(1, cornerDistance);
+        float deadEndRatio = stats.getDeadEndRatio();
+        return pathRatio >= minPathRatio && pathRatio <= maxPathRatio
+                && deadEndRatio >= minDeadEndRatio && deadEndRatio <= maxDeadEndRatio;
+    }
+}
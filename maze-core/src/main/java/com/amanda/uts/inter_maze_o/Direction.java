@@ -0,0 +1,14 @@
+package com.amanda.uts.inter_maze_o;
+
+/* Directions in which the player can move and in which a maze generator can carve a passage.
+   The order matters: opposite directions are always two steps apart (see opposite()). */
+public enum Direction {
+    UP, RIGHT, DOWN, LEFT;
+
+    /* values() clones the backing array on every call, so keep our own copy for hot loops */
+    static final Direction[] ALL = values();
+
+    public Direction opposite() {
+        return ALL[(ordinal() + 2) & 3];
+    }
+}
@@ -0,0 +1,147 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Arrays;
+
+/*
+    Distance of every cell to one target cell (the exit), following the passages of a maze.
+
+    compute() runs a breadth-first search from the target over the wall bits of the grid, with a
+    plain int[] as the queue - every cell is queued exactly once, so the queue never needs more
+    than one slot per cell. Along the way it remembers for every cell the direction of the first
+    step towards the target. Which way to go is then a single array lookup from any cell, and the
+    whole path is a walk along those steps.
+
+    The same pass can fill in MazeStats, since it looks at every open side of every cell anyway.
+
+    The buffers are kept between calls, like the generators do, so solving mazes of the same size
+    again doesn't allocate. Not thread-safe while compute() runs - MazeLevel only hands the field
+    out once it's done.
+*/
+public class DistanceField {
+
+    /* Distance of cells which can't reach the target - none in a perfect maze */
+    public static final int UNREACHABLE = -1;
+    /* Heap taken per cell once the field is computed: distances, queue, steps and corridors */
+    public static final int BYTES_PER_CELL = 4 + 4 + 1 + 4;
+    private static final byte NO_STEP = -1;
+
+    private int[] distances = new int[0];
+    private int[] queue = new int[0];
+    /* Direction.ordinal() of the first step towards the target, NO_STEP for the target itself */
+    private byte[] steps = new byte[0];
+    /* Length of the corridor ending in each cell, only used while collecting MazeStats */
+    private int[] corridors = new int[0];
+    private int size;
+    private int target = -1;
+
+    public void compute(MazeGrid grid, int target) {
+        compute(grid, target, null);
+    }
+
+    /* Also collect the shape of the maze into 'stats', unless it's null. The solution length is
+       left to the caller, who knows where the start is. */
+    public void compute(MazeGrid grid, int target, MazeStats stats) {
+        size = grid.size();
+        if(stats != null) {
+            stats.reset(size);
+            if(corridors.length < size) corridors = new int[size];
+            corridors[target] = 0;
+        }
+        if(distances.length < size) {
+            distances = new int[size];
+            queue = new int[size];
+            steps = new byte[size];
+        }
+        Arrays.fill(distances, 0, size, UNREACHABLE);
+        Arrays.fill(steps, 0, size, NO_STEP);
+        this.target = target;
+
+        Direction[] directions = Direction.ALL;
+        int head = 0, tail = 0;
+        distances[target] = 0;
+        queue[tail++] = target;
+        while(head < tail) {
+            int cell = queue[head++];
+            int distance = distances[cell] + 1;
+            int openSides = 0;
+            for (Direction direction : directions) {
+                if(grid.hasWall(cell, direction)) continue;
+                openSides++;
+                int next = grid.neighbour(cell, direction);
+                if(distances[next] != UNREACHABLE) continue;
+                distances[next] = distance;
+                /* from 'next' the way to the target leads back to 'cell' */
+                steps[next] = (byte) direction.opposite().ordinal();
+                queue[tail++] = next;
+            }
+
+            if(stats != null) {
+                stats.countCell(openSides);
+                /* In a perfect maze the search follows each corridor from one end to the other,
+                   so its length grows by one with every cell of it */
+                if(openSides == 2) {
+                    int length = cell == target ? 1 : corridors[grid.neighbour(cell, nextStep(cell))] + 1;
+                    corridors[cell] = length;
+                    stats.countCorridor(length);
+                } else {
+                    corridors[cell] = 0;
+                }
+            }
+        }
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /* Number of steps from the cell to the target, or UNREACHABLE */
+    public int distance(int index) {
+        return distances[index];
+    }
+
+    /* Which way to go from the cell to get closer to the target, null on the target itself */
+    public Direction nextStep(int index) {
+        byte step = steps[index];
+        return step == NO_STEP ? null : Direction.ALL[step];
+    }
+
+    /*
+        Write the cells of the way from 'from' to the target into 'path', starting with the cell
+        after 'from', and return how many there are: at most 'maxSteps' and at most path.length.
+    */
+    public int path(MazeGrid grid, int from, int maxSteps, int[] path) {
+        int limit = Math.min(maxSteps, path.length);
+        int count = 0;
+        int cell = from;
+        while(count < limit) {
+            byte step = steps[cell];
+            if(step == NO_STEP) break;
+            cell = grid.neighbour(cell, Direction.ALL[step]);
+            path[count++] = cell;
+        }
+        return count;
+    }
+
+    /* Cell farthest away from the target (the first one found, if there are several) */
+    public int farthest() {
+        int best = target;
+        for (int i = 0; i < size; i++) {
+            if(distances[i] > distances[best]) best = i;
+        }
+        return best;
+    }
+
+    /* Cell whose distance to the target is closest to 'distance' */
+    public int closestTo(int distance) {
+        int best = target;
+        int bestError = distance;
+        for (int i = 0; i < size; i++) {
+            int error = Math.abs(distances[i] - distance);
+            if(error < bestError) {
+                best = i;
+                bestError = error;
+            }
+        }
+        return best;
+    }
+}
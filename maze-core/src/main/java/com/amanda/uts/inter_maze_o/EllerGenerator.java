@@ -0,0 +1,109 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Eller's algorithm, one row at a time:
+        1) Every cell of the row that isn't connected to the row above gets a set of its own
+        2) Randomly join adjacent cells of the row which are in different sets
+        3) Randomly carve down from the row, at least once from every set, and carry the sets
+           of those cells over to the next row
+        4) In the last row join all adjacent cells which are still in different sets
+
+    Only the sets of the current row are ever kept, so the working memory is a handful of int[]
+    of the row's length, independent of the number of rows. Set labels always stay below
+    'cols', and they are joined with a small union-find which is rebuilt for every row.
+*/
+public class EllerGenerator implements MazeGenerator {
+
+    /* set label of every cell in the current row */
+    private int[] sets = new int[0];
+    /* union-find over the labels of the current row */
+    private int[] parent = new int[0];
+    /* per set: number of cells seen so far and the cell picked to carve down if no other did */
+    private int[] seen = new int[0];
+    private int[] candidate = new int[0];
+    private boolean[] setCarvedDown = new boolean[0];
+    /* per column: does this cell carve down into the next row */
+    private boolean[] down = new boolean[0];
+    private int[] relabel = new int[0];
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        grid.reset();
+
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+        if(sets.length < cols) {
+            sets = new int[cols];
+            parent = new int[cols];
+            seen = new int[cols];
+            candidate = new int[cols];
+            setCarvedDown = new boolean[cols];
+            down = new boolean[cols];
+            relabel = new int[cols];
+        }
+
+        /* The first row - every cell is in its own set */
+        for (int col = 0; col < cols; col++) sets[col] = col;
+
+        for (int row = 0; row < rows; row++) {
+            int rowStart = row * cols;
+            boolean lastRow = row == rows - 1;
+
+            for (int label = 0; label < cols; label++) parent[label] = label;
+
+            /* Join adjacent cells - always in the last row, so everything ends up connected */
+            for (int col = 0; col < cols - 1; col++) {
+                int left = find(sets[col]);
+                int right = find(sets[col + 1]);
+                if(left != right && (lastRow || random.nextBoolean())) {
+                    parent[right] = left;
+                    grid.removeWall(rowStart + col, rowStart + col + 1);
+                }
+            }
+
+            if(lastRow) break;
+
+            /* Carve down randomly, remembering one random cell of every set (reservoir sampling)
+               in case the set doesn't carve down at all */
+            for (int label = 0; label < cols; label++) {
+                seen[label] = 0;
+                setCarvedDown[label] = false;
+                relabel[label] = -1;
+            }
+            for (int col = 0; col < cols; col++) {
+                int set = find(sets[col]);
+                seen[set]++;
+                if(seen[set] == 1 || random.nextInt(seen[set]) == 0) candidate[set] = col;
+                down[col] = random.nextBoolean();
+                if(down[col]) setCarvedDown[set] = true;
+            }
+
+            /* Carve and label the next row: cells below a passage inherit the set, the rest get
+               new ones. There are never more labels than cells in a row. */
+            int nextLabel = 0;
+            for (int col = 0; col < cols; col++) {
+                int set = find(sets[col]);
+                if(down[col] || (!setCarvedDown[set] && candidate[set] == col)) {
+                    grid.removeWall(rowStart + col, rowStart + col + cols);
+                    if(relabel[set] < 0) relabel[set] = nextLabel++;
+                    sets[col] = relabel[set];
+                } else {
+                    sets[col] = -1;
+                }
+            }
+            for (int col = 0; col < cols; col++) {
+                if(sets[col] < 0) sets[col] = nextLabel++;
+            }
+        }
+    }
+
+    private int find(int label) {
+        while(parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+}
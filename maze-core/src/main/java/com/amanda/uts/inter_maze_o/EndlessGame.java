@@ -0,0 +1,77 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    The endless mode: a player wandering through a ChunkedMaze. There is no exit - the game just
+    keeps track of how far the player has got.
+
+    Whenever the player enters another chunk, the chunks around it are generated right away, so
+    walking on never waits for a chunk to be carved in the middle of a frame.
+
+    Only used by the thread which handles input and drawing, like MazeGame.
+*/
+public class EndlessGame {
+
+    private final ChunkedMaze maze;
+    private int playerX, playerY;
+    private int playerChunkX, playerChunkY;
+    private long steps;
+    /* Largest number of cells the player has been away from the start, left/right plus up/down */
+    private int farthest;
+
+    public EndlessGame(long seed) {
+        this(new ChunkedMaze(seed));
+    }
+
+    public EndlessGame(ChunkedMaze maze) {
+        this.maze = maze;
+        prepareChunks();
+    }
+
+    /* Move the player by one cell unless there's a wall in the way. Returns true if the player
+       has moved. */
+    public boolean movePlayer(Direction direction) {
+        if(maze.hasWall(playerX, playerY, direction)) return false;
+
+        switch(direction) {
+            case UP: playerY--; break;
+            case RIGHT: playerX++; break;
+            case DOWN: playerY++; break;
+            default: playerX--; break;
+        }
+        steps++;
+        farthest = Math.max(farthest, Math.abs(playerX) + Math.abs(playerY));
+        if(maze.chunkOf(playerX) != playerChunkX || maze.chunkOf(playerY) != playerChunkY) prepareChunks();
+        return true;
+    }
+
+    /* Generate the player's chunk and the eight around it */
+    private void prepareChunks() {
+        playerChunkX = maze.chunkOf(playerX);
+        playerChunkY = maze.chunkOf(playerY);
+        for (int y = playerChunkY - 1; y <= playerChunkY + 1; y++) {
+            for (int x = playerChunkX - 1; x <= playerChunkX + 1; x++) {
+                maze.chunk(x, y);
+            }
+        }
+    }
+
+    public ChunkedMaze getMaze() {
+        return maze;
+    }
+
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public int getFarthest() {
+        return farthest;
+    }
+}
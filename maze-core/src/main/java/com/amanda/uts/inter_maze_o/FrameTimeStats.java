@@ -0,0 +1,98 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+    Keeps the durations of the most recent frames in a preallocated ring buffer and summarizes
+    them: average, maximum, percentiles and the share of frames which missed a deadline (e.g.
+    16.7 ms for 60 fps).
+
+    record() is called once per frame and never allocates. The summaries sort a copy of the
+    buffer, so they're meant for occasional reading, not for every frame.
+
+    Nothing here is specific to time - GameMetrics also keeps allocation counts in one.
+*/
+public class FrameTimeStats {
+
+    private final long[] frames;
+    private final long[] sorted;
+    private int count, next;
+
+    public FrameTimeStats(int capacity) {
+        frames = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        frames[next] = nanos;
+        next = (next + 1) % frames.length;
+        if(count < frames.length) count++;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+        next = 0;
+    }
+
+    /* Number of frames in the buffer, at most its capacity */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getAverageNanos() {
+        if(count == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < count; i++) sum += frames[i];
+        return sum / count;
+    }
+
+    public synchronized long getMaxNanos() {
+        long max = 0;
+        for (int i = 0; i < count; i++) max = Math.max(max, frames[i]);
+        return max;
+    }
+
+    /* Frame time which 'percentile' percent of the frames didn't exceed, e.g. 99 */
+    public synchronized long getPercentileNanos(double percentile) {
+        if(count == 0) return 0;
+        System.arraycopy(frames, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))];
+    }
+
+    /* Share of the frames (0..1) which took longer than the deadline */
+    public synchronized float getMissedRatio(long deadlineNanos) {
+        if(count == 0) return 0;
+        int missed = 0;
+        for (int i = 0; i < count; i++) if(frames[i] > deadlineNanos) missed++;
+        return missed / (float) count;
+    }
+
+    public float getAverageFps() {
+        long average = getAverageNanos();
+        return average == 0 ? 0 : 1e9f / average;
+    }
+
+    /* Percentiles written by writePercentiles() */
+    private static final double[] EXPORT_PERCENTILES = { 0, 50, 75, 90, 95, 99, 99.9, 100 };
+
+    /* Append the distribution as "percentile value" lines, values divided by 'scale' (e.g. 1e6
+       for nanoseconds in milliseconds) */
+    public synchronized void writePercentiles(StringBuilder out, String name, double scale) {
+        out.append(name).append(" (").append(count).append(" samples)\n");
+        if(count == 0) return;
+        for (double percentile : EXPORT_PERCENTILES) {
+            out.append(String.format(Locale.US, "  %6.2f%% %12.3f\n", percentile,
+                    getPercentileNanos(percentile) / scale));
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%d frames, avg %.2f ms (%.1f fps), p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                count, getAverageNanos() / 1e6, getAverageFps(), getPercentileNanos(50) / 1e6,
+                getPercentileNanos(99) / 1e6, getMaxNanos() / 1e6);
+    }
+}
@@ -0,0 +1,151 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+    Performance numbers of a game view, each kept in a preallocated FrameTimeStats ring buffer:
+        - frame intervals (views with a render thread only)
+        - how long drawing a frame takes
+        - latency from a sensor event to the end of the frame which shows the move it caused
+        - objects allocated on the drawing thread per frame (only while allocation counting is on)
+        - how long createMaze() takes, separately for every maze size
+
+    The per-frame methods don't allocate, so they can be called on every frame in release builds.
+    Only the createMaze() numbers create a buffer, the first time a size shows up.
+*/
+public class GameMetrics {
+
+    public static final int CAPACITY = 600;
+    private static final int CREATE_CAPACITY = 50;
+    /* Number of lines summarize() writes */
+    public static final int SUMMARY_LINES = 4;
+
+    private final FrameTimeStats frameIntervals = new FrameTimeStats(CAPACITY);
+    private final FrameTimeStats drawTimes = new FrameTimeStats(CAPACITY);
+    private final FrameTimeStats latencies = new FrameTimeStats(CAPACITY);
+    private final FrameTimeStats allocations = new FrameTimeStats(CAPACITY);
+    /* "cols x rows" -> createMaze() durations, in the order the sizes were first seen */
+    private final Map<String, FrameTimeStats> createTimes = new LinkedHashMap<>();
+
+    /* Sensor timestamp of the oldest move which isn't on screen yet, 0 if there is none */
+    private volatile long pendingMoveTimestamp;
+
+    public FrameTimeStats getFrameIntervals() {
+        return frameIntervals;
+    }
+
+    public FrameTimeStats getDrawTimes() {
+        return drawTimes;
+    }
+
+    public FrameTimeStats getLatencies() {
+        return latencies;
+    }
+
+    public FrameTimeStats getAllocations() {
+        return allocations;
+    }
+
+    public void recordFrameInterval(long nanos) {
+        frameIntervals.record(nanos);
+    }
+
+    public void recordDraw(long nanos) {
+        drawTimes.record(nanos);
+    }
+
+    public void recordAllocations(long count) {
+        allocations.record(count);
+    }
+
+    public void recordCreateMaze(int cols, int rows, long nanos) {
+        String size = cols + " x " + rows;
+        FrameTimeStats stats;
+        synchronized(createTimes) {
+            stats = createTimes.get(size);
+            if(stats == null) {
+                stats = new FrameTimeStats(CREATE_CAPACITY);
+                createTimes.put(size, stats);
+            }
+        }
+        stats.record(nanos);
+    }
+
+    /* The player moved because of a sensor event with this timestamp. If several moves happen
+       before the next frame, the latency is measured from the first one. */
+    public void onMove(long sensorTimestamp) {
+        if(pendingMoveTimestamp == 0) pendingMoveTimestamp = sensorTimestamp;
+    }
+
+    /* A frame has been drawn at time 'now' (same clock as the sensor timestamps,
+       SystemClock.elapsedRealtimeNanos()) */
+    public void onFrameDrawn(long now) {
+        long timestamp = pendingMoveTimestamp;
+        if(timestamp == 0) return;
+        pendingMoveTimestamp = 0;
+        latencies.record(now - timestamp);
+    }
+
+    public void reset() {
+        frameIntervals.reset();
+        drawTimes.reset();
+        latencies.reset();
+        allocations.reset();
+        synchronized(createTimes) {
+            createTimes.clear();
+        }
+        pendingMoveTimestamp = 0;
+    }
+
+    /* Percentile histograms of everything, as plain text */
+    public String export() {
+        StringBuilder out = new StringBuilder();
+        frameIntervals.writePercentiles(out, "frame interval [ms]", 1e6);
+        drawTimes.writePercentiles(out, "draw [ms]", 1e6);
+        latencies.writePercentiles(out, "sensor to frame latency [ms]", 1e6);
+        allocations.writePercentiles(out, "allocations per frame", 1);
+        synchronized(createTimes) {
+            for (Map.Entry<String, FrameTimeStats> entry : createTimes.entrySet()) {
+                entry.getValue().writePercentiles(out, "createMaze " + entry.getKey() + " [ms]", 1e6);
+            }
+        }
+        return out.toString();
+    }
+
+    public void exportTo(File file) throws IOException {
+        exportTo(file, "");
+    }
+
+    /* Write export() and then 'more', e.g. numbers which don't belong to one view */
+    public void exportTo(File file, String more) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(export());
+            writer.write(more);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /* Short summary for the in-game overlay, one line per entry */
+    public void summarize(String[] lines) {
+        lines[0] = line("frame", frameIntervals);
+        lines[1] = line("draw", drawTimes);
+        lines[2] = line("latency", latencies);
+        lines[3] = String.format(Locale.US, "alloc/frame p50 %d  max %d",
+                allocations.getPercentileNanos(50), allocations.getMaxNanos());
+    }
+
+    private static String line(String name, FrameTimeStats stats) {
+        return String.format(Locale.US, "%-8s p50 %.2f  p99 %.2f  max %.2f ms", name,
+                stats.getPercentileNanos(50) / 1e6, stats.getPercentileNanos(99) / 1e6,
+                stats.getMaxNanos() / 1e6);
+    }
+}
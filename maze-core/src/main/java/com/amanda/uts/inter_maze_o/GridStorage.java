@@ -0,0 +1,16 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Where a MazeGrid keeps its cells, one byte each (see MazeGrid.allocate()). SizePlanner picks
+    the first one a maze fits into.
+*/
+public enum GridStorage {
+    /* A byte array on the Java heap - the fastest */
+    HEAP,
+    /* A direct ByteBuffer, outside of the Java heap on a desktop JVM. Android allocates direct
+       buffers on its heap, so there it only helps against fragmentation. */
+    DIRECT,
+    /* A ByteBuffer mapped from a scratch file - the system pages the cells in and out, so the
+       maze doesn't have to fit into memory */
+    MAPPED
+}
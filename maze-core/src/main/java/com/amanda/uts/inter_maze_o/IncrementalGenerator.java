@@ -0,0 +1,27 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    A MazeGenerator which can also carve a maze a slice at a time, e.g. a few thousand cells per
+    frame of the game loop, so a huge maze can be played - and watched being carved - long before
+    it is finished (see MazeGame.setCarveBudget()).
+
+    Only for generators which grow a single passage system out of the upper left cell, the start
+    of a level, and never change the walls between two carved cells again. Then the carved part
+    is a finished maze of its own: the player can walk around in it while the rest is carved,
+    and the walls towards the cells still to come keep them out. Carving a maze in slices gives
+    the same maze as generate() with the same Random.
+*/
+public interface IncrementalGenerator extends MazeGenerator {
+
+    /* Put all walls of the grid back up and start a new maze in its upper left cell */
+    void begin(MazeGrid grid, Random random);
+
+    /* Carve at most 'maxCells' more cells of the maze started by begin(). Returns the number of
+       cells carved. */
+    int step(int maxCells);
+
+    /* Whether the maze started by begin() is complete */
+    boolean isDone();
+}
@@ -0,0 +1,91 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Randomized Kruskal's algorithm:
+        1) Make a list of all inner walls and shuffle it
+        2) For every wall in that order: if the cells on both sides belong to different sets,
+           remove the wall and join the two sets
+
+    The sets are kept in an array-based union-find (disjoint-set forest) with path compression
+    and union by size, so every lookup is practically constant time. Walls are identified as
+    'cell * 2' (the cell's right wall) and 'cell * 2 + 1' (its bottom wall).
+
+    Produces many short dead ends and no long corridors.
+*/
+public class KruskalGenerator implements MazeGenerator {
+
+    private int[] walls = new int[0];
+    private int[] parent = new int[0];
+    private int[] setSize = new int[0];
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        grid.reset();
+
+        int size = grid.size();
+        int cols = grid.getCols();
+        if(parent.length < size) {
+            parent = new int[size];
+            setSize = new int[size];
+            walls = new int[size * 2];
+        }
+
+        /* Every cell starts in its own set */
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            setSize[i] = 1;
+        }
+
+        /* Collect the inner walls, the outer border is never removed */
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if(i % cols < cols - 1) walls[count++] = i << 1;
+            if(i < size - cols) walls[count++] = (i << 1) | 1;
+        }
+
+        /* Fisher-Yates shuffle */
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = walls[i];
+            walls[i] = walls[j];
+            walls[j] = tmp;
+        }
+
+        /* A spanning tree of N cells has exactly N-1 passages */
+        int remaining = size - 1;
+        for (int i = 0; i < count && remaining > 0; i++) {
+            int cell = walls[i] >>> 1;
+            int next = (walls[i] & 1) == 0 ? cell + 1 : cell + cols;
+            if(union(cell, next)) {
+                grid.removeWall(cell, next);
+                remaining--;
+            }
+        }
+    }
+
+    private int find(int cell) {
+        /* Path halving - every visited node is pointed to its grandparent */
+        while(parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    /* Join the sets of both cells, returns false if they were already in the same set */
+    private boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if(rootA == rootB) return false;
+        if(setSize[rootA] < setSize[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        setSize[rootA] += setSize[rootB];
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Carves a maze into a MazeLevel and decides where the player starts and where the exit is.
+
+    Without a DifficultyTarget the start is the upper left and the exit the lower right corner,
+    as always; the distances are left to the caller (MazeLevel.solve(), usually on a background
+    thread).
+
+    With a target the start and the exit are chosen from the distances, which takes two
+    breadth-first searches over the maze:
+        1. from a corner to the cell farthest away from it - in a perfect maze (a tree) that's
+           one end of the longest path in the whole maze
+        2. from that cell, which becomes the exit, to every other cell. The start is the cell
+           whose distance to the exit comes closest to what the target asks for, up to the other
+           end of the longest path.
+    The second search also collects MazeStats and is kept as the level's distance field, so the
+    level comes back solved. If the maze can't meet the target (the longest path is too short, or
+    the dead ends are off) another one is carved, up to 'maxAttempts' times - the last one is
+    taken whatever it looks like. Each attempt is a carve plus both searches over every cell, so
+    a level costs up to 'maxAttempts' times that.
+
+    Keeps its buffers between calls; not thread-safe.
+*/
+public class LevelGenerator {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 8;
+
+    private MazeAlgorithm algorithm;
+    private MazeGenerator generator;
+    private DifficultyTarget target;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    /* Distances of the attempt in progress, swapped with the level's once it is accepted */
+    private DistanceField distances = new DistanceField();
+    private final MazeStats stats = new MazeStats();
+    private int lastAttempts;
+    private final Random seededRandom = new Random();
+
+    public LevelGenerator(MazeAlgorithm algorithm) {
+        setAlgorithm(algorithm);
+    }
+
+    public void setAlgorithm(MazeAlgorithm algorithm) {
+        if(algorithm == this.algorithm) return;
+        this.algorithm = algorithm;
+        generator = algorithm.newGenerator();
+    }
+
+    public MazeAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /* null for the classic corner to corner maze */
+    public void setTarget(DifficultyTarget target) {
+        this.target = target;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /* Number of mazes carved by the last generate() call */
+    public int getLastAttempts() {
+        return lastAttempts;
+    }
+
+    /* Carve the level from 'seed' - the same seed, algorithm, target and size always give the
+       same level, which remembers its seed */
+    public void generate(MazeLevel level, long seed) {
+        seededRandom.setSeed(seed);
+        generate(level, seededRandom);
+        level.setOrigin(seed, algorithm);
+    }
+
+    /* Start carving the level from 'seed' a slice at a time with step() - the same level
+       generate() would carve. Only without a target and with an IncrementalGenerator, otherwise
+       the whole level is carved right away. Returns true if step() has to finish it. */
+    public boolean begin(MazeLevel level, long seed) {
+        if(target != null || !(generator instanceof IncrementalGenerator)) {
+            generate(level, seed);
+            return false;
+        }
+        seededRandom.setSeed(seed);
+        level.reset();
+        level.setOrigin(seed, algorithm);
+        ((IncrementalGenerator) generator).begin(level.getGrid(), seededRandom);
+        lastAttempts = 1;
+        return true;
+    }
+
+    /* Carve up to 'maxCells' more cells of the level passed to begin(). Returns true once the
+       level is complete. */
+    public boolean step(int maxCells) {
+        IncrementalGenerator incremental = (IncrementalGenerator) generator;
+        incremental.step(maxCells);
+        return incremental.isDone();
+    }
+
+    public void generate(MazeLevel level, Random random) {
+        level.reset();
+        level.setOrigin(0, algorithm);
+        MazeGrid grid = level.getGrid();
+        if(target == null) {
+            generator.generate(grid, random);
+            lastAttempts = 1;
+            return;
+        }
+
+        int cornerDistance = grid.getCols() + grid.getRows() - 2;
+        for (int attempt = 1; ; attempt++) {
+            generator.generate(grid, random);
+
+            distances.compute(grid, 0);
+            int exit = distances.farthest();
+            distances.compute(grid, exit, stats);
+            int diameter = distances.distance(distances.farthest());
+            int start = distances.closestTo(target.wantedLength(cornerDistance, diameter));
+            stats.setSolutionLength(distances.distance(start));
+
+            if(attempt >= maxAttempts || target.accepts(cornerDistance, stats)) {
+                distances = level.setSolved(start, exit, distances, stats);
+                lastAttempts = attempt;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.nio.MappedByteBuffer;
+
+/*
+    The walls of a maze file, read straight from a memory map (see MazeFile.map()). Only the pages
+    which are actually looked at are loaded, and they belong to the page cache rather than the
+    Java heap - a saved maze can be much larger than the heap would allow as a MazeGrid.
+
+    Read-only, with the same way of asking for walls and neighbours as MazeGrid. Safe to use from
+    several threads, since nothing is ever written.
+*/
+public class MappedMaze {
+
+    private final MazeFile.Header header;
+    private final MappedByteBuffer walls;
+    private final int cols, size;
+
+    MappedMaze(MazeFile.Header header, MappedByteBuffer walls) {
+        this.header = header;
+        this.walls = walls;
+        cols = header.cols;
+        size = header.size();
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return header.rows;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int index(int col, int row) {
+        return row * cols + col;
+    }
+
+    public int getStart() {
+        return header.start;
+    }
+
+    public int getExit() {
+        return header.exit;
+    }
+
+    public long getSeed() {
+        return header.seed;
+    }
+
+    /* null if unknown */
+    public MazeAlgorithm getAlgorithm() {
+        return header.algorithm;
+    }
+
+    /* Right and bottom wall bits of a cell, like in MazeGrid. Absolute get(), so the buffer's
+       position is never touched. */
+    private int walls(int index) {
+        return walls.get(index >> 2) >> ((index & 3) << 1) & 3;
+    }
+
+    public boolean hasWall(int index, Direction direction) {
+        switch(direction) {
+            case UP:
+                return index < cols || (walls(index - cols) & MazeGrid.BOTTOM_WALL) != 0;
+            /* the last column and row are covered by the border, whatever the file says */
+            case RIGHT:
+                return index % cols == cols - 1 || (walls(index) & MazeGrid.RIGHT_WALL) != 0;
+            case DOWN:
+                return index >= size - cols || (walls(index) & MazeGrid.BOTTOM_WALL) != 0;
+            default:
+                return index % cols == 0 || (walls(index - 1) & MazeGrid.RIGHT_WALL) != 0;
+        }
+    }
+
+    /* Index of the neighbouring cell in the given direction, or -1 if that would leave the maze */
+    public int neighbour(int index, Direction direction) {
+        switch(direction) {
+            case UP:
+                return index >= cols ? index - cols : -1;
+            case RIGHT:
+                return index % cols < cols - 1 ? index + 1 : -1;
+            case DOWN:
+                return index < size - cols ? index + cols : -1;
+            default:
+                return index % cols > 0 ? index - 1 : -1;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    The maze generation algorithms the player can choose from. The order must match the
+    'algorithms' string array used by the spinner in CustomSizeActivity, and new algorithms go
+    at the end - maze files store the ordinal (see MazeFile).
+*/
+public enum MazeAlgorithm {
+    DEPTH_FIRST, KRUSKAL, WILSON, PRIM, ELLER, PARALLEL_TILED, BINARY_TREE, SIDEWINDER;
+
+    public MazeGenerator newGenerator() {
+        switch(this) {
+            case KRUSKAL:
+                return new KruskalGenerator();
+            case WILSON:
+                return new WilsonGenerator();
+            case PRIM:
+                return new PrimGenerator();
+            case ELLER:
+                return new EllerGenerator();
+            case PARALLEL_TILED:
+                return new ParallelTiledGenerator();
+            case BINARY_TREE:
+                return new BinaryTreeGenerator();
+            case SIDEWINDER:
+                return new SidewinderGenerator();
+            default:
+                return new DepthFirstGenerator();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Viewport over a maze which is larger than the screen. The camera keeps the player in the
+    middle of the view, but never scrolls past the edges of the maze; a maze narrower (or lower)
+    than the view is centred instead.
+
+    All positions are in pixels, 'origin' is where the maze's upper left corner ends up on the
+    screen. The visible range of cells is what onDraw() has to cover - its size depends on the
+    view and the cell size only, not on the size of the maze.
+*/
+public class MazeCamera {
+
+    private int viewWidth, viewHeight;
+    private float cellSize;
+    private float originX, originY;
+    private int firstCol, firstRow, lastCol, lastRow;
+
+    public void setViewport(int width, int height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    public void setCellSize(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /* Centre the view on the given cell and work out which cells are visible */
+    public void follow(int cols, int rows, int col, int row) {
+        originX = axisOrigin(viewWidth, cols * cellSize, (col + 0.5f) * cellSize);
+        originY = axisOrigin(viewHeight, rows * cellSize, (row + 0.5f) * cellSize);
+
+        firstCol = Math.max(0, (int) Math.floor(-originX / cellSize));
+        firstRow = Math.max(0, (int) Math.floor(-originY / cellSize));
+        lastCol = Math.min(cols, (int) Math.ceil((viewWidth - originX) / cellSize));
+        lastRow = Math.min(rows, (int) Math.ceil((viewHeight - originY) / cellSize));
+    }
+
+    private static float axisOrigin(int view, float maze, float target) {
+        if(maze <= view) return (view - maze) / 2;
+        float origin = view / 2f - target;
+        /* don't scroll past the maze's edges */
+        return Math.max(view - maze, Math.min(0, origin));
+    }
+
+    public float getOriginX() {
+        return originX;
+    }
+
+    public float getOriginY() {
+        return originY;
+    }
+
+    /* The visible cells, first inclusive and last exclusive */
+    public int getFirstCol() {
+        return firstCol;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getLastCol() {
+        return lastCol;
+    }
+
+    public int getLastRow() {
+        return lastRow;
+    }
+
+    /* Most cells the view can show at once, wherever the camera is */
+    public int getVisibleCells() {
+        int cols = (int) Math.ceil(viewWidth / cellSize) + 1;
+        int rows = (int) Math.ceil(viewHeight / cellSize) + 1;
+        return cols * rows;
+    }
+
+    public boolean isVisible(int col, int row) {
+        return col >= firstCol && col < lastCol && row >= firstRow && row < lastRow;
+    }
+}
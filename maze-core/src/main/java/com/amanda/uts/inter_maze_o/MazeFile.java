@@ -0,0 +1,286 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+    Saves mazes to files and reads them back.
+
+    A file starts with a header of HEADER_SIZE bytes (big endian):
+        int    magic "MAZE"
+        short  version
+        short  flags - FLAG_DEFLATE if the walls are compressed
+        int    columns, rows
+        long   seed the maze was carved from (see LevelGenerator)
+        int    MazeAlgorithm ordinal, -1 if unknown
+        int    start cell, exit cell
+    followed by the walls, two bits per cell as packed by MazeGrid.packWalls() - a 5000 x 5000
+    maze takes 6.25 MB. The border is implicit, like in MazeGrid. Deflating the walls only saves
+    about 8%: a perfect maze opens nearly half of its walls, at random, so there is little to
+    squeeze out. It's optional and meant for sending mazes around, not for keeping them.
+
+    All I/O goes through a FileChannel (or any other channel, e.g. for toBytes()), a block of
+    cells at a time, so saving or loading a maze needs one 64 KB buffer on top of the grid
+    itself. Uncompressed files can also be read in
+    place through a memory map (map(), see MappedMaze), without copying the walls onto the heap.
+*/
+public class MazeFile {
+
+    static final int MAGIC = 0x4d415a45;
+    static final short VERSION = 1;
+    static final short FLAG_DEFLATE = 1;
+    static final int HEADER_SIZE = 36;
+    /* Cells packed, written or read at a time */
+    private static final int BLOCK_CELLS = 256 * 1024;
+    private static final int BLOCK_BYTES = BLOCK_CELLS / 4;
+
+    /* Everything the header says about the maze */
+    static class Header {
+        int cols, rows, start, exit;
+        long seed;
+        MazeAlgorithm algorithm;
+        boolean compressed;
+
+        int size() {
+            return cols * rows;
+        }
+    }
+
+    private MazeFile() { }
+
+    /* Bytes needed for the walls of 'cells' cells, uncompressed */
+    public static long packedSize(long cells) {
+        return (cells + 3) / 4;
+    }
+
+    public static void write(MazeLevel level, File file, boolean compress) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = out.getChannel();
+            channel.truncate(0);
+            write(level, channel, compress);
+        } finally {
+            out.close();
+        }
+    }
+
+    /* Write through a temporary file next to 'file', which then replaces it - a process killed
+       while writing leaves the previous file, never half of one */
+    public static void writeReplacing(MazeLevel level, File file, boolean compress) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        write(level, temporary, compress);
+        if(!temporary.renameTo(file)) {
+            temporary.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /* The level as a byte array, uncompressed - e.g. for a Bundle */
+    public static byte[] toBytes(MazeLevel level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) (HEADER_SIZE + packedSize(level.getGrid().size())));
+        write(level, Channels.newChannel(out), false);
+        return out.toByteArray();
+    }
+
+    public static MazeLevel fromBytes(byte[] bytes, MazeLevel recycled) throws IOException {
+        return read(Channels.newChannel(new ByteArrayInputStream(bytes)), recycled);
+    }
+
+    /* Write the level at the channel's current position */
+    public static void write(MazeLevel level, WritableByteChannel channel, boolean compress) throws IOException {
+        MazeGrid grid = level.getGrid();
+        MazeAlgorithm algorithm = level.getAlgorithm();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort(compress ? FLAG_DEFLATE : 0)
+                .putInt(grid.getCols())
+                .putInt(grid.getRows())
+                .putLong(level.getSeed())
+                .putInt(algorithm == null ? -1 : algorithm.ordinal())
+                .putInt(level.getStart())
+                .putInt(level.getExit());
+        header.flip();
+        writeFully(channel, header);
+
+        byte[] block = new byte[BLOCK_BYTES];
+        int size = grid.size();
+        if(!compress) {
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            for (int cell = 0; cell < size; cell += BLOCK_CELLS) {
+                int count = Math.min(BLOCK_CELLS, size - cell);
+                grid.packWalls(cell, count, block, 0);
+                buffer.clear();
+                buffer.limit((int) packedSize(count));
+                writeFully(channel, buffer);
+            }
+            return;
+        }
+
+        /* The walls have next to no repeated strings - looking for them doubles the time for no
+           gain, so only Huffman coding is used */
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setStrategy(Deflater.HUFFMAN_ONLY);
+        byte[] compressed = new byte[BLOCK_BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(compressed);
+        try {
+            for (int cell = 0; cell < size; cell += BLOCK_CELLS) {
+                int count = Math.min(BLOCK_CELLS, size - cell);
+                grid.packWalls(cell, count, block, 0);
+                deflater.setInput(block, 0, (int) packedSize(count));
+                while(!deflater.needsInput()) drain(deflater, compressed, buffer, channel);
+            }
+            deflater.finish();
+            while(!deflater.finished()) drain(deflater, compressed, buffer, channel);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void drain(Deflater deflater, byte[] compressed, ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        int length = deflater.deflate(compressed);
+        buffer.clear();
+        buffer.limit(length);
+        writeFully(channel, buffer);
+    }
+
+    /* Read a level, into 'recycled' if it has the right size. The level isn't solved yet. */
+    public static MazeLevel read(File file, MazeLevel recycled) throws IOException {
+        return read(file, recycled, GridStorage.HEAP, null);
+    }
+
+    /* Like read(File, MazeLevel), with a new level's grid kept in 'storage' - see
+       MazeGrid.allocate() */
+    public static MazeLevel read(File file, MazeLevel recycled, GridStorage storage, File directory) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            return read(in.getChannel(), recycled, storage, directory);
+        } finally {
+            in.close();
+        }
+    }
+
+    /* Read a level from the channel's current position */
+    public static MazeLevel read(ReadableByteChannel channel, MazeLevel recycled) throws IOException {
+        return read(channel, recycled, GridStorage.HEAP, null);
+    }
+
+    public static MazeLevel read(ReadableByteChannel channel, MazeLevel recycled, GridStorage storage,
+                                 File directory) throws IOException {
+        Header header = readHeader(channel);
+        MazeLevel level = recycled != null && recycled.fits(header.cols, header.rows)
+                ? recycled : new MazeLevel(header.cols, header.rows, storage, directory);
+        MazeGrid grid = level.getGrid();
+        int size = header.size();
+        byte[] block = new byte[BLOCK_BYTES];
+
+        if(!header.compressed) {
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            for (int cell = 0; cell < size; cell += BLOCK_CELLS) {
+                int count = Math.min(BLOCK_CELLS, size - cell);
+                buffer.clear();
+                buffer.limit((int) packedSize(count));
+                readFully(channel, buffer);
+                grid.unpackWalls(block, 0, cell, count);
+            }
+        } else {
+            Inflater inflater = new Inflater();
+            byte[] compressed = new byte[BLOCK_BYTES];
+            ByteBuffer buffer = ByteBuffer.wrap(compressed);
+            try {
+                for (int cell = 0; cell < size; cell += BLOCK_CELLS) {
+                    int count = Math.min(BLOCK_CELLS, size - cell);
+                    int wanted = (int) packedSize(count);
+                    int filled = 0;
+                    while(filled < wanted) {
+                        if(inflater.needsInput()) {
+                            buffer.clear();
+                            if(channel.read(buffer) < 0) throw new EOFException("Maze file ends inside the walls");
+                            inflater.setInput(compressed, 0, buffer.position());
+                        }
+                        filled += inflater.inflate(block, filled, wanted - filled);
+                        if(filled < wanted && inflater.finished()) throw new EOFException("Maze file ends inside the walls");
+                    }
+                    grid.unpackWalls(block, 0, cell, count);
+                }
+            } catch(DataFormatException e) {
+                throw new IOException("Corrupt maze file", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        level.restore(header.start, header.exit);
+        level.setOrigin(header.seed, header.algorithm);
+        return level;
+    }
+
+    /* Map an uncompressed maze file into memory. The walls stay in the file and are read on
+       demand by the operating system - nothing is copied onto the heap. */
+    public static MappedMaze map(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = in.getChannel();
+            Header header = readHeader(channel);
+            if(header.compressed) throw new IOException("Compressed maze files can't be mapped: " + file);
+            long length = packedSize(header.size());
+            if(channel.size() < HEADER_SIZE + length) throw new EOFException("Maze file ends inside the walls");
+            /* the mapping stays valid after the channel has been closed */
+            return new MappedMaze(header, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length));
+        } finally {
+            in.close();
+        }
+    }
+
+    static Header readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, buffer);
+        buffer.flip();
+        if(buffer.getInt() != MAGIC) throw new IOException("Not a maze file");
+        short version = buffer.getShort();
+        if(version != VERSION) throw new IOException("Unsupported maze file version " + version);
+
+        Header header = new Header();
+        header.compressed = (buffer.getShort() & FLAG_DEFLATE) != 0;
+        header.cols = buffer.getInt();
+        header.rows = buffer.getInt();
+        header.seed = buffer.getLong();
+        int algorithm = buffer.getInt();
+        header.start = buffer.getInt();
+        header.exit = buffer.getInt();
+
+        long size = (long) header.cols * header.rows;
+        if(header.cols <= 0 || header.rows <= 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Bad maze size " + header.cols + " x " + header.rows);
+        }
+        MazeAlgorithm[] algorithms = MazeAlgorithm.values();
+        if(algorithm < -1 || algorithm >= algorithms.length) throw new IOException("Unknown maze algorithm " + algorithm);
+        header.algorithm = algorithm < 0 ? null : algorithms[algorithm];
+        if(header.start < 0 || header.start >= size || header.exit < 0 || header.exit >= size) {
+            throw new IOException("Start or exit outside the maze");
+        }
+        return header;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0) throw new EOFException("Maze file is too short");
+        }
+    }
+}
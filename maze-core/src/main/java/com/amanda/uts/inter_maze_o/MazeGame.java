@@ -0,0 +1,521 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.util.Random;
+
+/*
+    State and rules of the game, independent of how it is drawn: the current maze, the player's
+    and the exit's cells, movement through the maze, the switch to the next level and the hint
+    showing the way to the exit.
+
+    GameView and GameSurfaceView both drive a MazeGame. It isn't thread-safe - all calls have to
+    come from the thread which owns the game (the UI thread, or the render thread of
+    GameSurfaceView). Only the Listener is called from the background thread of MazePreloader.
+*/
+public class MazeGame {
+
+    public interface Listener {
+        /* Called on a background thread when the next maze has been generated. If the player is
+           waiting for it (isWaitingForMaze()), the owner should call nextLevel() on its thread. */
+        void onNextMazeReady();
+
+        /* Called on a background thread when the distances to the exit of the current maze are
+           known - hints can be shown from now on, the owner should redraw */
+        void onHintsReady();
+    }
+
+    /* Hint length which shows the whole way to the exit */
+    public static final int FULL_PATH = Integer.MAX_VALUE;
+    /* Cells carved by createMaze() when carving in slices - the part around the start, so the
+       player can move right away */
+    static final int START_CELLS = 4096;
+    /* Cells carved between two looks at the clock, a few dozen microseconds */
+    static final int CARVE_CHUNK_CELLS = 1024;
+
+    /* The maze being played, with the distances of all cells to the exit */
+    private MazeLevel current;
+    /* Walls of the whole maze, one byte per cell (see MazeGrid) */
+    private MazeGrid grid;
+    /* Indices of the player's and the exit's cells in the grid */
+    private int player, exit;
+    private int cols = 15, rows = 15;
+    /* Incremented with every new maze, so views can tell when to redo their layout */
+    private int level;
+
+    /* Hands out the seeds of the mazes. The first maze after setSeed() is carved from that very
+       seed, and the seed of every following level is drawn from the seed of the one before - so
+       one seed replays all levels, also after a level has been restored. */
+    private final Random random = new Random();
+    private long seed;
+    private boolean seedSet;
+    /* Keeps its buffers between mazes, so regenerating a maze of the same size doesn't allocate */
+    private final LevelGenerator generator = new LevelGenerator(MazeAlgorithm.DEPTH_FIRST);
+    private MazeAlgorithm algorithm = MazeAlgorithm.DEPTH_FIRST;
+    /* Where start and exit go, null for the corners */
+    private DifficultyTarget difficulty;
+    /* Builds the next level in the background while the player solves the current one */
+    private MazePreloader preloader;
+    private GridStorage storage = GridStorage.HEAP;
+    private File directory;
+    /* Every level is written here in the background once it is complete, null for none */
+    private File saveFile;
+    /* Time continueMaze() may spend per call, 0 to carve every maze in createMaze() */
+    private long carveBudgetNanos;
+    /* The current level is still being carved, see continueMaze() */
+    private boolean carving;
+    /* The player reached the exit before the next maze was ready */
+    private boolean waitingForMaze;
+    private volatile Listener listener;
+
+    /* Number of steps the hint shows, 0 for none. The hint is only worked out again when the
+       player, the level or the setting changes, never just for drawing a frame. */
+    private int hintSteps;
+    /* Most cells the hint may have whatever hintSteps says - what the view can show at once */
+    private int hintLimit = FULL_PATH;
+    private int[] hint = new int[0];
+    private int hintLength;
+    private boolean hintDirty = true;
+    /* Whether the distances were known when the hint was last worked out */
+    private boolean hintSolved;
+    /* Incremented whenever the hint changes, so renderers can cache what they draw for it */
+    private int hintVersion;
+
+    /* Rolling ball mode: the ball moves freely, the player follows it from cell to cell. null
+       while the player moves by whole cells. */
+    private BallPhysics ball;
+
+    /* The moves through the current level, and the run through the last level that was finished */
+    private final MoveRecorder recorder = new MoveRecorder();
+    private ReplayFile lastRun;
+    /* A run shown next to the player whenever its level is played, see setGhost() */
+    private ReplayFile ghostRun;
+    private MoveReplay ghost;
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setSize(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /* Move a rolling ball with rollBall() instead of whole cells with movePlayer() */
+    public void setBallPhysics(boolean enabled) {
+        if(enabled == (ball != null)) return;
+        ball = enabled ? new BallPhysics() : null;
+        if(ball != null && grid != null) ball.reset(grid, player);
+    }
+
+    /* Select the algorithm used by the next createMaze() call */
+    public void setAlgorithm(MazeAlgorithm algorithm) {
+        /* the generator is about to be replaced */
+        finishMaze();
+        this.algorithm = algorithm;
+        generator.setAlgorithm(algorithm);
+    }
+
+    /* Select how far apart start and exit are from the next createMaze() call on, null for the
+       classic corner to corner maze */
+    public void setDifficulty(DifficultyTarget difficulty) {
+        this.difficulty = difficulty;
+        generator.setTarget(difficulty);
+    }
+
+    /*
+        Carve the mazes of createMaze() a slice at a time: createMaze() only carves the cells
+        around the start and returns, and every continueMaze() call carves on for at most
+        'millis'. The player can move through the carved part from the first frame on. 0 (the
+        default) carves the whole maze in createMaze().
+
+        Only for algorithms with an IncrementalGenerator and without a difficulty - those need
+        the whole maze to place start and exit. The preloaded levels are always carved in one go
+        in the background.
+    */
+    public void setCarveBudget(float millis) {
+        carveBudgetNanos = (long) (Math.max(0, millis) * 1000000);
+    }
+
+    /* Keep the grids of the following levels in 'storage' - MAPPED creates its files in
+       'directory'. SizePlanner picks the storage a size needs. */
+    public void setStorage(GridStorage storage, File directory) {
+        this.storage = storage;
+        this.directory = directory;
+        if(preloader != null) preloader.setStorage(storage, directory);
+    }
+
+    /* Keep the current level written to 'file' (see MazeFile), so it can be restored after the
+       process has been killed. Levels are written by the background thread as soon as they are
+       complete - saving the instance state only has to remember the file and the player. */
+    public void setSaveFile(File file) {
+        saveFile = file;
+        if(current != null && !carving) saveLevel();
+    }
+
+    /* Carve the next createMaze() call from 'seed' */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        seedSet = true;
+    }
+
+    public void createMaze() {
+        /* Reuse the level if the size hasn't changed, generate() puts all walls back up. A level
+           still being solved or saved in the background has to be left alone. */
+        if(current == null || !current.fits(cols, rows) || !current.isSolved() || saveFile != null
+                || current.getGrid().getStorage() != storage) {
+            current = new MazeLevel(cols, rows, storage, directory);
+        }
+
+        /* Carve the passages with the selected algorithm (depth-first search by default). With a
+           difficulty the distances are needed to place start and exit, otherwise they're worked
+           out in the background. */
+        long mazeSeed;
+        if(seedSet) {
+            mazeSeed = seed;
+            random.setSeed(seed);
+            seedSet = false;
+        } else {
+            mazeSeed = random.nextLong();
+        }
+        if(carveBudgetNanos > 0) {
+            carving = generator.begin(current, mazeSeed) && !generator.step(START_CELLS);
+        } else {
+            carving = false;
+            generator.generate(current, mazeSeed);
+        }
+        waitingForMaze = false;
+        startLevel();
+
+        ensurePreloader();
+        /* a level still being carved is solved once it is complete */
+        if(!carving && !current.isSolved()) preloader.solve(current);
+        /* Start building the next level right away */
+        preloadNextMaze(null);
+    }
+
+    /* Carve on at the current level for at most the carve budget - call once per frame while
+       isCarving(). Returns true if walls have come down, so the maze has to be redrawn. */
+    public boolean continueMaze() {
+        if(!carving) return false;
+        long deadline = System.nanoTime() + carveBudgetNanos;
+        do {
+            if(generator.step(CARVE_CHUNK_CELLS)) {
+                carved();
+                break;
+            }
+        } while(System.nanoTime() < deadline);
+        return true;
+    }
+
+    /* Carve the rest of the current level at once, e.g. before it is saved */
+    public void finishMaze() {
+        if(!carving) return;
+        generator.step(Integer.MAX_VALUE);
+        carved();
+    }
+
+    private void carved() {
+        carving = false;
+        ensurePreloader();
+        preloader.solve(current);
+        saveLevel();
+    }
+
+    private void saveLevel() {
+        if(saveFile == null) return;
+        ensurePreloader();
+        preloader.save(current, saveFile);
+    }
+
+    /* Whether the current level is still being carved by continueMaze() */
+    public boolean isCarving() {
+        return carving;
+    }
+
+    /* Start a level which has been carved elsewhere, e.g. by MazePool */
+    public void play(MazeLevel level) {
+        restore(level, level.getStart());
+    }
+
+    /* Continue a saved level (see MazeFile) with the player on 'player'. The following levels
+       get the saved level's size. */
+    public void restore(MazeLevel level, int player) {
+        if(player < 0 || player >= level.getGrid().size()) throw new IllegalArgumentException("Player outside the maze: " + player);
+        current = level;
+        /* the level being carved is dropped */
+        carving = false;
+        cols = level.getGrid().getCols();
+        rows = level.getGrid().getRows();
+        waitingForMaze = false;
+        startLevel();
+        this.player = player;
+        if(ball != null) ball.reset(grid, player);
+        recorder.start(player, System.nanoTime());
+
+        ensurePreloader();
+        if(!current.isSolved()) preloader.solve(current);
+        preloadNextMaze(null);
+    }
+
+    private void startLevel() {
+        grid = current.getGrid();
+        player = current.getStart();
+        exit = current.getExit();
+        level++;
+        hintDirty = true;
+        if(ball != null) ball.reset(grid, player);
+        recorder.start(player, System.nanoTime());
+        startGhost();
+        if(!carving) saveLevel();
+    }
+
+    private void startGhost() {
+        ghost = ghostRun != null && ghostRun.matches(current) ? ghostRun.newReplay(grid) : null;
+    }
+
+    private void ensurePreloader() {
+        if(preloader == null) {
+            preloader = new MazePreloader();
+            preloader.setStorage(storage, directory);
+            preloader.setCallback(new MazePreloader.Callback() {
+                @Override
+                public void onMazeReady() {
+                    Listener current = listener;
+                    if(current != null) current.onNextMazeReady();
+                }
+
+                @Override
+                public void onLevelSolved(MazeLevel level) {
+                    Listener current = listener;
+                    if(current != null) current.onHintsReady();
+                }
+            });
+        }
+    }
+
+    private void preloadNextMaze(MazeLevel recycled) {
+        ensurePreloader();
+        random.setSeed(current.getSeed());
+        preloader.request(cols, rows, algorithm, difficulty, random.nextLong(), recycled);
+    }
+
+    /* Swap in the preloaded maze. Returns false if it isn't ready yet - the Listener will be
+       notified as soon as it is. */
+    public boolean nextLevel() {
+        /* The game has been released in the meantime - nothing is being preloaded */
+        if(preloader == null) {
+            createMaze();
+            return true;
+        }
+        MazeLevel next = preloader.take();
+        if(next == null) {
+            waitingForMaze = true;
+            return false;
+        }
+        waitingForMaze = false;
+
+        MazeLevel previous = current;
+        current = next;
+        /* the exit was reached before the rest of the maze had been carved */
+        carving = false;
+        startLevel();
+
+        /* The finished maze isn't drawn anymore, so the next one can be carved into it - unless
+           its distances are still being computed */
+        preloadNextMaze(previous.isSolved() ? previous : null);
+        return true;
+    }
+
+    /* Move the player by one cell unless there's a wall in the way. Reaching the exit moves on to
+       the next level. Returns true if the player has moved. */
+    public boolean movePlayer(Direction direction) {
+        /* The player stays on the exit until the next maze is ready */
+        if(waitingForMaze) return false;
+        if(grid.hasWall(player, direction)) return false;
+
+        player = grid.neighbour(player, direction);
+        hintDirty = true;
+        recorder.record(direction, System.nanoTime());
+        if(player == exit) {
+            lastRun = ReplayFile.of(current, recorder);
+            nextLevel();
+        }
+        return true;
+    }
+
+    /*
+        Roll the ball for 'nanos' of time with the tilt (tiltX, tiltY) - the game rotation
+        vector's y and x values, like TiltFilter's horizontal and vertical axis. Runs the fixed
+        steps of BallPhysics which are due and moves the player along whenever the ball enters
+        another cell, reaching the exit included. Returns true if the player has moved.
+    */
+    public boolean rollBall(float tiltX, float tiltY, long nanos) {
+        if(ball == null) return false;
+        int steps = ball.advance(nanos);
+        boolean moved = false;
+        for (int i = 0; i < steps && !waitingForMaze; i++) {
+            ball.step(tiltX, tiltY);
+            int level = this.level;
+            int cell = ball.getCell();
+            if(cell == player) continue;
+            moved = true;
+            followBall(cell);
+            /* a new level puts the ball back to the start */
+            if(this.level != level) break;
+        }
+        return moved;
+    }
+
+    /* Move the player into the ball's cell, which is next to it - diagonally if the ball has
+       passed a corner within one step */
+    private void followBall(int cell) {
+        int level = this.level;
+        Direction horizontal = grid.col(cell) > grid.col(player) ? Direction.RIGHT
+                : grid.col(cell) < grid.col(player) ? Direction.LEFT : null;
+        Direction vertical = grid.row(cell) > grid.row(player) ? Direction.DOWN
+                : grid.row(cell) < grid.row(player) ? Direction.UP : null;
+        /* around the corner whichever way is open */
+        if(horizontal != null && vertical != null && grid.hasWall(player, horizontal)) {
+            Direction swap = horizontal;
+            horizontal = vertical;
+            vertical = swap;
+        }
+        boolean moved = (horizontal == null || movePlayer(horizontal))
+                && (vertical == null || this.level != level || movePlayer(vertical));
+        /* can't happen as long as the ball stays out of the walls - start over from the player */
+        if(!moved && !waitingForMaze) ball.reset(grid, player);
+    }
+
+    public BallPhysics getBall() {
+        return ball;
+    }
+
+    /* Moves of the player through the current level so far */
+    public MoveRecorder getRecorder() {
+        return recorder;
+    }
+
+    /* The run through the last level the player has finished, null if there's none yet */
+    public ReplayFile getLastRun() {
+        return lastRun;
+    }
+
+    /* Show 'run' as a ghost whenever its level is played, from the level's start on - null for
+       no ghost */
+    public void setGhost(ReplayFile run) {
+        ghostRun = run;
+        if(current != null) startGhost();
+    }
+
+    /* Move the ghost on by 'nanos' of time. Returns true if it has moved. */
+    public boolean advanceGhost(long nanos) {
+        if(ghost == null) return false;
+        try {
+            return ghost.advance(nanos) > 0;
+        } catch(IllegalStateException e) {
+            /* recorded in another maze after all, e.g. with another difficulty */
+            ghost = null;
+            return true;
+        }
+    }
+
+    /* null unless the level of the ghost run is being played */
+    public MoveReplay getGhost() {
+        return ghost;
+    }
+
+    /* Show the next 'steps' cells of the way to the exit (FULL_PATH for all of them, 0 for no
+       hint) */
+    public void setHintSteps(int steps) {
+        hintSteps = steps;
+        hintDirty = true;
+    }
+
+    /* Never work out more than 'cells' steps of the hint, e.g. the cells a camera shows at
+       once: on a huge maze the full path would otherwise be copied after every move and drawn
+       every frame, far beyond the screen. FULL_PATH for no limit. */
+    public void setHintLimit(int cells) {
+        if(cells == hintLimit) return;
+        hintLimit = cells;
+        hintDirty = true;
+    }
+
+    /* Cells of the hint, the first getHintLength() entries are valid. Empty while the distances
+       of the current maze are still being computed. */
+    public int[] getHint() {
+        updateHint();
+        return hint;
+    }
+
+    public int getHintLength() {
+        updateHint();
+        return hintLength;
+    }
+
+    public int getHintVersion() {
+        updateHint();
+        return hintVersion;
+    }
+
+    private void updateHint() {
+        DistanceField distances = current == null ? null : current.getDistances();
+        /* big levels: only the way from the player's cell is worked out, and after a move only
+           the difference to the last one */
+        ClusterPathfinder pathfinder = current == null ? null : current.getPathfinder();
+        boolean solved = distances != null || pathfinder != null;
+        /* the distances may have arrived since the hint was last worked out */
+        if(!hintDirty && hintSolved == solved) return;
+        hintDirty = false;
+        hintSolved = solved;
+
+        int length = 0;
+        if(hintSteps > 0 && solved) {
+            int distance = distances != null ? distances.distance(player) : pathfinder.distance(player);
+            int needed = Math.min(Math.min(hintSteps, hintLimit), Math.max(0, distance));
+            if(hint.length < needed) hint = new int[needed];
+            length = distances != null ? distances.path(grid, player, needed, hint) : pathfinder.path(player, needed, hint);
+        }
+        hintLength = length;
+        hintVersion++;
+    }
+
+    /* Direction of the next step towards the exit, or null if it isn't known (yet) */
+    public Direction getHintDirection() {
+        DistanceField distances = current == null ? null : current.getDistances();
+        if(distances != null) return distances.nextStep(player);
+        ClusterPathfinder pathfinder = current == null ? null : current.getPathfinder();
+        return pathfinder == null ? null : pathfinder.nextStep(player);
+    }
+
+    public boolean isWaitingForMaze() {
+        return waitingForMaze;
+    }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    public MazeLevel getCurrentLevel() {
+        return current;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public int getExit() {
+        return exit;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /* Stop the background generation, e.g. when the view goes away */
+    public void release() {
+        if(preloader != null) {
+            preloader.shutdown();
+            preloader = null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Carves a perfect maze (exactly one path between any two cells) into a MazeGrid.
+
+    Implementations keep their working buffers between calls so that regenerating a maze of the
+    same size doesn't allocate. Because of that a generator must not be shared between threads.
+*/
+public interface MazeGenerator {
+
+    /* Put all walls of the grid back up and carve a new maze into it */
+    void generate(MazeGrid grid, Random random);
+}
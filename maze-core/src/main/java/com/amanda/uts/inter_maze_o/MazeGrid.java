@@ -0,0 +1,275 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/*
+    Compact storage of the maze walls.
+
+    Every cell is a single byte in a flat array, indexed by 'row * cols + col'. Walls are shared
+    between two neighbouring cells, so each wall is stored only once: a cell owns its right and
+    bottom wall, while its top wall is the bottom wall of the cell above and its left wall is the
+    right wall of the cell on the left. The outer border is never removed, so the cells in the
+    first row and the first column simply report their top/left walls as present.
+
+    The remaining bit of interest is 'visited', used by the generators while carving.
+
+    A 2000 x 2000 maze therefore takes 4 MB, instead of ~4 million Cell objects. Saved to a file
+    (see MazeFile) only the two wall bits are kept, four cells to a byte.
+
+    The bytes live where GridStorage says: in a byte array on the heap, or in a ByteBuffer outside
+    of it - allocated directly, or mapped from a scratch file for mazes which don't fit into
+    memory at all (see SizePlanner). Every access checks which one it is; the branch always goes
+    the same way for a grid, so it costs next to nothing on the heap.
+*/
+public class MazeGrid {
+
+    static final byte RIGHT_WALL = 1;
+    static final byte BOTTOM_WALL = 1 << 1;
+    static final byte VISITED = 1 << 2;
+
+    /* Freshly created cell - all walls are up and it hasn't been visited yet */
+    private static final byte CLOSED = RIGHT_WALL | BOTTOM_WALL;
+
+    /* Written into off-heap grids a block at a time by reset() */
+    private static final byte[] CLOSED_BLOCK = new byte[4096];
+    static {
+        Arrays.fill(CLOSED_BLOCK, CLOSED);
+    }
+
+    private final int cols, rows, size;
+    /* Exactly one of them is set */
+    private final byte[] cells;
+    private final ByteBuffer buffer;
+    private final GridStorage storage;
+
+    public MazeGrid(int cols, int rows) {
+        this(cols, rows, null, GridStorage.HEAP);
+    }
+
+    /* A grid kept in 'buffer', which needs room for cols * rows bytes - null for the heap */
+    private MazeGrid(int cols, int rows, ByteBuffer buffer, GridStorage storage) {
+        if(cols <= 0 || rows <= 0 || (long) cols * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze size must be positive and below 2^31 cells: " + cols + " x " + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        size = cols * rows;
+        this.buffer = buffer;
+        this.storage = storage;
+        cells = buffer == null ? new byte[size] : null;
+        reset();
+    }
+
+    /*
+        A grid in the given storage. A mapped grid goes into a scratch file in 'directory', which
+        is deleted right away - the pages stay mapped until the grid is garbage collected. If the
+        file can't be created the grid is allocated directly instead.
+    */
+    public static MazeGrid allocate(int cols, int rows, GridStorage storage, File directory) {
+        long size = (long) cols * rows;
+        if(storage == GridStorage.HEAP || size <= 0 || size > Integer.MAX_VALUE) return new MazeGrid(cols, rows);
+        if(storage == GridStorage.MAPPED) {
+            try {
+                return new MazeGrid(cols, rows, map(directory, (int) size), GridStorage.MAPPED);
+            } catch(IOException e) {
+                /* fall through */
+            }
+        }
+        return new MazeGrid(cols, rows, ByteBuffer.allocateDirect((int) size), GridStorage.DIRECT);
+    }
+
+    private static ByteBuffer map(File directory, int size) throws IOException {
+        File file = File.createTempFile("grid", ".cells", directory);
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(size);
+            return out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            out.close();
+            file.delete();
+        }
+    }
+
+    /* Where the cells are kept */
+    public GridStorage getStorage() {
+        return storage;
+    }
+
+    /* Put all walls back up and clear the 'visited' flags, so the grid can be carved again */
+    public void reset() {
+        if(cells != null) {
+            Arrays.fill(cells, CLOSED);
+            return;
+        }
+        ByteBuffer target = buffer.duplicate();
+        target.clear();
+        target.limit(size);
+        while(target.hasRemaining()) target.put(CLOSED_BLOCK, 0, Math.min(CLOSED_BLOCK.length, target.remaining()));
+    }
+
+    private byte get(int index) {
+        return cells != null ? cells[index] : buffer.get(index);
+    }
+
+    private void set(int index, int value) {
+        if(cells != null) cells[index] = (byte) value;
+        else buffer.put(index, (byte) value);
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /* Number of cells in the grid */
+    public int size() {
+        return size;
+    }
+
+    public int index(int col, int row) {
+        return row * cols + col;
+    }
+
+    public int col(int index) {
+        return index % cols;
+    }
+
+    public int row(int index) {
+        return index / cols;
+    }
+
+    public boolean isVisited(int index) {
+        return (get(index) & VISITED) != 0;
+    }
+
+    public void setVisited(int index) {
+        set(index, get(index) | VISITED);
+    }
+
+    public boolean hasRightWall(int index) {
+        return (get(index) & RIGHT_WALL) != 0;
+    }
+
+    public boolean hasBottomWall(int index) {
+        return (get(index) & BOTTOM_WALL) != 0;
+    }
+
+    public boolean hasWall(int index, Direction direction) {
+        switch(direction) {
+            case UP:
+                /* the first row is covered by the outer border */
+                return index < cols || (get(index - cols) & BOTTOM_WALL) != 0;
+            case RIGHT:
+                return (get(index) & RIGHT_WALL) != 0;
+            case DOWN:
+                return (get(index) & BOTTOM_WALL) != 0;
+            default:
+                /* the first column is covered by the outer border */
+                return index % cols == 0 || (get(index - 1) & RIGHT_WALL) != 0;
+        }
+    }
+
+    /* Index of the neighbouring cell in the given direction, or -1 if that would leave the grid */
+    public int neighbour(int index, Direction direction) {
+        switch(direction) {
+            case UP:
+                return index >= cols ? index - cols : -1;
+            case RIGHT:
+                return index % cols < cols - 1 ? index + 1 : -1;
+            case DOWN:
+                return index < size - cols ? index + cols : -1;
+            default:
+                return index % cols > 0 ? index - 1 : -1;
+        }
+    }
+
+    /* Open a passage from the cell in the given direction. The outer border stays untouched. */
+    public void removeWall(int index, Direction direction) {
+        switch(direction) {
+            case UP:
+                if(index >= cols) set(index - cols, get(index - cols) & ~BOTTOM_WALL);
+                break;
+            case RIGHT:
+                if(index % cols < cols - 1) set(index, get(index) & ~RIGHT_WALL);
+                break;
+            case DOWN:
+                if(index < size - cols) set(index, get(index) & ~BOTTOM_WALL);
+                break;
+            case LEFT:
+                if(index % cols > 0) set(index - 1, get(index - 1) & ~RIGHT_WALL);
+                break;
+        }
+    }
+
+    /* Open a passage between two adjacent cells */
+    public void removeWall(int current, int next) {
+        /* vertical neighbours are checked first, so a single-column grid isn't mistaken for a row */
+        if(next == current + cols) set(current, get(current) & ~BOTTOM_WALL);
+        else if(next == current - cols) set(next, get(next) & ~BOTTOM_WALL);
+        else if(next == current + 1 && next % cols != 0) set(current, get(current) & ~RIGHT_WALL);
+        else if(next == current - 1 && current % cols != 0) set(next, get(next) & ~RIGHT_WALL);
+        else throw new IllegalArgumentException("Cells " + current + " and " + next + " are not adjacent");
+    }
+
+    /*
+        Pack the walls of 'count' cells starting at 'firstCell' into 'packed', four cells per
+        byte: cell firstCell + i goes into bits 2 * (i % 4) (right wall) and 2 * (i % 4) + 1
+        (bottom wall) of packed[offset + i / 4]. 'firstCell' has to be a multiple of 4. The
+        'visited' flags aren't packed.
+    */
+    public void packWalls(int firstCell, int count, byte[] packed, int offset) {
+        int end = firstCell + count;
+        int cell = firstCell;
+        /* whole bytes first, then the few cells left at the end */
+        for (; cell + 4 <= end; cell += 4) {
+            packed[offset++] = (byte) ((get(cell) & 3) | (get(cell + 1) & 3) << 2
+                    | (get(cell + 2) & 3) << 4 | (get(cell + 3) & 3) << 6);
+        }
+        if(cell < end) {
+            int bits = 0;
+            for (int shift = 0; cell < end; cell++, shift += 2) bits |= (get(cell) & 3) << shift;
+            packed[offset] = (byte) bits;
+        }
+    }
+
+    /* The reverse of packWalls(). All cells written are marked as not visited. The outer border
+       is put back up whatever the packed bits say - they may come from a broken file, and an
+       open border would lead out of the grid. */
+    public void unpackWalls(byte[] packed, int offset, int firstCell, int count) {
+        int end = firstCell + count;
+        int lastRow = size - cols;
+        int col = firstCell % cols;
+        for (int cell = firstCell; cell < end; offset++) {
+            int bits = packed[offset];
+            for (int i = 0; i < 4 && cell < end; i++, cell++, bits >>= 2) {
+                int walls = bits & 3;
+                if(col == cols - 1) {
+                    walls |= RIGHT_WALL;
+                    col = 0;
+                } else {
+                    col++;
+                }
+                if(cell >= lastRow) walls |= BOTTOM_WALL;
+                set(cell, walls);
+            }
+        }
+    }
+
+    /* Set the walls of up to 64 cells from bit words, bit i for cell firstCell + i (see BitMaze).
+       The cells end up not visited. */
+    public void setWallBits(int firstCell, long rightWalls, long bottomWalls, int count) {
+        for (int i = 0; i < count; i++) {
+            set(firstCell + i, ((int) rightWalls & 1) | ((int) bottomWalls & 1) << 1);
+            rightWalls >>>= 1;
+            bottomWalls >>>= 1;
+        }
+    }
+}
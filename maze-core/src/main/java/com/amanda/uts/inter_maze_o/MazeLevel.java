@@ -0,0 +1,144 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+
+/*
+    One maze as it is played: the grid, where the player starts, where the exit is and - once it
+    has been computed on the background thread - the distance of every cell to the exit.
+
+    Levels of HIERARCHICAL_CELLS and more are solved with a ClusterPathfinder instead, which
+    takes a fraction of the memory and answers the way from the player's cell on demand. Only the
+    solution length of their MazeStats is filled in.
+
+    The grid isn't changed anymore once a level has been handed to MazeGame, so the distance
+    field stays valid for the level's whole lifetime. A level which isn't played anymore can be
+    recycled for the next maze of the same size, buffers included.
+*/
+public class MazeLevel {
+
+    /* 1000 x 1000 - a DistanceField would take 13 MB (DistanceField.BYTES_PER_CELL) and a
+       quarter of a second, on a fast machine */
+    public static final int HIERARCHICAL_CELLS = 1000 * 1000;
+
+    private final MazeGrid grid;
+    private int start, exit;
+    /* How the grid was carved - the same seed and algorithm carve the same maze again. The seed
+       is only known if LevelGenerator was given one. */
+    private long seed;
+    private MazeAlgorithm algorithm;
+    private DistanceField distances = new DistanceField();
+    private final MazeStats stats = new MazeStats();
+    /* Only built for big levels, then 'distances' isn't used */
+    private ClusterPathfinder pathfinder;
+    private boolean hierarchical;
+    /* Set by the background thread once 'distances' and 'stats' are complete */
+    private volatile boolean solved;
+
+    public MazeLevel(int cols, int rows) {
+        this(cols, rows, GridStorage.HEAP, null);
+    }
+
+    /* A level whose grid is kept in 'storage' - see MazeGrid.allocate() */
+    public MazeLevel(int cols, int rows, GridStorage storage, File directory) {
+        grid = MazeGrid.allocate(cols, rows, storage, directory);
+        reset();
+    }
+
+    /* Start in the upper left corner, exit in the lower right one, not solved yet. The caller
+       carves the grid again. */
+    void reset() {
+        start = 0;
+        exit = grid.size() - 1;
+        hierarchical = false;
+        solved = false;
+    }
+
+    /* Compute the distances to the exit - call on a background thread, after the grid has been
+       carved */
+    void solve() {
+        hierarchical = grid.size() >= HIERARCHICAL_CELLS;
+        if(hierarchical) {
+            if(pathfinder == null) pathfinder = new ClusterPathfinder();
+            pathfinder.build(grid);
+            pathfinder.setTarget(exit);
+            stats.reset(grid.size());
+            stats.setSolutionLength(pathfinder.distance(start));
+        } else {
+            distances.compute(grid, exit, stats);
+            stats.setSolutionLength(distances.distance(start));
+        }
+        solved = true;
+    }
+
+    /* Take over start, exit and distances worked out by LevelGenerator. Returns the distance field
+       the level had before, for the generator to reuse. */
+    DistanceField setSolved(int start, int exit, DistanceField distances, MazeStats stats) {
+        DistanceField previous = this.distances;
+        this.start = start;
+        this.exit = exit;
+        this.distances = distances;
+        this.stats.copyFrom(stats);
+        hierarchical = false;
+        solved = true;
+        return previous;
+    }
+
+    void setOrigin(long seed, MazeAlgorithm algorithm) {
+        this.seed = seed;
+        this.algorithm = algorithm;
+    }
+
+    /* Take over start and exit of a level read from a file (see MazeFile). Not solved yet. */
+    void restore(int start, int exit) {
+        this.start = start;
+        this.exit = exit;
+        hierarchical = false;
+        solved = false;
+    }
+
+    public boolean fits(int cols, int rows) {
+        return grid.getCols() == cols && grid.getRows() == rows;
+    }
+
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getExit() {
+        return exit;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /* null if the level hasn't been carved by LevelGenerator */
+    public MazeAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /* Distances to the exit, or null while they're still being computed - and for big levels,
+       see getPathfinder() */
+    public DistanceField getDistances() {
+        return solved && !hierarchical ? distances : null;
+    }
+
+    /* The way to the exit of a big level, or null while it's still being built or if the level
+       has a DistanceField. Only for the thread which plays the level. */
+    public ClusterPathfinder getPathfinder() {
+        return solved && hierarchical ? pathfinder : null;
+    }
+
+    /* Shape of the maze, or null while it's still being worked out */
+    public MazeStats getStats() {
+        return solved ? stats : null;
+    }
+}
@@ -0,0 +1,354 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+    Ready-made levels for a few fixed sizes (the preset sizes of the welcome screen), so a game of
+    one of those sizes can start without carving a maze first.
+
+    Every pooled level is saved to 'directory' in MazeFile format as soon as it has been carved,
+    and survives the process - on the next start warmUp() finds the files again instead of
+    generating. A few of them are also kept in memory, solved, as long as they fit the memory
+    budget. take() hands a level out of memory and deletes its file so no maze is ever played
+    twice; the pool then tops itself up in the background. Files are only ever read on the
+    background thread, and written under a temporary name first, so a file with the final name
+    is always complete.
+
+    Budgets:
+        - at most 'levelsPerSize' levels per size, on disk and in memory
+        - levels in memory take at most 'memoryBudget' bytes, estimated by levelBytes() - the
+          rest stay on disk until there is room again. trimMemory() drops them all.
+        - new levels are only carved while setGenerating(true) - the app turns it off when the
+          battery is low or in power saving mode. Files already on disk are still loaded.
+
+    All work happens on one background thread of minimum priority; take() and the counters can
+    be used from any thread.
+*/
+public class MazePool {
+
+    private static final String SUFFIX = ".maze";
+    /* Added by MazeFile.writeReplacing() */
+    private static final String TEMPORARY_SUFFIX = SUFFIX + ".tmp";
+    private static final int FIRST_FRAME_CAPACITY = 50;
+
+    /* Levels of one size. Every entry has a file, 'level' is null while it's only on disk.
+       'loaded' levels were read back from their file rather than carved by this process. */
+    private static class Entry {
+        final File file;
+        MazeLevel level;
+        boolean loaded;
+
+        Entry(File file, MazeLevel level) {
+            this.file = file;
+            this.level = level;
+        }
+    }
+
+    private static class Pool {
+        final int cols, rows;
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+        Pool(int cols, int rows) {
+            this.cols = cols;
+            this.rows = rows;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "MazePool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    private final File directory;
+    private final int levelsPerSize;
+    private final long memoryBudget;
+
+    /* Guarded by 'this' */
+    private final List<Pool> pools = new ArrayList<>();
+    private long memoryUsed;
+    private boolean scanned;
+    private boolean warmUpQueued;
+    private int hits, diskHits, misses;
+
+    private volatile boolean generating = true;
+
+    /* Only used on the background thread */
+    private final LevelGenerator generator = new LevelGenerator(MazeAlgorithm.DEPTH_FIRST);
+    private final Random random = new Random();
+
+    /* Time from tapping a size to the first frame of the game, with and without a pooled level */
+    private final FrameTimeStats firstFrameHits = new FrameTimeStats(FIRST_FRAME_CAPACITY);
+    private final FrameTimeStats firstFrameMisses = new FrameTimeStats(FIRST_FRAME_CAPACITY);
+
+    public MazePool(File directory, int levelsPerSize, long memoryBudget) {
+        this.directory = directory;
+        this.levelsPerSize = levelsPerSize;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /* Pool levels of this size (classic corner to corner depth-first mazes) */
+    public synchronized void addSize(int cols, int rows) {
+        if(find(cols, rows) == null) pools.add(new Pool(cols, rows));
+    }
+
+    /* Estimated heap taken by a solved level: one byte per cell for the grid and the distance
+       field, which SizePlanner counts the same way */
+    public static long levelBytes(int cols, int rows) {
+        return (1L + DistanceField.BYTES_PER_CELL) * cols * rows + 256;
+    }
+
+    /* Allow carving new levels - off while the battery should be spared */
+    public void setGenerating(boolean generating) {
+        this.generating = generating;
+        if(generating) warmUp();
+    }
+
+    /* Load the saved levels and carve the missing ones in the background. Cheap to call often,
+       e.g. from every onResume() of the menu screens. */
+    public synchronized void warmUp() {
+        if(warmUpQueued) return;
+        warmUpQueued = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized(MazePool.this) {
+                    warmUpQueued = false;
+                }
+                fill();
+            }
+        });
+    }
+
+    /*
+        A solved level of the given size, or null if there is none in memory - the caller carves
+        one itself. Never touches the disk, so it's safe on the UI thread: levels which are only
+        on disk are a miss, and the background thread reads them in for the next take().
+    */
+    public MazeLevel take(int cols, int rows) {
+        Entry entry = null;
+        synchronized(this) {
+            Pool pool = find(cols, rows);
+            if(pool != null) {
+                for (Entry candidate : pool.entries) {
+                    if(candidate.level != null) {
+                        entry = candidate;
+                        break;
+                    }
+                }
+                if(entry != null) pool.entries.remove(entry);
+            }
+            if(entry == null) {
+                misses++;
+            } else {
+                if(entry.loaded) diskHits++;
+                else hits++;
+                memoryUsed -= levelBytes(cols, rows);
+            }
+        }
+        if(entry == null) {
+            warmUp();
+            return null;
+        }
+
+        MazeLevel level = entry.level;
+        final File file = entry.file;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                file.delete();
+            }
+        });
+        warmUp();
+        return level;
+    }
+
+    /* Drop the levels kept in memory, e.g. when the system runs low on memory. Their files stay. */
+    public synchronized void trimMemory() {
+        for (Pool pool : pools) {
+            for (Entry entry : pool.entries) entry.level = null;
+        }
+        memoryUsed = 0;
+    }
+
+    /* The first frame of a game showed up 'nanos' after the size was tapped */
+    public void recordFirstFrame(boolean pooled, long nanos) {
+        (pooled ? firstFrameHits : firstFrameMisses).record(nanos);
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /* Levels which were read back from disk before they were taken, e.g. after a restart */
+    public synchronized int getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /* Number of levels ready for the size, on disk or in memory */
+    public synchronized int getReady(int cols, int rows) {
+        Pool pool = find(cols, rows);
+        return pool == null ? 0 : pool.entries.size();
+    }
+
+    /* Number of levels of the size which are kept in memory */
+    public synchronized int getInMemory(int cols, int rows) {
+        Pool pool = find(cols, rows);
+        int count = 0;
+        if(pool != null) {
+            for (Entry entry : pool.entries) if(entry.level != null) count++;
+        }
+        return count;
+    }
+
+    /* Counters and first frame times, as plain text like GameMetrics.export() */
+    public String export() {
+        StringBuilder out = new StringBuilder();
+        synchronized(this) {
+            out.append("maze pool: ").append(hits).append(" hits, ").append(diskHits)
+                    .append(" disk hits, ").append(misses).append(" misses\n");
+        }
+        firstFrameHits.writePercentiles(out, "first frame, pooled maze [ms]", 1e6);
+        firstFrameMisses.writePercentiles(out, "first frame, new maze [ms]", 1e6);
+        return out.toString();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /* Runs on the background thread */
+    private void fill() {
+        if(!scanned) {
+            scan();
+            scanned = true;
+        }
+
+        List<Pool> snapshot;
+        synchronized(this) {
+            snapshot = new ArrayList<>(pools);
+        }
+        /* Bring every size up to one level in memory first, then fill them up */
+        for (int wanted = 1; wanted <= levelsPerSize; wanted++) {
+            for (Pool pool : snapshot) {
+                if(Thread.currentThread().isInterrupted()) return;
+                if(!load(pool, wanted) && generating) generate(pool, wanted);
+            }
+        }
+    }
+
+    /* Pick up the files of earlier runs */
+    private void scan() {
+        if(!directory.isDirectory() && !directory.mkdirs()) return;
+        File[] files = directory.listFiles();
+        if(files == null) return;
+        for (File file : files) {
+            String name = file.getName();
+            /* left over from a write which didn't finish */
+            if(name.endsWith(TEMPORARY_SUFFIX)) file.delete();
+            if(!name.endsWith(SUFFIX)) continue;
+            /* <cols>x<rows>-<seed>.maze */
+            int x = name.indexOf('x'), dash = name.indexOf('-');
+            Pool pool = null;
+            try {
+                synchronized(this) {
+                    pool = find(Integer.parseInt(name.substring(0, x)), Integer.parseInt(name.substring(x + 1, dash)));
+                }
+            } catch(RuntimeException e) {
+                /* not one of ours */
+            }
+            synchronized(this) {
+                if(pool == null || pool.entries.size() >= levelsPerSize) file.delete();
+                else pool.entries.add(new Entry(file, null));
+            }
+        }
+    }
+
+    /* Make sure 'wanted' levels of the pool are in memory, loading them from disk if needed.
+       Returns true if there's no need to carve one. */
+    private boolean load(Pool pool, int wanted) {
+        Entry onDisk = null;
+        synchronized(this) {
+            int inMemory = 0;
+            for (Entry entry : pool.entries) {
+                if(entry.level != null) inMemory++;
+                else if(onDisk == null) onDisk = entry;
+            }
+            if(inMemory >= wanted) return true;
+            /* nothing to load, or no room for it - carve another one unless the pool is full */
+            if(onDisk == null || memoryUsed + levelBytes(pool.cols, pool.rows) > memoryBudget) {
+                return pool.entries.size() >= levelsPerSize;
+            }
+        }
+
+        MazeLevel level;
+        try {
+            level = MazeFile.read(onDisk.file, null);
+        } catch(IOException e) {
+            synchronized(this) {
+                pool.entries.remove(onDisk);
+            }
+            onDisk.file.delete();
+            return false;
+        }
+        level.solve();
+        synchronized(this) {
+            /* taken in the meantime */
+            if(!pool.entries.contains(onDisk)) return true;
+            onDisk.level = level;
+            onDisk.loaded = true;
+            memoryUsed += levelBytes(pool.cols, pool.rows);
+        }
+        return true;
+    }
+
+    private void generate(Pool pool, int wanted) {
+        long bytes = levelBytes(pool.cols, pool.rows);
+        boolean keep;
+        synchronized(this) {
+            if(pool.entries.size() >= levelsPerSize) return;
+            keep = memoryUsed + bytes <= memoryBudget;
+        }
+
+        long seed = random.nextLong();
+        MazeLevel level = new MazeLevel(pool.cols, pool.rows);
+        generator.generate(level, seed);
+        level.solve();
+        File file = new File(directory, pool.cols + "x" + pool.rows + "-" + Long.toHexString(seed) + SUFFIX);
+        try {
+            MazeFile.writeReplacing(level, file, false);
+        } catch(IOException e) {
+            /* no room on disk - the pool only works from memory while that's the case */
+            file.delete();
+            return;
+        }
+        synchronized(this) {
+            keep &= memoryUsed + bytes <= memoryBudget;
+            if(keep) memoryUsed += bytes;
+            pool.entries.add(new Entry(file, keep ? level : null));
+        }
+    }
+
+    private Pool find(int cols, int rows) {
+        for (Pool pool : pools) {
+            if(pool.cols == cols && pool.rows == rows) return pool;
+        }
+        return null;
+    }
+}
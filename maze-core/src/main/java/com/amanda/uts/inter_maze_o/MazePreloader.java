@@ -0,0 +1,143 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+    Generates the next maze on a background thread while the player is still solving the current
+    one, so that moving on to the next level is just swapping one MazeLevel for another. The
+    distances to the exit are computed right after generating, so a preloaded level is handed out
+    complete.
+
+    Only one maze is queued at a time - a new request replaces an older one which hasn't been
+    taken yet. The generator lives on the background thread and is never touched by the caller.
+
+    Levels which weren't preloaded (the very first one) can be solved on the same thread with
+    solve().
+*/
+public class MazePreloader {
+
+    public interface Callback {
+        /* Called on the background thread as soon as the requested maze is ready */
+        void onMazeReady();
+
+        /* Called on the background thread when a level passed to solve() has its distances */
+        void onLevelSolved(MazeLevel level);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "MazePreloader");
+            /* Don't keep the process alive and don't compete with drawing */
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    /* Guarded by 'this' */
+    private int currentRequest;
+    private MazeLevel ready;
+
+    private volatile Callback callback;
+    private volatile GridStorage storage = GridStorage.HEAP;
+    private volatile File directory;
+
+    /* Only used on the background thread */
+    private LevelGenerator generator;
+
+    public void setCallback(Callback callback) {
+        this.callback = callback;
+    }
+
+    /* Where the grids of the following requests are kept, see MazeGrid.allocate() */
+    public void setStorage(GridStorage storage, File directory) {
+        this.directory = directory;
+        this.storage = storage;
+    }
+
+    /*
+        Start generating the next maze. 'target' picks the start and the exit (null for the
+        corners, see LevelGenerator). 'recycled' is a level the caller doesn't use anymore - if it
+        has the right size the maze is carved into it instead of allocating a new one.
+    */
+    public void request(final int cols, final int rows, final MazeAlgorithm algorithm,
+                        final DifficultyTarget target, final long seed, final MazeLevel recycled) {
+        final int request;
+        synchronized(this) {
+            request = ++currentRequest;
+            ready = null;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                /* Skip the work if a newer request came in while waiting */
+                synchronized(MazePreloader.this) {
+                    if(request != currentRequest) return;
+                }
+
+                GridStorage gridStorage = storage;
+                MazeLevel level = recycled != null && recycled.fits(cols, rows)
+                        && recycled.getGrid().getStorage() == gridStorage
+                        ? recycled : new MazeLevel(cols, rows, gridStorage, directory);
+                if(generator == null) generator = new LevelGenerator(algorithm);
+                generator.setAlgorithm(algorithm);
+                generator.setTarget(target);
+                generator.generate(level, seed);
+                if(!level.isSolved()) level.solve();
+
+                synchronized(MazePreloader.this) {
+                    if(request != currentRequest) return;
+                    ready = level;
+                }
+                Callback listener = callback;
+                if(listener != null) listener.onMazeReady();
+            }
+        });
+    }
+
+    /* Compute the distances of a level which has been generated elsewhere. Queued behind the work
+       which is already waiting. */
+    public void solve(final MazeLevel level) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                level.solve();
+                Callback listener = callback;
+                if(listener != null) listener.onLevelSolved(level);
+            }
+        });
+    }
+
+    /* Write a level to 'file' with MazeFile.writeReplacing(). Queued behind the work which is
+       already waiting; a level which can't be written is simply not there to be restored. */
+    public void save(final MazeLevel level, final File file) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    MazeFile.writeReplacing(level, file, false);
+                } catch(IOException e) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    /* The requested maze, or null if it isn't ready yet. Each maze is handed out only once. */
+    public synchronized MazeLevel take() {
+        MazeLevel level = ready;
+        ready = null;
+        return level;
+    }
+
+    public void shutdown() {
+        callback = null;
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Shape of a maze, collected while DistanceField's breadth-first search passes over every cell
+    anyway, so the stats don't add a pass of their own to that search:
+        - degree histogram: how many cells have 1, 2, 3 or 4 open sides. Cells with one open side
+          are dead ends, cells with three or four are junctions.
+        - longest corridor: most cells in a row with exactly two open sides
+        - solution length: steps from the start to the exit (set once both are known)
+
+    Derived from those:
+        - dead end ratio: dead ends per cell
+        - branching factor: junctions per cell
+        - river factor: cells off the solution path per dead end, i.e. how long the side branches
+          are on average. High in depth-first mazes (few long branches), low in Kruskal or Prim
+          mazes (lots of short ones).
+*/
+public class MazeStats {
+
+    /* cells[d] = number of cells with d open sides */
+    private final int[] degrees = new int[5];
+    private int cells;
+    private int longestCorridor;
+    private int solutionLength;
+
+    void reset(int cells) {
+        for (int i = 0; i < degrees.length; i++) degrees[i] = 0;
+        this.cells = cells;
+        longestCorridor = 0;
+        solutionLength = 0;
+    }
+
+    void countCell(int openSides) {
+        degrees[openSides]++;
+    }
+
+    void countCorridor(int length) {
+        if(length > longestCorridor) longestCorridor = length;
+    }
+
+    void setSolutionLength(int length) {
+        solutionLength = length;
+    }
+
+    public void copyFrom(MazeStats other) {
+        System.arraycopy(other.degrees, 0, degrees, 0, degrees.length);
+        cells = other.cells;
+        longestCorridor = other.longestCorridor;
+        solutionLength = other.solutionLength;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /* Number of cells with the given number (0..4) of open sides */
+    public int getDegreeCount(int openSides) {
+        return degrees[openSides];
+    }
+
+    public int getDeadEnds() {
+        return degrees[1];
+    }
+
+    public int getJunctions() {
+        return degrees[3] + degrees[4];
+    }
+
+    public int getLongestCorridor() {
+        return longestCorridor;
+    }
+
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    public float getDeadEndRatio() {
+        return cells == 0 ? 0 : degrees[1] / (float) cells;
+    }
+
+    public float getBranchingFactor() {
+        return cells == 0 ? 0 : getJunctions() / (float) cells;
+    }
+
+    public float getRiverFactor() {
+        int offPath = cells - (solutionLength + 1);
+        return degrees[1] == 0 ? offPath : offPath / (float) degrees[1];
+    }
+
+    @Override
+    public String toString() {
+        return "solution " + solutionLength + ", dead ends " + getDeadEnds() + ", junctions " + getJunctions()
+                + ", longest corridor " + longestCorridor + ", river " + getRiverFactor();
+    }
+}
@@ -0,0 +1,99 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Arrays;
+
+/*
+    Records the player's moves through a level, to play them back later (MoveReplay) - e.g. as a
+    ghost racing the player through the same maze.
+
+    A move is its direction and the time since the previous move, in milliseconds. The first byte
+    holds
+        bits 0-1  Direction ordinal
+        bit  2    set if more bytes of the time follow
+        bits 3-7  the lowest 5 bits of the time
+    and the rest of the time follows as a varint: 7 bits per byte, lowest first, the top bit set if
+    another byte follows. Moves up to 31 ms apart (the rolling ball) take one byte, up to 4 s apart
+    (a player tilting cell by cell) two.
+
+    The bytes go into an array which doubles whenever it gets full, so recording a move doesn't
+    allocate. Times are kept relative to start() in whole milliseconds, so rounding the deltas
+    never adds up. Not thread-safe - owned by the thread which runs the game.
+*/
+public class MoveRecorder {
+
+    /* Bytes a single move takes at most */
+    static final int MAX_MOVE_BYTES = 5;
+    /* 5 bits in the first byte and 7 in each of the other four - pauses of more than 99 days
+       are cut short */
+    static final long MAX_DELTA_MILLIS = (1L << 33) - 1;
+    static final long NANOS_PER_MILLI = 1000000L;
+
+    private byte[] bytes;
+    private int length, moveCount;
+    private int start;
+    private long startNanos, lastMillis;
+
+    public MoveRecorder() {
+        this(256);
+    }
+
+    /* Room for about capacity / 2 moves before the buffer has to grow */
+    public MoveRecorder(int capacity) {
+        bytes = new byte[Math.max(MAX_MOVE_BYTES, capacity)];
+    }
+
+    /* Forget the moves so far and start recording from 'cell' at the time 'nanos'
+       (System.nanoTime()) */
+    public void start(int cell, long nanos) {
+        start = cell;
+        startNanos = nanos;
+        lastMillis = 0;
+        length = 0;
+        moveCount = 0;
+    }
+
+    public void record(Direction direction, long nanos) {
+        if(length + MAX_MOVE_BYTES > bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        long millis = (nanos - startNanos) / NANOS_PER_MILLI;
+        long delta = Math.max(0, Math.min(MAX_DELTA_MILLIS, millis - lastMillis));
+        lastMillis += delta;
+
+        int first = direction.ordinal() | (int) (delta & 0x1f) << 3;
+        delta >>>= 5;
+        if(delta == 0) {
+            bytes[length++] = (byte) first;
+        } else {
+            bytes[length++] = (byte) (first | 4);
+            while(delta >= 0x80) {
+                bytes[length++] = (byte) (delta | 0x80);
+                delta >>>= 7;
+            }
+            bytes[length++] = (byte) delta;
+        }
+        moveCount++;
+    }
+
+    /* Cell the recording started from */
+    public int getStart() {
+        return start;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /* The recorded moves - the first getLength() bytes are valid. The array is replaced when it
+       grows, don't hold on to it while recording. */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /* Time from start() to the last move */
+    public long getDurationMillis() {
+        return lastMillis;
+    }
+}
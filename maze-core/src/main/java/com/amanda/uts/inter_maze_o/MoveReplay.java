@@ -0,0 +1,118 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Plays moves recorded by MoveRecorder back on a grid, at any speed - 1 for the pace they were
+    made at, 2 for twice as fast and so on. advance() is called with the time passed, like
+    BallPhysics.advance(), and makes the moves which are due; each move is decoded only when it
+    is reached, and nothing is allocated.
+
+    The moves have to belong to the maze they're played on: a move into a wall means the recording
+    was made in another maze, and stops the replay with an IllegalStateException.
+
+    Not thread-safe - owned by the thread which runs the game.
+*/
+public class MoveReplay {
+
+    private final MazeGrid grid;
+    private final byte[] bytes;
+    private final int length;
+    private final int start;
+    private float speed = 1;
+
+    private int cell, position, movesMade;
+    /* Replay time, scaled by the speed */
+    private long elapsedNanos;
+    /* The next move and when it is due, null once all moves have been made */
+    private Direction next;
+    private long nextMillis;
+
+    /* The first 'length' bytes of 'bytes' are moves starting from 'start' - the array is used as
+       it is, not copied */
+    public MoveReplay(MazeGrid grid, int start, byte[] bytes, int length) {
+        this.grid = grid;
+        this.start = start;
+        this.bytes = bytes;
+        this.length = length;
+        rewind();
+    }
+
+    /* Back to the start cell, before the first move */
+    public void rewind() {
+        cell = start;
+        position = 0;
+        movesMade = 0;
+        elapsedNanos = 0;
+        nextMillis = 0;
+        decodeNext();
+    }
+
+    /* Playback speed relative to the recording, e.g. 4 to fast forward */
+    public void setSpeed(float speed) {
+        this.speed = Math.max(0, speed);
+    }
+
+    /* Play on by 'nanos' of real time. Returns the number of moves made. */
+    public int advance(long nanos) {
+        double scaled = nanos * (double) speed;
+        elapsedNanos = scaled >= Long.MAX_VALUE - elapsedNanos ? Long.MAX_VALUE : elapsedNanos + (long) scaled;
+        return play();
+    }
+
+    /* Make all remaining moves at once, whatever the speed */
+    public int finish() {
+        elapsedNanos = Long.MAX_VALUE;
+        return play();
+    }
+
+    /* Make the moves which are due by elapsedNanos */
+    private int play() {
+        int count = 0;
+        while(next != null && nextMillis <= elapsedNanos / MoveRecorder.NANOS_PER_MILLI) {
+            if(grid.hasWall(cell, next)) {
+                throw new IllegalStateException("Move " + movesMade + " runs into a wall - recorded in another maze");
+            }
+            cell = grid.neighbour(cell, next);
+            movesMade++;
+            count++;
+            decodeNext();
+        }
+        return count;
+    }
+
+    private void decodeNext() {
+        if(position >= length) {
+            next = null;
+            return;
+        }
+        int first = bytes[position++] & 0xff;
+        long delta = first >>> 3;
+        if((first & 4) != 0) {
+            int shift = 5;
+            int b;
+            do {
+                /* cut off in the middle of a move */
+                if(position >= length || shift > 33) {
+                    next = null;
+                    return;
+                }
+                b = bytes[position++];
+                delta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while((b & 0x80) != 0);
+        }
+        next = Direction.ALL[first & 3];
+        nextMillis += delta;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    public int getMovesMade() {
+        return movesMade;
+    }
+
+    public boolean isFinished() {
+        return next == null;
+    }
+}
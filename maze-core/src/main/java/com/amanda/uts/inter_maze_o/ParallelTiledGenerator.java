@@ -0,0 +1,160 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+    Multi-core generation for very large grids:
+        1) Split the grid into square tiles
+        2) Carve every tile on its own with depth-first search, spread over a ForkJoinPool. Each
+           tile only writes its own cells, so the tiles don't need any locking.
+        3) Join the tiles: carve a small depth-first maze over the tiles themselves (one "cell"
+           per tile) and, for every passage in it, open one random wall on the edge shared by
+           those two tiles
+
+    Every tile is a perfect maze and the tiles are joined along a spanning tree, so the whole
+    grid is a perfect maze again.
+
+    The seeds of all tiles and the joining passages are drawn from the caller's Random, in tile
+    order, before any work is forked. The result therefore only depends on the seed - never on
+    the number of threads or on which thread carved which tile.
+
+    Generators made with the default constructor (MazeAlgorithm.newGenerator()) share one pool of
+    one thread per core for the whole process, so making new generators doesn't leave pools
+    behind. A generator with its own thread count owns its pool and stops it with shutdown().
+*/
+public class ParallelTiledGenerator implements MazeGenerator {
+
+    public static final int DEFAULT_TILE_SIZE = 128;
+
+    /* Guarded by the class, created with the first default generator that needs it */
+    private static ForkJoinPool sharedPool;
+
+    private final int threads;
+    private final int tileSize;
+    private final boolean shared;
+    private ForkJoinPool pool;
+
+    /* Every worker thread keeps its own generator, together with its stack */
+    private final ThreadLocal<DepthFirstGenerator> tileGenerators = new ThreadLocal<DepthFirstGenerator>() {
+        @Override
+        protected DepthFirstGenerator initialValue() {
+            return new DepthFirstGenerator();
+        }
+    };
+    private final DepthFirstGenerator tileTreeGenerator = new DepthFirstGenerator();
+    private long[] seeds = new long[0];
+    /* One cell per tile, kept for the next maze of the same size */
+    private MazeGrid tiles;
+
+    public ParallelTiledGenerator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_TILE_SIZE, true);
+    }
+
+    public ParallelTiledGenerator(int threads, int tileSize) {
+        this(threads, tileSize, false);
+    }
+
+    private ParallelTiledGenerator(int threads, int tileSize, boolean shared) {
+        if(threads <= 0 || tileSize <= 0) {
+            throw new IllegalArgumentException("threads and tileSize must be positive");
+        }
+        this.threads = threads;
+        this.tileSize = tileSize;
+        this.shared = shared;
+    }
+
+    @Override
+    public void generate(final MazeGrid grid, Random random) {
+        grid.reset();
+
+        final int tilesX = (grid.getCols() + tileSize - 1) / tileSize;
+        final int tilesY = (grid.getRows() + tileSize - 1) / tileSize;
+        int tileCount = tilesX * tilesY;
+
+        if(seeds.length < tileCount) seeds = new long[tileCount];
+        for (int tile = 0; tile < tileCount; tile++) seeds[tile] = random.nextLong();
+
+        /* Small mazes aren't worth handing over to other threads */
+        if(tileCount == 1 || threads == 1) {
+            for (int tile = 0; tile < tileCount; tile++) carveTile(grid, tile, tilesX);
+        } else {
+            if(pool == null) pool = shared ? sharedPool(threads) : new ForkJoinPool(threads);
+            pool.invoke(new TileTask(grid, tilesX, 0, tileCount));
+        }
+
+        /* Join the tiles along a spanning tree of the tiles */
+        if(tiles == null || tiles.getCols() != tilesX || tiles.getRows() != tilesY) {
+            tiles = new MazeGrid(tilesX, tilesY);
+        }
+        tileTreeGenerator.generate(tiles, random);
+        for (int tile = 0; tile < tileCount; tile++) {
+            int tileCol = tile % tilesX;
+            int tileRow = tile / tilesX;
+            if(!tiles.hasRightWall(tile)) {
+                /* Open the right wall of a random cell in the tile's last column */
+                int col = Math.min((tileCol + 1) * tileSize, grid.getCols()) - 1;
+                int row = tileRow * tileSize + random.nextInt(tileHeight(grid, tileRow));
+                grid.removeWall(grid.index(col, row), Direction.RIGHT);
+            }
+            if(!tiles.hasBottomWall(tile)) {
+                /* Open the bottom wall of a random cell in the tile's last row */
+                int row = Math.min((tileRow + 1) * tileSize, grid.getRows()) - 1;
+                int col = tileCol * tileSize + random.nextInt(tileWidth(grid, tileCol));
+                grid.removeWall(grid.index(col, row), Direction.DOWN);
+            }
+        }
+    }
+
+    /* Stop the worker threads, the generator can't be used afterwards. The shared pool of the
+       default generators keeps running - its threads are daemons and idle ones time out. */
+    public void shutdown() {
+        if(pool != null && !shared) pool.shutdown();
+    }
+
+    private static synchronized ForkJoinPool sharedPool(int threads) {
+        if(sharedPool == null) sharedPool = new ForkJoinPool(threads);
+        return sharedPool;
+    }
+
+    private int tileWidth(MazeGrid grid, int tileCol) {
+        return Math.min(tileSize, grid.getCols() - tileCol * tileSize);
+    }
+
+    private int tileHeight(MazeGrid grid, int tileRow) {
+        return Math.min(tileSize, grid.getRows() - tileRow * tileSize);
+    }
+
+    private void carveTile(MazeGrid grid, int tile, int tilesX) {
+        int tileCol = tile % tilesX;
+        int tileRow = tile / tilesX;
+        tileGenerators.get().generateRegion(grid, new Random(seeds[tile]),
+                tileCol * tileSize, tileRow * tileSize,
+                tileWidth(grid, tileCol), tileHeight(grid, tileRow));
+    }
+
+    /* Splits the range of tiles in halves until a single tile is left. Never serialized. */
+    @SuppressWarnings("serial")
+    private class TileTask extends RecursiveAction {
+        private final MazeGrid grid;
+        private final int tilesX, from, to;
+
+        TileTask(MazeGrid grid, int tilesX, int from, int to) {
+            this.grid = grid;
+            this.tilesX = tilesX;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                carveTile(grid, from, tilesX);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(grid, tilesX, from, middle), new TileTask(grid, tilesX, middle, to));
+            }
+        }
+    }
+}
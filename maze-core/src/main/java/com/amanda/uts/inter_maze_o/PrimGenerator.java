@@ -0,0 +1,80 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Randomized Prim's algorithm:
+        1) Add a random cell to the maze and put its neighbours into the frontier
+        2) While the frontier isn't empty:
+            2.1) Take a random cell out of the frontier
+            2.2) Connect it to a random neighbour which is already part of the maze
+            2.3) Put its neighbours which are neither in the maze nor in the frontier into the
+                 frontier
+
+    The frontier is a plain int[] of cell indices. A random cell is taken out by moving the last
+    entry into its slot, so removal is constant time. 'visited' marks the cells in the maze and
+    a separate flag array marks the cells in the frontier.
+
+    The maze grows outwards from the first cell, which gives lots of short dead ends.
+*/
+public class PrimGenerator implements MazeGenerator {
+
+    private int[] frontier = new int[0];
+    private boolean[] inFrontier = new boolean[0];
+    private final int[] neighbours = new int[4];
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        grid.reset();
+
+        int size = grid.size();
+        if(frontier.length < size) {
+            frontier = new int[size];
+            inFrontier = new boolean[size];
+        }
+
+        int first = random.nextInt(size);
+        grid.setVisited(first);
+        int count = addFrontier(grid, first, 0);
+
+        while(count > 0) {
+            int slot = random.nextInt(count);
+            int cell = frontier[slot];
+            frontier[slot] = frontier[--count];
+            inFrontier[cell] = false;
+
+            /* Pick one of the neighbours which are already in the maze */
+            int cols = grid.getCols();
+            int found = 0;
+            int col = cell % cols;
+            if(col > 0 && grid.isVisited(cell - 1)) neighbours[found++] = cell - 1;
+            if(cell >= cols && grid.isVisited(cell - cols)) neighbours[found++] = cell - cols;
+            if(col < cols - 1 && grid.isVisited(cell + 1)) neighbours[found++] = cell + 1;
+            if(cell < size - cols && grid.isVisited(cell + cols)) neighbours[found++] = cell + cols;
+
+            grid.removeWall(cell, neighbours[found == 1 ? 0 : random.nextInt(found)]);
+            grid.setVisited(cell);
+            count = addFrontier(grid, cell, count);
+        }
+    }
+
+    /* Put the cell's neighbours which are outside of the maze into the frontier */
+    private int addFrontier(MazeGrid grid, int cell, int count) {
+        int cols = grid.getCols();
+        int size = grid.size();
+        int col = cell % cols;
+        if(col > 0) count = add(grid, cell - 1, count);
+        if(cell >= cols) count = add(grid, cell - cols, count);
+        if(col < cols - 1) count = add(grid, cell + 1, count);
+        if(cell < size - cols) count = add(grid, cell + cols, count);
+        return count;
+    }
+
+    private int add(MazeGrid grid, int cell, int count) {
+        if(!grid.isVisited(cell) && !inFrontier[cell]) {
+            inFrontier[cell] = true;
+            frontier[count++] = cell;
+        }
+        return count;
+    }
+}
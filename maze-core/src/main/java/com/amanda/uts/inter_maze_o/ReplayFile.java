@@ -0,0 +1,154 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/*
+    One run through a level: which maze it was and the moves recorded by MoveRecorder.
+
+    The walls aren't saved - the seed stands for them. The same seed, size, algorithm and
+    difficulty carve the same level again (see LevelGenerator), and matches() tells whether a
+    level is the one the run was recorded in. So a run costs the header plus about two bytes per
+    move, a few hundred bytes for a whole level.
+
+    File layout (big endian), HEADER_SIZE bytes of header like MazeFile:
+        int    magic "MZRP"
+        short  version
+        short  flags, 0
+        int    columns, rows
+        long   seed of the level
+        int    MazeAlgorithm ordinal, -1 if unknown
+        int    cell the recording starts from, exit cell
+        int    number of moves
+        int    number of bytes of moves
+    followed by the moves.
+*/
+public class ReplayFile {
+
+    static final int MAGIC = 0x4d5a5250;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 44;
+
+    private int cols, rows, start, exit, moveCount;
+    private long seed;
+    private MazeAlgorithm algorithm;
+    private byte[] moves;
+
+    private ReplayFile() { }
+
+    /* The moves recorded so far in 'level', copied */
+    public static ReplayFile of(MazeLevel level, MoveRecorder recorder) {
+        ReplayFile replay = new ReplayFile();
+        replay.cols = level.getGrid().getCols();
+        replay.rows = level.getGrid().getRows();
+        replay.seed = level.getSeed();
+        replay.algorithm = level.getAlgorithm();
+        replay.start = recorder.getStart();
+        replay.exit = level.getExit();
+        replay.moveCount = recorder.getMoveCount();
+        replay.moves = Arrays.copyOf(recorder.getBytes(), recorder.getLength());
+        return replay;
+    }
+
+    /* Whether this run was recorded in 'level' - as far as the seed tells */
+    public boolean matches(MazeLevel level) {
+        return level.fits(cols, rows) && level.getSeed() == seed && level.getAlgorithm() == algorithm
+                && level.getExit() == exit;
+    }
+
+    /* Play the run back in 'grid', which has to hold the level it was recorded in */
+    public MoveReplay newReplay(MazeGrid grid) {
+        return new MoveReplay(grid, start, moves, moves.length);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + moves.length);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putInt(cols)
+                .putInt(rows)
+                .putLong(seed)
+                .putInt(algorithm == null ? -1 : algorithm.ordinal())
+                .putInt(start)
+                .putInt(exit)
+                .putInt(moveCount)
+                .putInt(moves.length)
+                .put(moves);
+        return buffer.array();
+    }
+
+    public static ReplayFile fromBytes(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if(bytes.length < HEADER_SIZE || buffer.getInt() != MAGIC) throw new IOException("Not a replay file");
+        short version = buffer.getShort();
+        if(version != VERSION) throw new IOException("Unsupported replay file version " + version);
+        buffer.getShort();
+
+        ReplayFile replay = new ReplayFile();
+        replay.cols = buffer.getInt();
+        replay.rows = buffer.getInt();
+        if(replay.cols <= 0 || replay.rows <= 0 || (long) replay.cols * replay.rows > Integer.MAX_VALUE) {
+            throw new IOException("Bad maze size " + replay.cols + " x " + replay.rows);
+        }
+        replay.seed = buffer.getLong();
+        int algorithm = buffer.getInt();
+        MazeAlgorithm[] algorithms = MazeAlgorithm.values();
+        if(algorithm < -1 || algorithm >= algorithms.length) throw new IOException("Unknown maze algorithm " + algorithm);
+        replay.algorithm = algorithm < 0 ? null : algorithms[algorithm];
+        replay.start = buffer.getInt();
+        replay.exit = buffer.getInt();
+        int size = replay.cols * replay.rows;
+        if(replay.start < 0 || replay.start >= size || replay.exit < 0 || replay.exit >= size) {
+            throw new IOException("Start or exit outside the maze");
+        }
+        replay.moveCount = buffer.getInt();
+        int length = buffer.getInt();
+        if(length < 0 || length != buffer.remaining()) throw new IOException("Corrupt replay file");
+        replay.moves = new byte[length];
+        buffer.get(replay.moves);
+        return replay;
+    }
+
+    public void write(File file) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = out.getChannel();
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.wrap(toBytes());
+            while(buffer.hasRemaining()) channel.write(buffer);
+        } finally {
+            out.close();
+        }
+    }
+
+    public static ReplayFile read(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            long size = in.length();
+            if(size > Integer.MAX_VALUE) throw new IOException("Not a replay file");
+            byte[] bytes = new byte[(int) size];
+            in.readFully(bytes);
+            return fromBytes(bytes);
+        } finally {
+            in.close();
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /* Bytes the moves take, without the header */
+    public int getMovesLength() {
+        return moves.length;
+    }
+}
@@ -0,0 +1,59 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Hands the latest sensor values from the sensor callback to whoever consumes them, without
+    locks and without allocating.
+
+    It's a sequence lock with a single writer: the sequence number is odd while a write is in
+    progress and advances by two with every finished write. A reader copies the values and then
+    checks that the sequence number is even and didn't change in the meantime, otherwise it simply
+    tries again. Older values are overwritten - consumers only care about the most recent sample.
+
+    All fields are volatile, so the reads and writes can't be reordered around the sequence number.
+*/
+public class SensorSlot {
+
+    /* Reusable holder for one sample, owned by the reader */
+    public static class Sample {
+        public float x, y, z;
+        /* SensorEvent.timestamp, in nanoseconds */
+        public long timestamp;
+        /* Sequence number of the write this sample was copied from, 0 for none */
+        int sequence;
+    }
+
+    private volatile int sequence;
+    private volatile float x, y, z;
+    private volatile long timestamp;
+
+    /* Only ever call from one thread */
+    public void write(float x, float y, float z, long timestamp) {
+        int start = sequence;
+        sequence = start + 1;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.timestamp = timestamp;
+        sequence = start + 2;
+    }
+
+    /* Copy the latest sample into 'out'. Returns false if nothing was written since the sample
+       'out' already holds. */
+    public boolean read(Sample out) {
+        while(true) {
+            int before = sequence;
+            if((before & 1) != 0) continue;
+            if(before == out.sequence) return false;
+            float readX = x, readY = y, readZ = z;
+            long readTimestamp = timestamp;
+            if(sequence != before) continue;
+
+            out.x = readX;
+            out.y = readY;
+            out.z = readZ;
+            out.timestamp = readTimestamp;
+            out.sequence = before;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Sidewinder algorithm, row by row:
+        1) Random bits decide for every cell whether the current run of cells goes on to the
+           right (the wall between them is opened) or ends at this cell
+        2) Every run opens the top wall of one of its cells, chosen at random
+    The first row is a single run without any top walls to open.
+
+    Step 1 takes 64 cells per random long, like BinaryTreeGenerator. Step 2 only visits the
+    ends of the runs, found with Long.numberOfTrailingZeros(), about one in two cells, and gets
+    four picks out of one random long.
+
+    Less biased than the binary tree - there's no long corridor along the right side - but the
+    first row is still always one open corridor.
+*/
+public class SidewinderGenerator extends BitRowGenerator {
+
+    @Override
+    void carve(BitMaze maze, Xoshiro256 random) {
+        int rows = maze.getRows(), words = maze.getWordsPerRow();
+        long[] right = maze.rightWalls, bottom = maze.bottomWalls;
+        long lastMask = maze.lastWordMask();
+        long lastColumn = Long.highestOneBit(lastMask);
+
+        for (int row = 0; row < rows; row++) {
+            int base = row * words;
+            int above = base - words;
+            /* first cell of the run in progress */
+            int runStart = 0;
+            /* random bits for picking cells, 16 per pick - runs are hardly ever longer than a few
+               dozen cells, so that's plenty for an even choice */
+            long pickBits = 0;
+            int picksLeft = 0;
+            for (int word = 0; word < words; word++) {
+                boolean last = word == words - 1;
+                long cells = last ? lastMask : -1L;
+                long open = last ? cells & ~lastColumn : cells;
+                long east = row == 0 ? open : random.nextLong() & open;
+                right[base + word] = cells & ~east;
+                bottom[base + word] = cells;
+                if(row == 0) continue;
+
+                /* every cell which doesn't continue to the right ends a run */
+                long ends = cells & ~east;
+                while(ends != 0) {
+                    int end = (word << 6) + Long.numberOfTrailingZeros(ends);
+                    if(picksLeft == 0) {
+                        pickBits = random.nextLong();
+                        picksLeft = 4;
+                    }
+                    int pick = runStart + (int) (((pickBits & 0xffff) * (end - runStart + 1)) >>> 16);
+                    pickBits >>>= 16;
+                    picksLeft--;
+                    /* shifts only use the low 6 bits, i.e. the column within its word */
+                    bottom[above + (pick >>> 6)] &= ~(1L << pick);
+                    runStart = end + 1;
+                    ends &= ends - 1;
+                }
+            }
+        }
+    }
+}
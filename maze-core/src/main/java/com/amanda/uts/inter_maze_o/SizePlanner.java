@@ -0,0 +1,216 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Works out whether a custom maze size fits into the memory of the device, where its grid has
+    to be kept (GridStorage) and roughly how long it takes to carve and solve - before anything is
+    allocated, so an impossible size is an error message and not an OutOfMemoryError.
+
+    The estimate adds up what a running MazeGame keeps per cell:
+        - two grids of 1 byte per cell, the current level and the next one being preloaded
+        - two solvers: a DistanceField of 13 bytes per cell (distances, the BFS queue, steps and
+          corridor lengths), or about 1.25 bytes for the ClusterPathfinder of levels of
+          MazeLevel.HIERARCHICAL_CELLS and more. A difficulty target needs the distance field at
+          every size, and LevelGenerator keeps a spare one.
+        - two working sets of the generator, MazeGame's and the preloader's (see
+          generatorBytes()); generators keep their buffers between mazes
+    Everything but the grids stays on the heap. The grids are moved off it as the first tier
+    that has room allows: HEAP, then DIRECT, then MAPPED.
+
+    Times come from the JMH benchmarks in the README, multiplied by setSlowdown() for devices
+    slower than the machine they were measured on. They are meant to tell seconds from minutes,
+    nothing more.
+*/
+public class SizePlanner {
+
+    /* Grids per game: the current level and the preloaded one */
+    static final int LEVELS = 2;
+    static final double DISTANCE_FIELD_BYTES = DistanceField.BYTES_PER_CELL;
+    static final double CLUSTER_BYTES = 1.25;
+    /* Carving into a ByteBuffer instead of a byte array (GridStorageBenchmark) */
+    static final double OFF_HEAP_FACTOR = 1.3;
+    /* Cells per millisecond, from the README */
+    static final double BFS_CELLS_PER_MILLI = 14000;
+    static final double CLUSTER_CELLS_PER_MILLI = 6600;
+
+    public static class Plan {
+        private final long cells;
+        private final GridStorage storage;
+        private final long heapBytes, offHeapBytes;
+        private final long generateMillis, solveMillis;
+
+        Plan(long cells, GridStorage storage, long heapBytes, long offHeapBytes, long generateMillis, long solveMillis) {
+            this.cells = cells;
+            this.storage = storage;
+            this.heapBytes = heapBytes;
+            this.offHeapBytes = offHeapBytes;
+            this.generateMillis = generateMillis;
+            this.solveMillis = solveMillis;
+        }
+
+        public boolean fits() {
+            return storage != null;
+        }
+
+        public long getCells() {
+            return cells;
+        }
+
+        /* Where the grids go, null if the maze doesn't fit anywhere */
+        public GridStorage getStorage() {
+            return storage;
+        }
+
+        /* Bytes of the Java heap the game needs for mazes of this size */
+        public long getHeapBytes() {
+            return heapBytes;
+        }
+
+        /* Bytes of direct buffers or scratch files */
+        public long getOffHeapBytes() {
+            return offHeapBytes;
+        }
+
+        /* Time until a level can be played */
+        public long getGenerateMillis() {
+            return generateMillis;
+        }
+
+        /* Time until the hints are there, on the background thread */
+        public long getSolveMillis() {
+            return solveMillis;
+        }
+
+        @Override
+        public String toString() {
+            return cells + " cells: " + (storage == null ? "doesn't fit" : storage.toString())
+                    + ", " + heapBytes / 1024 + " KB heap, " + offHeapBytes / 1024 + " KB off heap, "
+                    + generateMillis + " ms to generate, " + solveMillis + " ms to solve";
+        }
+    }
+
+    private final long heapBytes;
+    private long directBytes;
+    private long mappedBytes;
+    private double slowdown = 1;
+
+    /* 'heapBytes' of the Java heap may be spent on mazes */
+    public SizePlanner(long heapBytes) {
+        this.heapBytes = heapBytes;
+    }
+
+    /* Room for direct buffers outside of the heap - 0 (the default) where there is none, like on
+       Android */
+    public void setDirectBytes(long directBytes) {
+        this.directBytes = directBytes;
+    }
+
+    /* Disk space for mapped scratch files, 0 (the default) for none */
+    public void setMappedBytes(long mappedBytes) {
+        this.mappedBytes = mappedBytes;
+    }
+
+    /* How many times slower than the benchmark machine this one is */
+    public void setSlowdown(double slowdown) {
+        this.slowdown = Math.max(1, slowdown);
+    }
+
+    public Plan plan(int cols, int rows, MazeAlgorithm algorithm, DifficultyTarget difficulty) {
+        if(cols <= 0 || rows <= 0) return new Plan(0, null, 0, 0, 0, 0);
+        return plan((long) cols * rows, algorithm, difficulty);
+    }
+
+    public Plan plan(long cells, MazeAlgorithm algorithm, DifficultyTarget difficulty) {
+        boolean flat = difficulty != null || cells < MazeLevel.HIERARCHICAL_CELLS;
+        double perCell = LEVELS * ((flat ? DISTANCE_FIELD_BYTES : CLUSTER_BYTES) + generatorBytes(algorithm));
+        if(difficulty != null) perCell += LEVELS * DISTANCE_FIELD_BYTES;
+        long other = (long) Math.ceil(cells * perCell);
+        long grids = LEVELS * cells;
+
+        GridStorage storage = null;
+        if(cells <= Integer.MAX_VALUE && other <= heapBytes) {
+            if(other + grids <= heapBytes) {
+                storage = GridStorage.HEAP;
+            } else if(grids <= directBytes) {
+                storage = GridStorage.DIRECT;
+            } else if(grids <= mappedBytes) {
+                storage = GridStorage.MAPPED;
+            }
+        }
+        boolean onHeap = storage == null || storage == GridStorage.HEAP;
+
+        /* With a difficulty two searches place start and exit before the level can start */
+        double generate = cells / generatorCellsPerMilli(algorithm) * (onHeap ? 1 : OFF_HEAP_FACTOR);
+        if(difficulty != null) generate += 2 * cells / BFS_CELLS_PER_MILLI;
+        double solve = difficulty != null ? 0 : cells / (flat ? BFS_CELLS_PER_MILLI : CLUSTER_CELLS_PER_MILLI);
+        return new Plan(cells, storage, onHeap ? other + grids : other, onHeap ? 0 : grids,
+                (long) Math.ceil(generate * slowdown), (long) Math.ceil(solve * slowdown));
+    }
+
+    /* The most cells which fit, whatever the shape. Levels of HIERARCHICAL_CELLS need less memory
+       per cell than smaller ones, so both ranges are searched on their own. */
+    public long maxCells(MazeAlgorithm algorithm, DifficultyTarget difficulty) {
+        long hierarchical = maxCells(MazeLevel.HIERARCHICAL_CELLS - 1, Integer.MAX_VALUE, algorithm, difficulty);
+        if(hierarchical >= MazeLevel.HIERARCHICAL_CELLS) return hierarchical;
+        return maxCells(0, MazeLevel.HIERARCHICAL_CELLS - 1, algorithm, difficulty);
+    }
+
+    /* Binary search between 'low', taken to fit, and 'high' */
+    private long maxCells(long low, long high, MazeAlgorithm algorithm, DifficultyTarget difficulty) {
+        while(low < high) {
+            long middle = (low + high + 1) >>> 1;
+            if(plan(middle, algorithm, difficulty).fits()) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /* Side of the largest square maze which fits */
+    public int maxSide(MazeAlgorithm algorithm, DifficultyTarget difficulty) {
+        return (int) Math.sqrt((double) maxCells(algorithm, difficulty));
+    }
+
+    /* Bytes per cell the generator keeps, see the table in the README */
+    static double generatorBytes(MazeAlgorithm algorithm) {
+        switch(algorithm) {
+            case KRUSKAL:
+                return 16;
+            case WILSON:
+                return 1;
+            case PRIM:
+                return 5;
+            case BINARY_TREE:
+            case SIDEWINDER:
+                return 0.25;
+            case ELLER:
+            case PARALLEL_TILED:
+                return 0;
+            default:
+                return 4;
+        }
+    }
+
+    /* Measured with GeneratorBenchmark and BitRowGeneratorBenchmark at the largest size */
+    static double generatorCellsPerMilli(MazeAlgorithm algorithm) {
+        switch(algorithm) {
+            case KRUSKAL:
+                return 2600;
+            case WILSON:
+                return 5500;
+            case PRIM:
+                return 11400;
+            case ELLER:
+                return 13200;
+            case PARALLEL_TILED:
+                return 26800;
+            case BINARY_TREE:
+                return 820000;
+            case SIDEWINDER:
+                return 254000;
+            default:
+                return 25700;
+        }
+    }
+}
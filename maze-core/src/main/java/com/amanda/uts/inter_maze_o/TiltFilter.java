@@ -0,0 +1,122 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Turns the game rotation vector's x and y values into moves of the player, away from the sensor
+    callback:
+        - low-pass filter - smooths out jitter from single sensor events
+        - dead zone - values close to zero are treated as zero, so the filtered value settles
+        - thresholds with hysteresis - a direction is entered when the value crosses its
+          threshold and only left once the value falls back below the threshold minus the
+          hysteresis, so noise around the threshold can't produce double steps
+        - repeat rate - while a direction is held, the player moves once right away and then every
+          'repeat interval'
+
+    In portrait mode tilting around the x axis moves the player up and down and tilting around the
+    y axis moves it left and right. In landscape mode (front camera on the left) it is the other
+    way round, with symmetric thresholds.
+
+    Not thread-safe - owned by the thread which consumes the samples.
+*/
+public class TiltFilter {
+
+    /* Thresholds (in the sensor's units) for DOWN, UP, RIGHT and LEFT */
+    private static final float[] PORTRAIT_THRESHOLDS = { 0.2f, 0.1f, 0.15f, 0.15f };
+    private static final float[] LANDSCAPE_THRESHOLDS = { 0.2f, 0.2f, 0.2f, 0.2f };
+
+    private float smoothing = 0.5f;
+    private float deadZone = 0.05f;
+    private float hysteresis = 0.05f;
+    private long repeatIntervalNanos = 200000000L;
+    private float[] thresholds = PORTRAIT_THRESHOLDS;
+
+    private float filteredX, filteredY;
+    /* Direction currently held on each axis (null if none) and when it last moved the player */
+    private Direction vertical, horizontal;
+    private long verticalMoved, horizontalMoved;
+
+    /* 0..1 - how much of each new value goes into the filtered value, 1 turns the filter off */
+    public void setSmoothing(float smoothing) {
+        this.smoothing = Math.max(0.01f, Math.min(1, smoothing));
+    }
+
+    public void setDeadZone(float deadZone) {
+        this.deadZone = deadZone;
+    }
+
+    public void setHysteresis(float hysteresis) {
+        this.hysteresis = hysteresis;
+    }
+
+    /* How often the player keeps moving while the device stays tilted */
+    public void setRepeatInterval(long nanos) {
+        repeatIntervalNanos = nanos;
+    }
+
+    public void setPortrait(boolean portrait) {
+        thresholds = portrait ? PORTRAIT_THRESHOLDS : LANDSCAPE_THRESHOLDS;
+    }
+
+    /* Forget the filtered values and held directions, e.g. when the sensor is turned off */
+    public void reset() {
+        filteredX = filteredY = 0;
+        vertical = horizontal = null;
+    }
+
+    /* Feed the latest x and y values at time 'now'. Writes the moves to make into 'moves' (up to
+       two) and returns how many there are. Call it regularly even without new values, so that
+       held directions repeat. */
+    public int update(float x, float y, long now, Direction[] moves) {
+        filteredX += smoothing * (deadZone(x) - filteredX);
+        filteredY += smoothing * (deadZone(y) - filteredY);
+
+        boolean portrait = thresholds == PORTRAIT_THRESHOLDS;
+        /* The vertical axis is x, the horizontal axis is y in both orientations */
+        Direction newVertical = hold(vertical, filteredX, Direction.DOWN, thresholds[0], Direction.UP, thresholds[1]);
+        Direction newHorizontal = hold(horizontal, filteredY, Direction.RIGHT, thresholds[2], Direction.LEFT, thresholds[3]);
+
+        int count = 0;
+        /* portrait mode moves vertically first, landscape mode horizontally first */
+        if(portrait) {
+            count = step(newVertical, true, now, moves, count);
+            count = step(newHorizontal, false, now, moves, count);
+        } else {
+            count = step(newHorizontal, false, now, moves, count);
+            count = step(newVertical, true, now, moves, count);
+        }
+        return count;
+    }
+
+    private float deadZone(float value) {
+        return Math.abs(value) < deadZone ? 0 : value;
+    }
+
+    /* Which direction of an axis is held after this value, taking the hysteresis into account */
+    private Direction hold(Direction held, float value, Direction positive, float positiveThreshold,
+                           Direction negative, float negativeThreshold) {
+        if(held == positive && value > positiveThreshold - hysteresis) return positive;
+        if(held == negative && value < -negativeThreshold + hysteresis) return negative;
+        if(value > positiveThreshold) return positive;
+        if(value < -negativeThreshold) return negative;
+        return null;
+    }
+
+    private int step(Direction direction, boolean verticalAxis, long now, Direction[] moves, int count) {
+        Direction previous = verticalAxis ? vertical : horizontal;
+        long lastMove = verticalAxis ? verticalMoved : horizontalMoved;
+
+        boolean move = direction != null && (direction != previous || now - lastMove >= repeatIntervalNanos);
+        if(move) {
+            moves[count++] = direction;
+            lastMove = now;
+        }
+
+        if(verticalAxis) {
+            vertical = direction;
+            verticalMoved = lastMove;
+        } else {
+            horizontal = direction;
+            horizontalMoved = lastMove;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,105 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    Turns the walls of a MazeGrid into one packed array of line segments for
+    Canvas.drawLines(float[], int, int, Paint): four floats (x0, y0, x1, y1) per segment.
+
+    Every wall is emitted once, and walls which continue each other along the same grid line are
+    merged into one long segment - the outer border, for example, is just four segments. The
+    whole maze can then be drawn with a single call instead of one drawLine() per wall.
+
+    The array is kept and only grows, so rebuilding it for another maze doesn't allocate.
+*/
+public class WallGeometry {
+
+    private float[] lines = new float[64];
+    private int length;
+    /* Row where the current run of vertical walls started, per grid line; -1 if there's no run */
+    private int[] runStart = new int[0];
+
+    /* Rebuild the segments - needed whenever the maze or the cell size changes */
+    public void build(MazeGrid grid, float cellSize) {
+        build(grid, cellSize, 0, 0, grid.getCols(), grid.getRows());
+    }
+
+    /*
+        Rebuild the segments of a rectangular part of the maze only, including the walls on its
+        edges. Coordinates are relative to the upper left corner of that part (see MazeTileCache).
+    */
+    public void build(MazeGrid grid, float cellSize, int left, int top, int width, int height) {
+        int right = left + width;
+        int bottom = top + height;
+        length = 0;
+
+        if(runStart.length < width + 1) runStart = new int[width + 1];
+        for (int line = 0; line <= width; line++) runStart[line] = -1;
+
+        /* Scan the part row by row. Horizontal walls are merged along their grid line, vertical
+           walls are merged across rows by remembering where each line's current run started. */
+        for (int y = top; y <= bottom; y++) {
+            int run = -1;
+            for (int x = left; x < right; x++) {
+                if(hasHorizontalWall(grid, x, y)) {
+                    if(run < 0) run = x;
+                } else if(run >= 0) {
+                    add(run - left, y - top, x - left, y - top, cellSize);
+                    run = -1;
+                }
+            }
+            if(run >= 0) add(run - left, y - top, width, y - top, cellSize);
+
+            if(y == bottom) break;
+
+            for (int x = left; x <= right; x++) {
+                int line = x - left;
+                if(hasVerticalWall(grid, x, y)) {
+                    if(runStart[line] < 0) runStart[line] = y;
+                } else if(runStart[line] >= 0) {
+                    add(line, runStart[line] - top, line, y - top, cellSize);
+                    runStart[line] = -1;
+                }
+            }
+        }
+
+        /* Close the runs of vertical walls reaching the bottom edge */
+        for (int line = 0; line <= width; line++) {
+            if(runStart[line] >= 0) add(line, runStart[line] - top, line, height, cellSize);
+        }
+    }
+
+    /* Wall on grid line 'y' above cell column 'x' - the outer border or a cell's bottom wall */
+    static boolean hasHorizontalWall(MazeGrid grid, int x, int y) {
+        return y == 0 || y == grid.getRows() || grid.hasBottomWall(grid.index(x, y - 1));
+    }
+
+    /* Wall on grid line 'x' left of cell row 'y' - the outer border or a cell's right wall */
+    static boolean hasVerticalWall(MazeGrid grid, int x, int y) {
+        return x == 0 || x == grid.getCols() || grid.hasRightWall(grid.index(x - 1, y));
+    }
+
+    /* The packed segments, valid up to getLength() */
+    public float[] getLines() {
+        return lines;
+    }
+
+    /* Number of floats used in getLines(), four per segment */
+    public int getLength() {
+        return length;
+    }
+
+    public int getSegmentCount() {
+        return length / 4;
+    }
+
+    private void add(int x0, int y0, int x1, int y1, float cellSize) {
+        if(length + 4 > lines.length) {
+            float[] grown = new float[lines.length * 2];
+            System.arraycopy(lines, 0, grown, 0, length);
+            lines = grown;
+        }
+        lines[length++] = x0 * cellSize;
+        lines[length++] = y0 * cellSize;
+        lines[length++] = x1 * cellSize;
+        lines[length++] = y1 * cellSize;
+    }
+}
@@ -0,0 +1,76 @@
+package com.amanda.uts.inter_maze_o;
+
+import java.util.Random;
+
+/*
+    Wilson's algorithm (loop-erased random walks):
+        1) Add one random cell to the maze
+        2) While there are cells outside of the maze:
+            2.1) Start a random walk from such a cell and remember the direction taken from every
+                 cell on the way. Walking over a cell again overwrites its direction, which erases
+                 any loop the walk made.
+            2.2) Once the walk hits the maze, follow the remembered directions from the start cell
+                 again and carve them into the maze
+
+    Generates a uniform spanning tree - every possible maze is equally likely. The first walks
+    are long on big grids, which makes it the slowest of the generators.
+*/
+public class WilsonGenerator implements MazeGenerator {
+
+    private byte[] walk = new byte[0];
+    private final int[] neighbours = new int[4];
+    private final byte[] directions = new byte[4];
+
+    @Override
+    public void generate(MazeGrid grid, Random random) {
+        grid.reset();
+
+        int size = grid.size();
+        int cols = grid.getCols();
+        if(walk.length < size) walk = new byte[size];
+
+        /* 'visited' marks the cells which are already part of the maze */
+        grid.setVisited(random.nextInt(size));
+
+        for (int start = 0; start < size; start++) {
+            if(grid.isVisited(start)) continue;
+
+            /* Random walk until we reach the maze */
+            int current = start;
+            while(!grid.isVisited(current)) {
+                int count = 0;
+                int col = current % cols;
+                if(current >= cols) { neighbours[count] = current - cols; directions[count++] = 0; }
+                if(col < cols - 1) { neighbours[count] = current + 1; directions[count++] = 1; }
+                if(current < size - cols) { neighbours[count] = current + cols; directions[count++] = 2; }
+                if(col > 0) { neighbours[count] = current - 1; directions[count++] = 3; }
+
+                int choice = random.nextInt(count);
+                walk[current] = directions[choice];
+                current = neighbours[choice];
+            }
+
+            /* Carve the loop-erased path */
+            current = start;
+            while(!grid.isVisited(current)) {
+                grid.setVisited(current);
+                int next = step(current, walk[current], cols);
+                grid.removeWall(current, next);
+                current = next;
+            }
+        }
+    }
+
+    private static int step(int cell, byte direction, int cols) {
+        switch(direction) {
+            case 0:
+                return cell - cols;
+            case 1:
+                return cell + 1;
+            case 2:
+                return cell + cols;
+            default:
+                return cell - 1;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.amanda.uts.inter_maze_o;
+
+/*
+    xoshiro256** (Blackman and Vigna): a small, fast generator of 64 random bits at a time, for the
+    bit row generators which use every one of those bits. java.util.Random only makes 48 bits per
+    step behind an atomic update, and SplittableRandom needs Android API 24.
+
+    The state is seeded from a single long through SplitMix64, as recommended by the authors.
+    Not thread-safe.
+*/
+public final class Xoshiro256 {
+
+    private long s0, s1, s2, s3;
+
+    public Xoshiro256(long seed) {
+        setSeed(seed);
+    }
+
+    public void setSeed(long seed) {
+        s0 = splitMix(seed += 0x9e3779b97f4a7c15L);
+        s1 = splitMix(seed += 0x9e3779b97f4a7c15L);
+        s2 = splitMix(seed += 0x9e3779b97f4a7c15L);
+        s3 = splitMix(seed + 0x9e3779b97f4a7c15L);
+    }
+
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,127 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BallPhysicsTest {
+
+    @Test
+    public void restsAgainstTheWall() {
+        MazeGrid grid = new MazeGrid(1, 1);
+        BallPhysics ball = new BallPhysics();
+        ball.reset(grid, 0);
+        /* tilted to the right and down for two seconds */
+        for (int i = 0; i < 240; i++) ball.step(1, 1);
+        assertEquals(1 - ball.getRadius(), ball.getX(), 0.01f);
+        assertEquals(1 - ball.getRadius(), ball.getY(), 0.01f);
+        assertTrue(ball.getBounces() > 0);
+    }
+
+    @Test
+    public void neverEntersAWall() {
+        MazeGrid grid = new MazeGrid(12, 9);
+        new KruskalGenerator().generate(grid, new Random(4));
+        BallPhysics ball = new BallPhysics();
+        ball.setBounce(0.8f);
+        ball.reset(grid, 0);
+        Random random = new Random(9);
+        int cell = 0;
+        float tiltX = 0, tiltY = 0;
+        for (int i = 0; i < 20000; i++) {
+            /* a new tilt every quarter of a second */
+            if(i % 30 == 0) {
+                tiltX = random.nextFloat() * 2 - 1;
+                tiltY = random.nextFloat() * 2 - 1;
+            }
+            ball.step(tiltX, tiltY);
+            assertClearOfWalls(grid, ball);
+
+            /* only ever into a neighbouring cell through an open wall */
+            int next = ball.getCell();
+            if(next != cell) {
+                assertTrue(isOpen(grid, cell, next));
+                cell = next;
+            }
+        }
+    }
+
+    @Test
+    public void sameInputsSamePositions() {
+        MazeGrid grid = new MazeGrid(20, 20);
+        new DepthFirstGenerator().generate(grid, new Random(1));
+        BallPhysics first = new BallPhysics(), second = new BallPhysics();
+        first.reset(grid, 0);
+        second.reset(grid, 0);
+        /* a recorded trace: tilt and time since the last frame */
+        Random trace = new Random(5);
+        for (int i = 0; i < 3000; i++) {
+            float tiltX = trace.nextFloat() - 0.5f, tiltY = trace.nextFloat() - 0.5f;
+            long nanos = 5000000L + trace.nextInt(20000000);
+            for (int steps = first.advance(nanos); steps > 0; steps--) first.step(tiltX, tiltY);
+            for (int steps = second.advance(nanos); steps > 0; steps--) second.step(tiltX, tiltY);
+            assertEquals(Float.floatToIntBits(first.getX()), Float.floatToIntBits(second.getX()));
+            assertEquals(Float.floatToIntBits(first.getY()), Float.floatToIntBits(second.getY()));
+        }
+    }
+
+    @Test
+    public void stepsFollowTheTimePassed() {
+        BallPhysics ball = new BallPhysics();
+        ball.reset(new MazeGrid(3, 3), 4);
+        /* 60 frames per second make two steps per frame */
+        long frame = 1000000000L / 60;
+        int steps = 0;
+        for (int i = 0; i < 60; i++) steps += ball.advance(frame);
+        assertEquals(120, steps, 1);
+        /* a long stall doesn't pile up steps */
+        assertTrue(ball.advance(5000000000L) <= 12);
+    }
+
+    @Test
+    public void rollingToTheExitStartsTheNextLevel() throws InterruptedException {
+        MazeGame game = new MazeGame();
+        game.setBallPhysics(true);
+        /* a single row has only one way to the exit */
+        game.setSize(1, 6);
+        game.createMaze();
+        int level = game.getLevel();
+        for (int i = 0; i < 600 && game.getLevel() == level; i++) {
+            game.rollBall(1, 0, 1000000000L / 60);
+            if(game.isWaitingForMaze()) {
+                while(!game.nextLevel()) Thread.sleep(5);
+            }
+        }
+        assertEquals(level + 1, game.getLevel());
+        /* back at the start */
+        assertEquals(0.5f, game.getBall().getX(), 0);
+        game.release();
+    }
+
+    private static void assertClearOfWalls(MazeGrid grid, BallPhysics ball) {
+        int col = (int) ball.getX(), row = (int) ball.getY();
+        float radius = ball.getRadius() - 0.001f;
+        if(WallGeometry.hasVerticalWall(grid, col, row)) assertTrue(ball.getX() - col >= radius);
+        if(WallGeometry.hasVerticalWall(grid, col + 1, row)) assertTrue(col + 1 - ball.getX() >= radius);
+        if(WallGeometry.hasHorizontalWall(grid, col, row)) assertTrue(ball.getY() - row >= radius);
+        if(WallGeometry.hasHorizontalWall(grid, col, row + 1)) assertTrue(row + 1 - ball.getY() >= radius);
+    }
+
+    private static boolean isOpen(MazeGrid grid, int from, int to) {
+        for (Direction direction : Direction.ALL) {
+            if(grid.neighbour(from, direction) == to) return !grid.hasWall(from, direction);
+        }
+        /* diagonal: open around at least one side of the corner */
+        for (Direction first : Direction.ALL) {
+            int middle = grid.neighbour(from, first);
+            if(middle < 0 || grid.hasWall(from, first)) continue;
+            for (Direction second : Direction.ALL) {
+                if(grid.neighbour(middle, second) == to && !grid.hasWall(middle, second)) return true;
+            }
+        }
+        return false;
+    }
+}
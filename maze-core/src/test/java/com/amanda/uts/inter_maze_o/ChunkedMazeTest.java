@@ -0,0 +1,136 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedMazeTest {
+
+    private static final int SIZE = 8;
+
+    @Test
+    public void chunkOfRoundsDown() {
+        ChunkedMaze maze = new ChunkedMaze(1, SIZE, 4);
+        assertEquals(0, maze.chunkOf(0));
+        assertEquals(0, maze.chunkOf(SIZE - 1));
+        assertEquals(1, maze.chunkOf(SIZE));
+        assertEquals(-1, maze.chunkOf(-1));
+        assertEquals(-1, maze.chunkOf(-SIZE));
+        assertEquals(-2, maze.chunkOf(-SIZE - 1));
+    }
+
+    @Test
+    public void neighboursAgreeOnEveryWall() {
+        ChunkedMaze maze = new ChunkedMaze(42, SIZE, 4);
+        for (int y = -2 * SIZE; y < 2 * SIZE; y++) {
+            for (int x = -2 * SIZE; x < 2 * SIZE; x++) {
+                assertEquals(maze.hasWall(x, y, Direction.RIGHT), maze.hasWall(x + 1, y, Direction.LEFT));
+                assertEquals(maze.hasWall(x, y, Direction.DOWN), maze.hasWall(x, y + 1, Direction.UP));
+            }
+        }
+    }
+
+    /* Every chunk is a perfect maze with one opening to each neighbour, so any block of whole
+       chunks is connected and has exactly one passage per pair of neighbouring chunks */
+    @Test
+    public void blockOfChunksIsConnected() {
+        ChunkedMaze maze = new ChunkedMaze(7, SIZE, 16);
+        int chunks = 3;
+        int min = -SIZE, width = chunks * SIZE;
+        boolean[] reached = new boolean[width * width];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        reached[0] = true;
+        queue.add(0);
+        int count = 1, passages = 0;
+        while(!queue.isEmpty()) {
+            int cell = queue.poll();
+            int x = cell % width, y = cell / width;
+            if(x + 1 < width && !maze.hasWall(min + x, min + y, Direction.RIGHT)) passages++;
+            if(y + 1 < width && !maze.hasWall(min + x, min + y, Direction.DOWN)) passages++;
+            for (Direction direction : Direction.ALL) {
+                int nx = x, ny = y;
+                switch(direction) {
+                    case UP: ny--; break;
+                    case RIGHT: nx++; break;
+                    case DOWN: ny++; break;
+                    default: nx--; break;
+                }
+                if(nx < 0 || ny < 0 || nx >= width || ny >= width) continue;
+                if(maze.hasWall(min + x, min + y, direction)) continue;
+                int next = ny * width + nx;
+                if(reached[next]) continue;
+                reached[next] = true;
+                count++;
+                queue.add(next);
+            }
+        }
+        assertEquals(width * width, count);
+        /* a spanning tree inside every chunk, plus the openings between them */
+        int pairs = 2 * chunks * (chunks - 1);
+        assertEquals(chunks * chunks * (SIZE * SIZE - 1) + pairs, passages);
+    }
+
+    @Test
+    public void droppedChunksComeBackTheSame() {
+        ChunkedMaze maze = new ChunkedMaze(99, SIZE, 4);
+        boolean[] before = walls(maze, -3, 2);
+        int generated = maze.getGeneratedChunks();
+
+        /* walk far away, so the first chunks are dropped */
+        for (int x = 0; x < 100 * SIZE; x += SIZE) maze.hasWall(x, 5 * SIZE, Direction.DOWN);
+        assertTrue(maze.getLoadedChunks() <= 4);
+
+        boolean[] after = walls(maze, -3, 2);
+        assertTrue(maze.getGeneratedChunks() > generated + 100);
+        assertEquals(before.length, after.length);
+        for (int i = 0; i < before.length; i++) assertEquals(before[i], after[i]);
+        /* and another maze with the same seed has them too */
+        boolean[] fresh = walls(new ChunkedMaze(99, SIZE, 4), -3, 2);
+        for (int i = 0; i < before.length; i++) assertEquals(before[i], fresh[i]);
+    }
+
+    @Test
+    public void seedsGiveDifferentMazes() {
+        boolean[] first = walls(new ChunkedMaze(1, SIZE, 4), 0, 0);
+        boolean[] second = walls(new ChunkedMaze(2, SIZE, 4), 0, 0);
+        boolean same = true;
+        for (int i = 0; i < first.length; i++) same &= first[i] == second[i];
+        assertFalse(same);
+    }
+
+    @Test
+    public void playerMovesThroughOpenings() {
+        EndlessGame game = new EndlessGame(new ChunkedMaze(5, SIZE, 16));
+        assertEquals(0, game.getPlayerX());
+        Direction open = null;
+        for (Direction direction : Direction.ALL) {
+            if(game.getMaze().hasWall(0, 0, direction)) assertFalse(game.movePlayer(direction));
+            else open = direction;
+        }
+        assertEquals(0, game.getSteps());
+        /* a perfect maze leaves every cell at least one open side */
+        boolean moved = game.movePlayer(open);
+        assertTrue(moved);
+        assertEquals(1, game.getSteps());
+        assertEquals(1, game.getFarthest());
+        /* the 3x3 chunks around the player are ready */
+        assertTrue(game.getMaze().getLoadedChunks() >= 9);
+    }
+
+    /* Right and bottom walls of all cells of a chunk */
+    private static boolean[] walls(ChunkedMaze maze, int chunkX, int chunkY) {
+        boolean[] walls = new boolean[2 * SIZE * SIZE];
+        int i = 0;
+        for (int y = chunkY * SIZE; y < (chunkY + 1) * SIZE; y++) {
+            for (int x = chunkX * SIZE; x < (chunkX + 1) * SIZE; x++) {
+                walls[i++] = maze.hasWall(x, y, Direction.RIGHT);
+                walls[i++] = maze.hasWall(x, y, Direction.DOWN);
+            }
+        }
+        return walls;
+    }
+}
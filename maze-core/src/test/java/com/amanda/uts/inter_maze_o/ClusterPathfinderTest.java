@@ -0,0 +1,109 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class ClusterPathfinderTest {
+
+    @Test
+    public void distancesMatchTheFullSearch() {
+        /* sizes which don't divide into whole clusters, and a single column */
+        int[][] sizes = { { 37, 23 }, { 50, 50 }, { 1, 40 }, { 70, 3 } };
+        for (int[] size : sizes) {
+            for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+                MazeGrid grid = new MazeGrid(size[0], size[1]);
+                algorithm.newGenerator().generate(grid, new Random(size[0] * 31 + algorithm.ordinal()));
+                int target = grid.size() / 3;
+                DistanceField field = new DistanceField();
+                field.compute(grid, target);
+                ClusterPathfinder pathfinder = new ClusterPathfinder(8);
+                pathfinder.build(grid);
+                pathfinder.setTarget(target);
+
+                for (int cell = 0; cell < grid.size(); cell += 7) {
+                    assertEquals(algorithm + " " + cell, field.distance(cell), pathfinder.distance(cell));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void pathLeadsThroughOpenWallsToTheTarget() {
+        MazeGrid grid = new MazeGrid(60, 45);
+        new DepthFirstGenerator().generate(grid, new Random(5));
+        ClusterPathfinder pathfinder = new ClusterPathfinder(16);
+        pathfinder.build(grid);
+        int target = grid.size() - 1;
+        pathfinder.setTarget(target);
+
+        int[] path = new int[grid.size()];
+        int length = pathfinder.path(0, Integer.MAX_VALUE, path);
+        assertEquals(pathfinder.distance(0), length);
+        assertEquals(target, path[length - 1]);
+        int cell = 0;
+        for (int i = 0; i < length; i++) {
+            assertAdjacentAndOpen(grid, cell, path[i]);
+            cell = path[i];
+        }
+
+        /* limited by maxSteps and by the buffer */
+        assertEquals(5, pathfinder.path(0, 5, path));
+        assertEquals(3, pathfinder.path(0, 5, new int[3]));
+        assertNull(pathfinder.nextStep(target));
+    }
+
+    @Test
+    public void followsThePlayerStepByStep() {
+        MazeGrid grid = new MazeGrid(40, 40);
+        new PrimGenerator().generate(grid, new Random(11));
+        DistanceField field = new DistanceField();
+        int target = grid.size() - 1;
+        field.compute(grid, target);
+        ClusterPathfinder pathfinder = new ClusterPathfinder(8);
+        pathfinder.build(grid);
+        pathfinder.setTarget(target);
+
+        /* wander around at random, into dead ends and back, like a player would */
+        Random random = new Random(2);
+        int player = 0;
+        for (int move = 0; move < 5000; move++) {
+            Direction direction = Direction.ALL[random.nextInt(4)];
+            if(grid.hasWall(player, direction)) continue;
+            player = grid.neighbour(player, direction);
+            assertEquals(field.distance(player), pathfinder.distance(player));
+            if(player != target) assertEquals(field.nextStep(player), pathfinder.nextStep(player));
+        }
+    }
+
+    @Test
+    public void unreachableTarget() {
+        /* two corridors without a way between them */
+        MazeGrid grid = new MazeGrid(20, 2);
+        for (int i = 0; i < 19; i++) {
+            grid.removeWall(i, Direction.RIGHT);
+            grid.removeWall(20 + i, Direction.RIGHT);
+        }
+        ClusterPathfinder pathfinder = new ClusterPathfinder(4);
+        pathfinder.build(grid);
+        pathfinder.setTarget(19);
+        assertEquals(15, pathfinder.distance(4));
+        assertEquals(ClusterPathfinder.UNREACHABLE, pathfinder.distance(25));
+        assertNull(pathfinder.nextStep(25));
+        assertEquals(0, pathfinder.path(25, 10, new int[10]));
+    }
+
+    private static void assertAdjacentAndOpen(MazeGrid grid, int from, int to) {
+        for (Direction direction : Direction.ALL) {
+            if(grid.neighbour(from, direction) == to) {
+                assertFalse(grid.hasWall(from, direction));
+                return;
+            }
+        }
+        throw new AssertionError(from + " and " + to + " aren't adjacent");
+    }
+}
@@ -0,0 +1,59 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class DistanceFieldTest {
+
+    @Test
+    public void everyStepGetsOneCloser() {
+        MazeGrid grid = new MazeGrid(37, 23);
+        new DepthFirstGenerator().generate(grid, new Random(3));
+        DistanceField field = new DistanceField();
+        int exit = grid.size() - 1;
+        field.compute(grid, exit);
+
+        assertEquals(0, field.distance(exit));
+        assertNull(field.nextStep(exit));
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if(cell == exit) continue;
+            Direction step = field.nextStep(cell);
+            assertFalse(grid.hasWall(cell, step));
+            assertEquals(field.distance(cell) - 1, field.distance(grid.neighbour(cell, step)));
+        }
+    }
+
+    @Test
+    public void pathEndsAtTheTarget() {
+        MazeGrid grid = new MazeGrid(20, 20);
+        new KruskalGenerator().generate(grid, new Random(8));
+        DistanceField field = new DistanceField();
+        field.compute(grid, 0);
+
+        int from = grid.size() - 1;
+        int[] path = new int[grid.size()];
+        int length = field.path(grid, from, Integer.MAX_VALUE, path);
+        assertEquals(field.distance(from), length);
+        assertEquals(0, path[length - 1]);
+
+        /* limited by maxSteps and by the buffer */
+        assertEquals(5, field.path(grid, from, 5, path));
+        assertEquals(3, field.path(grid, from, 5, new int[3]));
+    }
+
+    @Test
+    public void singleCorridor() {
+        /* one row, all passages open */
+        MazeGrid grid = new MazeGrid(6, 1);
+        for (int i = 0; i < 5; i++) grid.removeWall(i, Direction.RIGHT);
+        DistanceField field = new DistanceField();
+        field.compute(grid, 5);
+        for (int i = 0; i < 6; i++) assertEquals(5 - i, field.distance(i));
+        assertEquals(Direction.RIGHT, field.nextStep(0));
+    }
+}
@@ -0,0 +1,48 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameMetricsTest {
+
+    @Test
+    public void latencyIsMeasuredFromTheFirstUnshownMove() {
+        GameMetrics metrics = new GameMetrics();
+        /* a frame without a move records nothing */
+        metrics.onFrameDrawn(100);
+        assertEquals(0, metrics.getLatencies().getCount());
+
+        metrics.onMove(1000);
+        metrics.onMove(1500);
+        metrics.onFrameDrawn(4000);
+        metrics.onFrameDrawn(5000);
+        assertEquals(1, metrics.getLatencies().getCount());
+        assertEquals(3000, metrics.getLatencies().getMaxNanos());
+    }
+
+    @Test
+    public void ringBufferKeepsTheLatestValues() {
+        FrameTimeStats stats = new FrameTimeStats(4);
+        for (int i = 1; i <= 10; i++) stats.record(i);
+        assertEquals(4, stats.getCount());
+        assertEquals(7, stats.getPercentileNanos(0));
+        assertEquals(8, stats.getPercentileNanos(50));
+        assertEquals(10, stats.getPercentileNanos(100));
+    }
+
+    @Test
+    public void exportListsEverySize() {
+        GameMetrics metrics = new GameMetrics();
+        metrics.recordCreateMaze(15, 15, 2000000);
+        metrics.recordCreateMaze(100, 100, 30000000);
+        metrics.recordCreateMaze(15, 15, 4000000);
+        metrics.recordDraw(1000000);
+
+        String export = metrics.export();
+        assertTrue(export, export.contains("createMaze 15 x 15 [ms] (2 samples)"));
+        assertTrue(export, export.contains("createMaze 100 x 100 [ms] (1 samples)"));
+        assertTrue(export, export.contains(" 100.00%        1.000"));
+    }
+}
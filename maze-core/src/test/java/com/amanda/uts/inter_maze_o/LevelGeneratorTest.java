@@ -0,0 +1,81 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LevelGeneratorTest {
+
+    @Test
+    public void classicLevelUsesTheCorners() {
+        LevelGenerator generator = new LevelGenerator(MazeAlgorithm.PRIM);
+        MazeLevel level = new MazeLevel(12, 7);
+        generator.generate(level, new Random(1));
+        assertEquals(0, level.getStart());
+        assertEquals(12 * 7 - 1, level.getExit());
+        /* solved later, in the background */
+        assertFalse(level.isSolved());
+        level.solve();
+        assertEquals(level.getDistances().distance(0), level.getStats().getSolutionLength());
+    }
+
+    @Test
+    public void hardLevelSpansTheLongestPath() {
+        LevelGenerator generator = new LevelGenerator(MazeAlgorithm.KRUSKAL);
+        generator.setTarget(DifficultyTarget.HARD);
+        MazeLevel level = new MazeLevel(30, 30);
+        generator.generate(level, new Random(2));
+        assertTrue(level.isSolved());
+        assertPerfect(level.getGrid());
+
+        /* no two cells are farther apart than start and exit */
+        DistanceField check = new DistanceField();
+        check.compute(level.getGrid(), level.getStart());
+        int length = check.distance(level.getExit());
+        assertEquals(length, check.distance(check.farthest()));
+        assertEquals(length, level.getStats().getSolutionLength());
+        assertEquals(length, level.getDistances().distance(level.getStart()));
+    }
+
+    @Test
+    public void easyLevelHitsThePathRatio() {
+        LevelGenerator generator = new LevelGenerator(MazeAlgorithm.DEPTH_FIRST);
+        generator.setTarget(DifficultyTarget.EASY);
+        MazeLevel level = new MazeLevel(40, 25);
+        for (int seed = 0; seed < 10; seed++) {
+            generator.generate(level, new Random(seed));
+            float ratio = level.getStats().getSolutionLength() / (float) (40 + 25 - 2);
+            assertTrue(ratio + "", ratio >= 0.5f && ratio <= 1f);
+        }
+    }
+
+    @Test
+    public void impossibleTargetGivesUp() {
+        LevelGenerator generator = new LevelGenerator(MazeAlgorithm.DEPTH_FIRST);
+        /* no maze has more dead ends than cells */
+        generator.setTarget(new DifficultyTarget(0, 100, 2, 3));
+        generator.setMaxAttempts(3);
+        MazeLevel level = new MazeLevel(10, 10);
+        generator.generate(level, new Random(4));
+        assertEquals(3, generator.getLastAttempts());
+        assertTrue(level.isSolved());
+    }
+
+    @Test
+    public void statsOfASingleCorridor() {
+        /* one row, all passages open */
+        MazeGrid grid = new MazeGrid(8, 1);
+        for (int i = 0; i < 7; i++) grid.removeWall(i, Direction.RIGHT);
+        MazeStats stats = new MazeStats();
+        new DistanceField().compute(grid, 7, stats);
+        assertEquals(2, stats.getDeadEnds());
+        assertEquals(6, stats.getDegreeCount(2));
+        assertEquals(0, stats.getJunctions());
+        assertEquals(6, stats.getLongestCorridor());
+    }
+}
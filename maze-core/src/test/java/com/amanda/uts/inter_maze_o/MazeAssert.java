@@ -0,0 +1,58 @@
+package com.amanda.uts.inter_maze_o;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Assertions shared by the maze tests.
+ */
+final class MazeAssert {
+
+    private MazeAssert() { }
+
+    /**
+     * A perfect maze has exactly one path between any two cells: every cell is reachable from
+     * the first one and there are exactly N-1 passages for N cells.
+     */
+    static void assertPerfect(MazeGrid grid) {
+        int size = grid.size();
+
+        int passages = 0;
+        for (int i = 0; i < size; i++) {
+            if (!grid.hasWall(i, Direction.RIGHT)) passages++;
+            if (!grid.hasWall(i, Direction.DOWN)) passages++;
+        }
+        assertEquals("passages", size - 1, passages);
+
+        boolean[] reached = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0, tail = 0, count = 1;
+        reached[0] = true;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (Direction direction : Direction.values()) {
+                int next = grid.neighbour(cell, direction);
+                if (next >= 0 && !grid.hasWall(cell, direction) && !reached[next]) {
+                    reached[next] = true;
+                    queue[tail++] = next;
+                    count++;
+                }
+            }
+        }
+        assertEquals("reachable cells", size, count);
+    }
+
+    /** The outer border must never be carved. */
+    static void assertBorderClosed(MazeGrid grid) {
+        int cols = grid.getCols(), rows = grid.getRows();
+        for (int col = 0; col < cols; col++) {
+            assertTrue(grid.hasWall(grid.index(col, 0), Direction.UP));
+            assertTrue(grid.hasWall(grid.index(col, rows - 1), Direction.DOWN));
+        }
+        for (int row = 0; row < rows; row++) {
+            assertTrue(grid.hasWall(grid.index(0, row), Direction.LEFT));
+            assertTrue(grid.hasWall(grid.index(cols - 1, row), Direction.RIGHT));
+        }
+    }
+}
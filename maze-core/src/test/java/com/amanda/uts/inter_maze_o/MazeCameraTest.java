@@ -0,0 +1,54 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeCameraTest {
+
+    @Test
+    public void visibleRangeDependsOnViewportOnly() {
+        MazeCamera camera = new MazeCamera();
+        camera.setViewport(1000, 500);
+        camera.setCellSize(50);
+
+        camera.follow(5000, 5000, 2500, 2500);
+        assertEquals(1000 / 50 + 1, camera.getLastCol() - camera.getFirstCol());
+        assertEquals(500 / 50 + 1, camera.getLastRow() - camera.getFirstRow());
+        assertTrue(camera.isVisible(2500, 2500));
+        assertEquals((1000 / 50 + 1) * (500 / 50 + 1), camera.getVisibleCells());
+        assertFalse(camera.isVisible(0, 0));
+    }
+
+    @Test
+    public void doesNotScrollPastEdges() {
+        MazeCamera camera = new MazeCamera();
+        camera.setViewport(1000, 500);
+        camera.setCellSize(50);
+
+        camera.follow(100, 100, 0, 0);
+        assertEquals(0, camera.getOriginX(), 0);
+        assertEquals(0, camera.getOriginY(), 0);
+        assertEquals(0, camera.getFirstCol());
+
+        camera.follow(100, 100, 99, 99);
+        assertEquals(1000 - 100 * 50, camera.getOriginX(), 0);
+        assertEquals(500 - 100 * 50, camera.getOriginY(), 0);
+        assertEquals(100, camera.getLastCol());
+        assertEquals(100, camera.getLastRow());
+    }
+
+    @Test
+    public void centresMazeSmallerThanView() {
+        MazeCamera camera = new MazeCamera();
+        camera.setViewport(1000, 500);
+        camera.setCellSize(50);
+
+        camera.follow(10, 100, 3, 50);
+        assertEquals(250, camera.getOriginX(), 0);
+        assertEquals(0, camera.getFirstCol());
+        assertEquals(10, camera.getLastCol());
+    }
+}
@@ -0,0 +1,180 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MazeFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameSeedCarvesTheSameLevel() {
+        LevelGenerator generator = new LevelGenerator(MazeAlgorithm.WILSON);
+        generator.setTarget(DifficultyTarget.MEDIUM);
+        MazeLevel first = new MazeLevel(31, 17);
+        MazeLevel second = new MazeLevel(31, 17);
+        generator.generate(first, 1234);
+        generator.generate(second, 1234);
+
+        assertEquals(1234, first.getSeed());
+        assertEquals(MazeAlgorithm.WILSON, first.getAlgorithm());
+        assertEquals(first.getStart(), second.getStart());
+        assertEquals(first.getExit(), second.getExit());
+        assertSameWalls(first.getGrid(), second.getGrid());
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        /* 23 x 11 isn't a multiple of 4 cells, and needs more than one block at 1000 x 700 */
+        int[][] sizes = {{23, 11}, {1000, 700}};
+        for (int[] size : sizes) {
+            for (boolean compress : new boolean[]{false, true}) {
+                MazeLevel level = level(size[0], size[1], MazeAlgorithm.KRUSKAL, 77);
+                File file = folder.newFile();
+                MazeFile.write(level, file, compress);
+                if(!compress) assertEquals(MazeFile.HEADER_SIZE + MazeFile.packedSize(level.getGrid().size()), file.length());
+
+                MazeLevel read = MazeFile.read(file, null);
+                assertEquals(level.getSeed(), read.getSeed());
+                assertEquals(MazeAlgorithm.KRUSKAL, read.getAlgorithm());
+                assertEquals(level.getStart(), read.getStart());
+                assertEquals(level.getExit(), read.getExit());
+                assertSameWalls(level.getGrid(), read.getGrid());
+                assertPerfect(read.getGrid());
+            }
+        }
+    }
+
+    @Test
+    public void bytesRoundTrip() throws IOException {
+        MazeLevel level = level(50, 30, MazeAlgorithm.ELLER, 8);
+        byte[] bytes = MazeFile.toBytes(level);
+        assertEquals(MazeFile.HEADER_SIZE + MazeFile.packedSize(50 * 30), bytes.length);
+        MazeLevel read = MazeFile.fromBytes(bytes, null);
+        assertEquals(level.getExit(), read.getExit());
+        assertSameWalls(level.getGrid(), read.getGrid());
+    }
+
+    @Test
+    public void readReusesALevelOfTheSameSize() throws IOException {
+        File file = folder.newFile();
+        MazeFile.write(level(9, 9, MazeAlgorithm.PRIM, 3), file, true);
+        MazeLevel recycled = level(9, 9, MazeAlgorithm.ELLER, 4);
+        assertSame(recycled, MazeFile.read(file, recycled));
+        assertEquals(MazeAlgorithm.PRIM, recycled.getAlgorithm());
+        /* the distances have to be computed again */
+        recycled.solve();
+        assertEquals(0, recycled.getDistances().distance(recycled.getExit()));
+    }
+
+    @Test
+    public void mappedMazeHasTheSameWalls() throws IOException {
+        MazeLevel level = level(301, 157, MazeAlgorithm.DEPTH_FIRST, 5);
+        File file = folder.newFile();
+        MazeFile.write(level, file, false);
+
+        MappedMaze mapped = MazeFile.map(file);
+        MazeGrid grid = level.getGrid();
+        assertEquals(grid.getCols(), mapped.getCols());
+        assertEquals(grid.getRows(), mapped.getRows());
+        assertEquals(level.getExit(), mapped.getExit());
+        for (int cell = 0; cell < grid.size(); cell++) {
+            for (Direction direction : Direction.ALL) {
+                assertEquals(grid.hasWall(cell, direction), mapped.hasWall(cell, direction));
+                assertEquals(grid.neighbour(cell, direction), mapped.neighbour(cell, direction));
+            }
+        }
+    }
+
+    @Test
+    public void compressedFilesCantBeMapped() throws IOException {
+        File file = folder.newFile();
+        MazeFile.write(level(10, 10, MazeAlgorithm.DEPTH_FIRST, 1), file, true);
+        try {
+            MazeFile.map(file);
+            fail();
+        } catch(IOException expected) { }
+    }
+
+    @Test
+    public void brokenFilesAreRejected() throws IOException {
+        File file = folder.newFile();
+        MazeFile.write(level(40, 40, MazeAlgorithm.DEPTH_FIRST, 1), file, true);
+        RandomAccessFile truncated = new RandomAccessFile(file, "rw");
+        truncated.setLength(file.length() / 2);
+        truncated.close();
+        assertReadFails(file);
+
+        File garbage = folder.newFile();
+        RandomAccessFile out = new RandomAccessFile(garbage, "rw");
+        out.write(new byte[100]);
+        out.close();
+        assertReadFails(garbage);
+    }
+
+    @Test
+    public void openedBorderIsClosedAgain() throws IOException {
+        File file = folder.newFile();
+        MazeFile.write(level(13, 7, MazeAlgorithm.DEPTH_FIRST, 1), file, false);
+        /* clear the wall bits of the last cell of the first row and of the whole last row */
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        clearWalls(out, 12);
+        for (int cell = 13 * 6; cell < 13 * 7; cell++) clearWalls(out, cell);
+        out.close();
+
+        MazeGrid grid = MazeFile.read(file, null).getGrid();
+        MappedMaze mapped = MazeFile.map(file);
+        /* every open wall leads to a cell inside the maze */
+        for (int cell = 0; cell < grid.size(); cell++) {
+            for (Direction direction : Direction.ALL) {
+                if(!grid.hasWall(cell, direction)) assertTrue(grid.neighbour(cell, direction) >= 0);
+                if(!mapped.hasWall(cell, direction)) assertTrue(mapped.neighbour(cell, direction) >= 0);
+            }
+        }
+        /* the interior walls cleared are passages now, but nothing leaves the grid */
+        new DistanceField().compute(grid, grid.size() - 1, null);
+    }
+
+    private static void clearWalls(RandomAccessFile file, int cell) throws IOException {
+        long position = MazeFile.HEADER_SIZE + cell / 4;
+        file.seek(position);
+        int bits = file.read();
+        file.seek(position);
+        file.write(bits & ~(3 << ((cell & 3) << 1)));
+    }
+
+    private static void assertReadFails(File file) {
+        try {
+            MazeFile.read(file, null);
+            fail();
+        } catch(IOException expected) {
+            assertTrue(expected.getMessage() != null);
+        }
+    }
+
+    private static MazeLevel level(int cols, int rows, MazeAlgorithm algorithm, long seed) {
+        MazeLevel level = new MazeLevel(cols, rows);
+        new LevelGenerator(algorithm).generate(level, seed);
+        return level;
+    }
+
+    private static void assertSameWalls(MazeGrid expected, MazeGrid actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int cell = 0; cell < expected.size(); cell++) {
+            assertEquals(expected.hasRightWall(cell), actual.hasRightWall(cell));
+            assertEquals(expected.hasBottomWall(cell), actual.hasBottomWall(cell));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeGameTest {
+
+    private MazeGame game;
+
+    @Before
+    public void setUp() {
+        game = new MazeGame();
+    }
+
+    @After
+    public void tearDown() {
+        game.release();
+    }
+
+    @Test
+    public void wallsBlockMovement() {
+        game.setSize(10, 12);
+        game.createMaze();
+        MazeGrid grid = game.getGrid();
+        assertEquals(12, grid.getCols());
+        assertEquals(10, grid.getRows());
+
+        /* the player starts in the upper left corner, the border is closed */
+        assertEquals(0, game.getPlayer());
+        assertFalse(game.movePlayer(Direction.UP));
+        assertFalse(game.movePlayer(Direction.LEFT));
+
+        for (Direction direction : Direction.values()) {
+            int before = game.getPlayer();
+            boolean moved = game.movePlayer(direction);
+            assertEquals(!grid.hasWall(before, direction), moved);
+            if (moved) game.movePlayer(direction.opposite());
+            assertEquals(before, game.getPlayer());
+        }
+    }
+
+    @Test
+    public void seedReplaysTheMaze() {
+        game.setSize(14, 9);
+        game.setSeed(2020);
+        game.createMaze();
+        MazeGrid first = game.getGrid();
+        assertEquals(2020, game.getCurrentLevel().getSeed());
+
+        MazeGame other = new MazeGame();
+        other.setSize(14, 9);
+        other.setSeed(2020);
+        other.createMaze();
+        MazeGrid second = other.getGrid();
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.hasRightWall(i), second.hasRightWall(i));
+            assertEquals(first.hasBottomWall(i), second.hasBottomWall(i));
+        }
+        other.release();
+    }
+
+    @Test
+    public void restoredGameContinuesWhereItWas() throws IOException {
+        game.setSize(6, 8);
+        game.createMaze();
+        MazeGrid grid = game.getGrid();
+        for (Direction direction : Direction.values()) {
+            if(game.movePlayer(direction)) break;
+        }
+        int player = game.getPlayer();
+        byte[] saved = MazeFile.toBytes(game.getCurrentLevel());
+
+        /* a new process */
+        MazeGame restored = new MazeGame();
+        restored.restore(MazeFile.fromBytes(saved, null), player);
+        assertEquals(player, restored.getPlayer());
+        assertEquals(game.getExit(), restored.getExit());
+        assertEquals(8, restored.getGrid().getCols());
+        for (int i = 0; i < grid.size(); i++) {
+            assertEquals(grid.hasRightWall(i), restored.getGrid().hasRightWall(i));
+            assertEquals(grid.hasBottomWall(i), restored.getGrid().hasBottomWall(i));
+        }
+        restored.release();
+    }
+
+    @Test
+    public void reachingTheExitStartsNextLevel() throws InterruptedException {
+        /* a single row has only one way to the exit */
+        game.setSize(1, 5);
+        game.createMaze();
+        int level = game.getLevel();
+
+        for (int i = 0; i < 4; i++) assertTrue(game.movePlayer(Direction.RIGHT));
+        /* the next maze may still be generated in the background */
+        if (game.isWaitingForMaze()) {
+            while (!game.nextLevel()) Thread.sleep(5);
+        }
+        assertEquals(level + 1, game.getLevel());
+        assertEquals(0, game.getPlayer());
+    }
+
+    @Test
+    public void hintLeadsToTheExit() throws InterruptedException {
+        game.setSize(9, 14);
+        game.setHintSteps(MazeGame.FULL_PATH);
+        game.createMaze();
+        int level = game.getLevel();
+
+        /* the distances are computed in the background */
+        long deadline = System.currentTimeMillis() + 5000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        int length = game.getHintLength();
+        assertEquals(game.getCurrentLevel().getDistances().distance(game.getPlayer()), length);
+
+        /* following the hint step by step ends the level */
+        for (int i = 0; i < length; i++) assertTrue(game.movePlayer(game.getHintDirection()));
+        if (game.isWaitingForMaze()) {
+            while (!game.nextLevel()) Thread.sleep(5);
+        }
+        assertEquals(level + 1, game.getLevel());
+    }
+
+    @Test
+    public void hintLimitCapsTheFullPath() throws InterruptedException {
+        game.setSize(60, 60);
+        game.setHintSteps(MazeGame.FULL_PATH);
+        game.setHintLimit(25);
+        game.createMaze();
+        long deadline = System.currentTimeMillis() + 5000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        int distance = game.getCurrentLevel().getDistances().distance(game.getPlayer());
+        assertTrue(distance > 25);
+        assertEquals(25, game.getHintLength());
+
+        game.setHintLimit(MazeGame.FULL_PATH);
+        assertEquals(distance, game.getHintLength());
+    }
+
+    @Test
+    public void hugeLevelHintFollowsThePlayer() throws InterruptedException {
+        game.setSize(1000, 1000);
+        game.setHintSteps(10);
+        game.createMaze();
+        long deadline = System.currentTimeMillis() + 20000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        MazeLevel level = game.getCurrentLevel();
+        assertTrue(level.getDistances() == null && level.getPathfinder() != null);
+        assertEquals(10, game.getHintLength());
+
+        /* each step along the hint shortens the way by one */
+        int distance = level.getPathfinder().distance(game.getPlayer());
+        for (int i = 0; i < 50; i++) {
+            int next = game.getHint()[0];
+            assertTrue(game.movePlayer(game.getHintDirection()));
+            assertEquals(next, game.getPlayer());
+            assertEquals(10, game.getHintLength());
+            assertEquals(distance - i - 1, level.getPathfinder().distance(game.getPlayer()));
+        }
+    }
+
+    @Test
+    public void mazeCarvedInSlicesIsTheSameMaze() throws InterruptedException {
+        game.setSize(300, 200);
+        game.setSeed(77);
+        game.setHintSteps(5);
+        /* one chunk of cells per call */
+        game.setCarveBudget(0.001f);
+        game.createMaze();
+        assertTrue(game.isCarving());
+
+        /* the cells around the start are there right away */
+        assertTrue(game.movePlayer(Direction.RIGHT) || game.movePlayer(Direction.DOWN));
+        int slices = 0;
+        while(game.continueMaze()) slices++;
+        assertFalse(game.isCarving());
+        assertTrue(slices > 10);
+        MazeAssert.assertPerfect(game.getGrid());
+
+        MazeGame other = new MazeGame();
+        other.setSize(300, 200);
+        other.setSeed(77);
+        other.createMaze();
+        MazeGrid carved = game.getGrid(), whole = other.getGrid();
+        for (int i = 0; i < whole.size(); i++) {
+            assertEquals(whole.hasRightWall(i), carved.hasRightWall(i));
+            assertEquals(whole.hasBottomWall(i), carved.hasBottomWall(i));
+        }
+        other.release();
+
+        /* solved once it is complete */
+        long deadline = System.currentTimeMillis() + 5000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(5, game.getHintLength());
+    }
+
+    @Test
+    public void restoredLevelIsFollowedByTheSameLevels() throws Exception {
+        File file = File.createTempFile("level", ".maze");
+        game.setSize(12, 9);
+        game.setSeed(31);
+        game.setSaveFile(file);
+        game.createMaze();
+        nextLevel(game);
+        long second = game.getCurrentLevel().getSeed();
+        nextLevel(game);
+        long third = game.getCurrentLevel().getSeed();
+
+        /* the second level, written in the background, restored in a new process */
+        MazeGame first = new MazeGame();
+        first.setSize(12, 9);
+        first.setSeed(31);
+        first.createMaze();
+        MazeGame restored = new MazeGame();
+        restored.restore(MazeFile.fromBytes(MazeFile.toBytes(levelAfter(first)), null), 0);
+        assertEquals(second, restored.getCurrentLevel().getSeed());
+        nextLevel(restored);
+        assertEquals(third, restored.getCurrentLevel().getSeed());
+
+        /* the file holds the current level once the background thread is done with it */
+        long deadline = System.currentTimeMillis() + 5000;
+        while(System.currentTimeMillis() < deadline
+                && (!file.exists() || MazeFile.read(file, null).getSeed() != third)) Thread.sleep(5);
+        assertEquals(third, MazeFile.read(file, null).getSeed());
+        first.release();
+        restored.release();
+        file.delete();
+    }
+
+    private static MazeLevel levelAfter(MazeGame game) throws InterruptedException {
+        nextLevel(game);
+        return game.getCurrentLevel();
+    }
+
+    private static void nextLevel(MazeGame game) throws InterruptedException {
+        while(!game.nextLevel()) Thread.sleep(5);
+    }
+
+    @Test
+    public void shortHintIsLimited() throws InterruptedException {
+        game.setSize(20, 20);
+        game.setHintSteps(3);
+        game.createMaze();
+        long deadline = System.currentTimeMillis() + 5000;
+        while(game.getHintLength() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(3, game.getHintLength());
+
+        int version = game.getHintVersion();
+        /* nothing changed, nothing is recomputed */
+        assertEquals(version, game.getHintVersion());
+        game.setHintSteps(0);
+        assertEquals(0, game.getHintLength());
+    }
+}
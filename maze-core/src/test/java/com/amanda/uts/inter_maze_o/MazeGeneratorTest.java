@@ -0,0 +1,70 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertBorderClosed;
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class MazeGeneratorTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> algorithms() {
+        List<Object[]> algorithms = new ArrayList<>();
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            algorithms.add(new Object[] { algorithm });
+        }
+        return algorithms;
+    }
+
+    private final MazeAlgorithm algorithm;
+
+    public MazeGeneratorTest(MazeAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    @Test
+    public void generatesPerfectMazes() {
+        MazeGenerator generator = algorithm.newGenerator();
+        Random random = new Random(42);
+        int[][] sizes = { {1, 1}, {1, 7}, {7, 1}, {2, 2}, {15, 15}, {10, 25}, {64, 3}, {129, 4}, {200, 200} };
+        for (int[] size : sizes) {
+            MazeGrid grid = new MazeGrid(size[0], size[1]);
+            generator.generate(grid, random);
+            assertPerfect(grid);
+            assertBorderClosed(grid);
+        }
+    }
+
+    @Test
+    public void regeneratesIntoTheSameGrid() {
+        MazeGenerator generator = algorithm.newGenerator();
+        MazeGrid grid = new MazeGrid(30, 20);
+        Random random = new Random(7);
+        for (int i = 0; i < 5; i++) {
+            generator.generate(grid, random);
+            assertPerfect(grid);
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameMaze() {
+        MazeGrid first = new MazeGrid(40, 30);
+        MazeGrid second = new MazeGrid(40, 30);
+        algorithm.newGenerator().generate(first, new Random(123));
+        algorithm.newGenerator().generate(second, new Random(123));
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.hasRightWall(i), second.hasRightWall(i));
+            assertEquals(first.hasBottomWall(i), second.hasBottomWall(i));
+        }
+    }
+}
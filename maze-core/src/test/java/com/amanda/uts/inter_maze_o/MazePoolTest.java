@@ -0,0 +1,134 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MazePoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void warmPoolHandsOutSolvedLevels() throws InterruptedException {
+        MazePool pool = new MazePool(folder.getRoot(), 2, 1 << 20);
+        pool.addSize(10, 10);
+        pool.addSize(15, 15);
+        pool.warmUp();
+        waitForReady(pool, 15, 15, 2);
+        waitForReady(pool, 10, 10, 2);
+        assertEquals(4, mazeFiles(folder.getRoot()));
+
+        MazeLevel level = pool.take(15, 15);
+        assertNotNull(level);
+        assertTrue(level.isSolved());
+        assertPerfect(level.getGrid());
+        assertEquals(1, pool.getHits());
+
+        /* no pool for this size */
+        assertNull(pool.take(12, 12));
+        assertEquals(1, pool.getMisses());
+
+        /* the taken level's file goes away and a new one takes its place */
+        waitForReady(pool, 15, 15, 2);
+        assertEquals(4, mazeFiles(folder.getRoot()));
+        pool.shutdown();
+    }
+
+    @Test
+    public void savedLevelsOutliveThePool() throws InterruptedException {
+        MazePool first = new MazePool(folder.getRoot(), 3, 1 << 20);
+        first.addSize(20, 20);
+        first.warmUp();
+        waitForReady(first, 20, 20, 3);
+        first.shutdown();
+
+        /* a new process, with the battery too low to carve anything */
+        MazePool second = new MazePool(folder.getRoot(), 3, 1 << 20);
+        second.addSize(20, 20);
+        second.setGenerating(false);
+        second.warmUp();
+        waitForInMemory(second, 20, 20, 3);
+
+        for (int i = 0; i < 3; i++) assertNotNull(second.take(20, 20));
+        assertNull(second.take(20, 20));
+        assertEquals(0, second.getHits());
+        assertEquals(3, second.getDiskHits());
+        assertEquals(1, second.getMisses());
+        second.shutdown();
+    }
+
+    @Test
+    public void levelsBeyondTheMemoryBudgetStayOnDisk() throws InterruptedException {
+        /* room for one 25 x 25 level in memory */
+        MazePool pool = new MazePool(folder.getRoot(), 3, MazePool.levelBytes(25, 25));
+        pool.addSize(25, 25);
+        pool.warmUp();
+        waitForReady(pool, 25, 25, 3);
+        assertEquals(1, pool.getInMemory(25, 25));
+
+        assertTrue(pool.take(25, 25).isSolved());
+        pool.trimMemory();
+        /* take() doesn't read files - that's left to the background thread */
+        assertNull(pool.take(25, 25));
+        waitForInMemory(pool, 25, 25, 1);
+        MazeLevel fromDisk = pool.take(25, 25);
+        assertTrue(fromDisk.isSolved());
+        assertPerfect(fromDisk.getGrid());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getDiskHits());
+        assertEquals(1, pool.getMisses());
+        pool.shutdown();
+    }
+
+    @Test
+    public void unreadableFilesAreReplaced() throws Exception {
+        MazePool first = new MazePool(folder.getRoot(), 2, 1 << 20);
+        first.addSize(10, 10);
+        first.warmUp();
+        waitForReady(first, 10, 10, 2);
+        first.shutdown();
+        File[] files = folder.getRoot().listFiles();
+        new FileOutputStream(files[0]).close();
+        /* a write which was cut short */
+        new File(folder.getRoot(), "10x10-1.maze.tmp").createNewFile();
+
+        MazePool pool = new MazePool(folder.getRoot(), 2, 1 << 20);
+        pool.addSize(10, 10);
+        pool.warmUp();
+        waitForInMemory(pool, 10, 10, 2);
+        assertTrue(pool.take(10, 10).isSolved());
+        assertTrue(pool.take(10, 10).isSolved());
+        assertEquals(0, pool.getMisses());
+        assertFalse(files[0].exists() && files[0].length() == 0);
+        assertFalse(new File(folder.getRoot(), "10x10-1.maze.tmp").exists());
+        pool.shutdown();
+    }
+
+    private static void waitForReady(MazePool pool, int cols, int rows, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(pool.getReady(cols, rows) < count && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(count, pool.getReady(cols, rows));
+    }
+
+    private static void waitForInMemory(MazePool pool, int cols, int rows, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(pool.getInMemory(cols, rows) < count && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(count, pool.getInMemory(cols, rows));
+    }
+
+    private static int mazeFiles(File directory) {
+        /* deleting a taken level's file is queued behind the work already waiting */
+        return directory.listFiles().length;
+    }
+}
@@ -0,0 +1,63 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MazePreloaderTest {
+
+    @Test
+    public void preloadsIntoRecycledGrid() throws InterruptedException {
+        MazePreloader preloader = new MazePreloader();
+        final CountDownLatch latch = new CountDownLatch(1);
+        preloader.setCallback(new MazePreloader.Callback() {
+            @Override
+            public void onMazeReady() {
+                latch.countDown();
+            }
+
+            @Override
+            public void onLevelSolved(MazeLevel level) { }
+        });
+
+        MazeLevel recycled = new MazeLevel(20, 10);
+        preloader.request(20, 10, MazeAlgorithm.DEPTH_FIRST, null, 5, recycled);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        MazeLevel level = preloader.take();
+        assertSame(recycled, level);
+        assertPerfect(level.getGrid());
+        /* preloaded levels come with their distances */
+        assertTrue(level.isSolved());
+        assertEquals(0, level.getDistances().distance(level.getExit()));
+        /* every maze is handed out once */
+        assertNull(preloader.take());
+        preloader.shutdown();
+    }
+
+    @Test
+    public void newerRequestReplacesOlder() throws InterruptedException {
+        MazePreloader preloader = new MazePreloader();
+
+        preloader.request(300, 300, MazeAlgorithm.KRUSKAL, null, 1, null);
+        preloader.request(12, 8, MazeAlgorithm.PRIM, null, 2, null);
+
+        /* the first maze may or may not have been carved, but it is never handed out */
+        MazeLevel level = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(level == null && System.nanoTime() < deadline) {
+            level = preloader.take();
+            if(level == null) Thread.sleep(1);
+        }
+        assertEquals(12, level.getGrid().getCols());
+        assertEquals(8, level.getGrid().getRows());
+        preloader.shutdown();
+    }
+}
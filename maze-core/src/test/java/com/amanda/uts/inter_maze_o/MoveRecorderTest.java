@@ -0,0 +1,111 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MoveRecorderTest {
+
+    private static final long MILLI = 1000000L;
+
+    @Test
+    public void replayMakesTheMovesOnTime() {
+        MazeGrid grid = new MazeGrid(6, 1);
+        for (int i = 0; i < 5; i++) grid.removeWall(i, Direction.RIGHT);
+        MoveRecorder recorder = new MoveRecorder(8);
+        recorder.start(0, 1000 * MILLI);
+        /* 10 ms (one byte), 1 s (two bytes), a whole day (five bytes) and back */
+        recorder.record(Direction.RIGHT, 1010 * MILLI);
+        recorder.record(Direction.RIGHT, 2010 * MILLI);
+        recorder.record(Direction.RIGHT, 2010 * MILLI + 86400000L * MILLI);
+        recorder.record(Direction.LEFT, 2011 * MILLI + 86400000L * MILLI);
+        assertEquals(4, recorder.getMoveCount());
+        assertEquals(1 + 2 + 5 + 1, recorder.getLength());
+
+        MoveReplay replay = new MoveReplay(grid, 0, recorder.getBytes(), recorder.getLength());
+        assertEquals(0, replay.advance(9 * MILLI));
+        assertEquals(1, replay.advance(MILLI));
+        assertEquals(1, replay.getCell());
+        assertEquals(1, replay.advance(1000 * MILLI));
+        /* twice as fast */
+        replay.setSpeed(2);
+        assertEquals(0, replay.advance(43200000L * MILLI - MILLI));
+        assertEquals(2, replay.advance(2 * MILLI));
+        assertEquals(2, replay.getCell());
+        assertTrue(replay.isFinished());
+
+        replay.rewind();
+        assertEquals(4, replay.finish());
+        assertEquals(2, replay.getCell());
+    }
+
+    @Test
+    public void longRunsReplayExactly() {
+        MazeGrid grid = new MazeGrid(30, 30);
+        new PrimGenerator().generate(grid, new Random(3));
+        MoveRecorder recorder = new MoveRecorder(4);
+        Random random = new Random(8);
+        int cell = 0;
+        long time = 0;
+        recorder.start(cell, time);
+        for (int i = 0; i < 10000; i++) {
+            Direction direction = Direction.ALL[random.nextInt(4)];
+            if(grid.hasWall(cell, direction)) continue;
+            cell = grid.neighbour(cell, direction);
+            time += random.nextInt(500) * MILLI;
+            recorder.record(direction, time);
+        }
+        assertTrue(recorder.getLength() <= 2 * recorder.getMoveCount());
+
+        MoveReplay replay = new MoveReplay(grid, 0, recorder.getBytes(), recorder.getLength());
+        assertEquals(recorder.getMoveCount(), replay.advance(time));
+        assertEquals(cell, replay.getCell());
+        assertTrue(replay.isFinished());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void movesIntoAWallAreRejected() {
+        MoveRecorder recorder = new MoveRecorder();
+        recorder.start(0, 0);
+        recorder.record(Direction.RIGHT, 0);
+        /* all walls up */
+        new MoveReplay(new MazeGrid(2, 2), 0, recorder.getBytes(), recorder.getLength()).finish();
+    }
+
+    @Test
+    public void finishedLevelBecomesTheGhost() throws IOException {
+        MazeGame game = new MazeGame();
+        game.setSize(1, 5);
+        game.setSeed(7);
+        game.createMaze();
+        for (int i = 0; i < 4; i++) game.movePlayer(Direction.RIGHT);
+        ReplayFile run = ReplayFile.fromBytes(game.getLastRun().toBytes());
+        assertEquals(7, run.getSeed());
+        assertEquals(4, run.getMoveCount());
+        assertEquals(ReplayFile.HEADER_SIZE + run.getMovesLength(), run.toBytes().length);
+        game.release();
+
+        /* the same seed again: the ghost runs to the exit alongside the player */
+        MazeGame next = new MazeGame();
+        next.setGhost(run);
+        next.setSize(1, 5);
+        next.setSeed(7);
+        next.createMaze();
+        MoveReplay ghost = next.getGhost();
+        assertEquals(0, ghost.getCell());
+        ghost.finish();
+        assertEquals(next.getExit(), ghost.getCell());
+
+        /* but not in another maze */
+        next.setSeed(8);
+        next.createMaze();
+        assertEquals(null, next.getGhost());
+        assertFalse(next.advanceGhost(MILLI));
+        next.release();
+    }
+}
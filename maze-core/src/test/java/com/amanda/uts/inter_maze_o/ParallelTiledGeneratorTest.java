@@ -0,0 +1,68 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertBorderClosed;
+import static com.amanda.uts.inter_maze_o.MazeAssert.assertPerfect;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelTiledGeneratorTest {
+
+    @Test
+    public void joinsTilesIntoPerfectMaze() {
+        ParallelTiledGenerator generator = new ParallelTiledGenerator(4, 8);
+        Random random = new Random(3);
+        /* sizes which are and aren't multiples of the tile size */
+        int[][] sizes = { {8, 8}, {16, 16}, {37, 21}, {5, 90}, {100, 100} };
+        for (int[] size : sizes) {
+            MazeGrid grid = new MazeGrid(size[0], size[1]);
+            generator.generate(grid, random);
+            assertPerfect(grid);
+            assertBorderClosed(grid);
+        }
+        generator.shutdown();
+    }
+
+    @Test
+    public void resultDoesNotDependOnThreadCount() {
+        MazeGrid expected = generate(1);
+        for (int threads : new int[] { 2, 3, 8 }) {
+            MazeGrid grid = generate(threads);
+            for (int i = 0; i < grid.size(); i++) {
+                assertEquals(expected.hasRightWall(i), grid.hasRightWall(i));
+                assertEquals(expected.hasBottomWall(i), grid.hasBottomWall(i));
+            }
+        }
+    }
+
+    @Test
+    public void defaultGeneratorsShareTheirPool() {
+        /* 3 x 3 tiles of the default size */
+        ParallelTiledGenerator first = new ParallelTiledGenerator();
+        MazeGrid expected = new MazeGrid(300, 300);
+        first.generate(expected, new Random(5));
+        first.shutdown();
+
+        /* the shared pool survives shutdown(), and the reused tile grid changes nothing */
+        ParallelTiledGenerator second = new ParallelTiledGenerator();
+        for (int i = 0; i < 2; i++) {
+            MazeGrid grid = new MazeGrid(300, 300);
+            second.generate(grid, new Random(5));
+            for (int cell = 0; cell < grid.size(); cell++) {
+                assertEquals(expected.hasRightWall(cell), grid.hasRightWall(cell));
+                assertEquals(expected.hasBottomWall(cell), grid.hasBottomWall(cell));
+            }
+        }
+        assertPerfect(expected);
+    }
+
+    private static MazeGrid generate(int threads) {
+        ParallelTiledGenerator generator = new ParallelTiledGenerator(threads, 16);
+        MazeGrid grid = new MazeGrid(150, 90);
+        generator.generate(grid, new Random(99));
+        generator.shutdown();
+        return grid;
+    }
+}
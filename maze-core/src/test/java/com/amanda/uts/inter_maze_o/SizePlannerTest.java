@@ -0,0 +1,83 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SizePlannerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void gridsMoveOffTheHeapWhenTheyDontFit() {
+        SizePlanner planner = new SizePlanner(64 * MB);
+        /* depth-first search with clusters: 10.5 bytes per cell on the heap plus the two grids */
+        assertEquals(GridStorage.HEAP, planner.plan(2000, 2000, MazeAlgorithm.DEPTH_FIRST, null).getStorage());
+
+        SizePlanner.Plan plan = planner.plan(3000, 2000, MazeAlgorithm.DEPTH_FIRST, null);
+        assertFalse(plan.fits());
+        assertNull(plan.getStorage());
+
+        planner.setMappedBytes(1024 * MB);
+        plan = planner.plan(3000, 2000, MazeAlgorithm.DEPTH_FIRST, null);
+        assertEquals(GridStorage.MAPPED, plan.getStorage());
+        assertEquals(12000000, plan.getOffHeapBytes());
+        assertEquals(63000000, plan.getHeapBytes());
+
+        planner.setDirectBytes(16 * MB);
+        assertEquals(GridStorage.DIRECT, planner.plan(3000, 2000, MazeAlgorithm.DEPTH_FIRST, null).getStorage());
+
+        /* the rest doesn't fit on the heap whatever happens to the grids */
+        assertFalse(planner.plan(3000, 3000, MazeAlgorithm.DEPTH_FIRST, null).fits());
+        assertFalse(planner.plan(2000, 2000, MazeAlgorithm.DEPTH_FIRST, DifficultyTarget.HARD).fits());
+    }
+
+    @Test
+    public void maxCellsIsTheLargestSizeWhichFits() {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            SizePlanner planner = new SizePlanner(96 * MB);
+            planner.setMappedBytes(256 * MB);
+            long max = planner.maxCells(algorithm, null);
+            assertTrue(algorithm.toString(), planner.plan(max, algorithm, null).fits());
+            assertFalse(algorithm.toString(), planner.plan(max + 1, algorithm, null).fits());
+        }
+    }
+
+    @Test
+    public void maxCellsFindsHierarchicalLevelsPastTooLargeFlatOnes() {
+        /* 36 bytes per cell below HIERARCHICAL_CELLS, 12.5 from there on */
+        SizePlanner planner = new SizePlanner(20 * MB);
+        assertFalse(planner.plan(MazeLevel.HIERARCHICAL_CELLS - 1, MazeAlgorithm.DEPTH_FIRST, null).fits());
+        long max = planner.maxCells(MazeAlgorithm.DEPTH_FIRST, null);
+        assertTrue(max >= MazeLevel.HIERARCHICAL_CELLS);
+        assertFalse(planner.plan(max + 1, MazeAlgorithm.DEPTH_FIRST, null).fits());
+    }
+
+    @Test
+    public void everyStorageCarvesTheSameMaze() throws Exception {
+        MazeGrid heap = new MazeGrid(90, 70);
+        new DepthFirstGenerator().generate(heap, new Random(7));
+        for (GridStorage storage : GridStorage.values()) {
+            MazeGrid grid = MazeGrid.allocate(90, 70, storage, folder.getRoot());
+            assertEquals(storage, grid.getStorage());
+            new DepthFirstGenerator().generate(grid, new Random(7));
+            for (int cell = 0; cell < heap.size(); cell++) {
+                for (Direction direction : Direction.ALL) {
+                    assertEquals(storage + " " + cell, heap.hasWall(cell, direction), grid.hasWall(cell, direction));
+                }
+            }
+        }
+        /* the scratch files are deleted as soon as they are mapped */
+        assertEquals(0, folder.getRoot().list().length);
+    }
+}
@@ -0,0 +1,100 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class TiltFilterTest {
+
+    private static final long MS = 1000000L;
+
+    private TiltFilter filter;
+    private final Direction[] moves = new Direction[2];
+
+    @Before
+    public void setUp() {
+        filter = new TiltFilter();
+        filter.setSmoothing(1);
+        filter.setRepeatInterval(200 * MS);
+    }
+
+    @Test
+    public void movesOnceThenRepeats() {
+        assertEquals(1, filter.update(0.5f, 0, 0, moves));
+        assertSame(Direction.DOWN, moves[0]);
+        assertEquals(0, filter.update(0.5f, 0, 100 * MS, moves));
+        assertEquals(1, filter.update(0.5f, 0, 200 * MS, moves));
+        assertSame(Direction.DOWN, moves[0]);
+    }
+
+    @Test
+    public void hysteresisIgnoresNoiseAroundThreshold() {
+        filter.setRepeatInterval(Long.MAX_VALUE);
+        assertEquals(1, filter.update(0.21f, 0, 0, moves));
+        /* dropping just below the threshold doesn't release the direction, so going back above it
+           doesn't count as a new tilt */
+        assertEquals(0, filter.update(0.18f, 0, MS, moves));
+        assertEquals(0, filter.update(0.21f, 0, 2 * MS, moves));
+        /* only falling below threshold - hysteresis does */
+        assertEquals(0, filter.update(0.1f, 0, 3 * MS, moves));
+        assertEquals(1, filter.update(0.21f, 0, 4 * MS, moves));
+    }
+
+    @Test
+    public void lowPassNeedsSeveralSamples() {
+        filter.setSmoothing(0.25f);
+        /* a single spike doesn't move the player */
+        assertEquals(0, filter.update(0.5f, 0, 0, moves));
+        assertEquals(0, filter.update(0, 0, MS, moves));
+
+        int count = 0;
+        for (int i = 2; i < 10 && count == 0; i++) count = filter.update(0.5f, 0, i * MS, moves);
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void orientationChangesThresholds() {
+        /* UP needs -0.1 in portrait but -0.2 in landscape */
+        assertEquals(1, filter.update(-0.15f, 0, 0, moves));
+        assertSame(Direction.UP, moves[0]);
+
+        filter.reset();
+        filter.setPortrait(false);
+        assertEquals(0, filter.update(-0.15f, 0, 0, moves));
+
+        /* landscape moves horizontally first */
+        assertEquals(2, filter.update(0.5f, 0.5f, MS, moves));
+        assertSame(Direction.RIGHT, moves[0]);
+        assertSame(Direction.DOWN, moves[1]);
+    }
+
+    @Test
+    public void slotReadsConsistentSamples() throws InterruptedException {
+        final SensorSlot slot = new SensorSlot();
+        SensorSlot.Sample sample = new SensorSlot.Sample();
+        assertFalse(slot.read(sample));
+
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i <= 200000; i++) slot.write(i, -i, 2 * i, i);
+            }
+        });
+        writer.start();
+        while(writer.isAlive()) {
+            if(slot.read(sample)) {
+                assertEquals(sample.x, -sample.y, 0);
+                assertEquals(2 * sample.x, sample.z, 0);
+                assertEquals((long) sample.x, sample.timestamp);
+            }
+        }
+        writer.join();
+        /* the loop may already have seen the last write */
+        slot.read(sample);
+        assertEquals(200000, sample.timestamp);
+        assertFalse(slot.read(sample));
+    }
+}
@@ -0,0 +1,89 @@
+package com.amanda.uts.inter_maze_o;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WallGeometryTest {
+
+    @Test
+    public void mergesCollinearWalls() {
+        /* Nothing carved: the border plus one full line between every two rows and columns */
+        MazeGrid grid = new MazeGrid(5, 3);
+        WallGeometry geometry = new WallGeometry();
+        geometry.build(grid, 10);
+        assertEquals(4 + 2 + 4, geometry.getSegmentCount());
+    }
+
+    @Test
+    public void coversEveryWallExactlyOnce() {
+        MazeGrid grid = new MazeGrid(37, 23);
+        new DepthFirstGenerator().generate(grid, new Random(11));
+        WallGeometry geometry = new WallGeometry();
+        geometry.build(grid, 1);
+
+        int cols = grid.getCols(), rows = grid.getRows();
+        /* unit walls covered by the segments: horizontal on line y, vertical on line x */
+        int[][] horizontal = new int[rows + 1][cols];
+        int[][] vertical = new int[cols + 1][rows];
+        float[] lines = geometry.getLines();
+        for (int i = 0; i < geometry.getLength(); i += 4) {
+            int x0 = (int) lines[i], y0 = (int) lines[i + 1], x1 = (int) lines[i + 2], y1 = (int) lines[i + 3];
+            assertTrue("axis aligned", x0 == x1 || y0 == y1);
+            if (y0 == y1) {
+                for (int x = x0; x < x1; x++) horizontal[y0][x]++;
+            } else {
+                for (int y = y0; y < y1; y++) vertical[x0][y]++;
+            }
+        }
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = grid.index(col, row);
+                assertEquals(grid.hasWall(index, Direction.UP) ? 1 : 0, horizontal[row][col]);
+                assertEquals(grid.hasWall(index, Direction.DOWN) ? 1 : 0, horizontal[row + 1][col]);
+                assertEquals(grid.hasWall(index, Direction.LEFT) ? 1 : 0, vertical[col][row]);
+                assertEquals(grid.hasWall(index, Direction.RIGHT) ? 1 : 0, vertical[col + 1][row]);
+            }
+        }
+    }
+
+    @Test
+    public void regionMatchesWholeMaze() {
+        MazeGrid grid = new MazeGrid(40, 30);
+        new KruskalGenerator().generate(grid, new Random(5));
+        WallGeometry geometry = new WallGeometry();
+
+        /* every unit wall inside or on the edge of the region, in maze coordinates */
+        geometry.build(grid, 1, 10, 5, 12, 8);
+        float[] lines = geometry.getLines();
+        int units = 0;
+        for (int i = 0; i < geometry.getLength(); i += 4) {
+            int x0 = (int) lines[i] + 10, y0 = (int) lines[i + 1] + 5;
+            int x1 = (int) lines[i + 2] + 10, y1 = (int) lines[i + 3] + 5;
+            if (y0 == y1) {
+                for (int x = x0; x < x1; x++) {
+                    assertTrue(y0 == 30 || grid.hasWall(grid.index(x, y0), Direction.UP));
+                    units++;
+                }
+            } else {
+                for (int y = y0; y < y1; y++) {
+                    assertTrue(x0 == 40 || grid.hasWall(grid.index(x0, y), Direction.LEFT));
+                    units++;
+                }
+            }
+        }
+
+        int expected = 0;
+        for (int y = 5; y <= 13; y++) {
+            for (int x = 10; x < 22; x++) if (grid.hasWall(grid.index(x, y), Direction.UP)) expected++;
+        }
+        for (int x = 10; x <= 22; x++) {
+            for (int y = 5; y < 13; y++) if (grid.hasWall(grid.index(x, y), Direction.LEFT)) expected++;
+        }
+        assertEquals(expected, units);
+    }
+}